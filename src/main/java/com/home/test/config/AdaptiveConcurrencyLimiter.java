@@ -0,0 +1,202 @@
+package com.home.test.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD concurrency limit for outbound Frankfurter calls, driven by measured latency.
+ *
+ * Every response that arrives within the latency threshold grows the limit by {@code 1/limit}
+ * (about +1 per round trip of the whole window); a slow response, a 429/5xx or an error shrinks it by
+ * the backoff ratio. Requests over the limit wait in a bounded FIFO queue for up to the queue timeout
+ * and are shed with {@link LimitExceededException} when the queue is full or the wait expires.
+ *
+ * A call holds its slot until the response body completes, errors or is cancelled, and its latency is measured
+ * to that point, so a slow body counts against the limit just like a slow status line.
+ */
+public class AdaptiveConcurrencyLimiter implements ExchangeFilterFunction {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final int maxQueue;
+    private final Duration queueTimeout;
+    private final LongSupplier nanoClock;
+
+    // Guarded by this: outbound volume is small, so a monitor keeps limit, in-flight and queue consistent
+    private double limit;
+    private int inFlight;
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+
+    public AdaptiveConcurrencyLimiter(FrankfurterApiProperties.Limiter properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(FrankfurterApiProperties.Limiter properties, LongSupplier nanoClock) {
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.limit = Math.clamp(properties.getInitialLimit(), minLimit, maxLimit);
+        this.latencyThresholdNanos = Duration.ofMillis(properties.getLatencyThresholdMs()).toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.maxQueue = properties.getMaxQueue();
+        this.queueTimeout = Duration.ofMillis(properties.getQueueTimeoutMs());
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Publish the current limit, in-flight count and queue depth as gauges.
+     */
+    public AdaptiveConcurrencyLimiter bindTo(MeterRegistry registry) {
+        Gauge.builder("frankfurter.client.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Adaptive concurrency limit for Frankfurter calls")
+                .register(registry);
+        Gauge.builder("frankfurter.client.concurrency.in_flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(registry);
+        Gauge.builder("frankfurter.client.concurrency.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .register(registry);
+        return this;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return acquire().flatMap(permit -> next.exchange(request)
+                .map(response -> releasedWithBody(response, permit))
+                .switchIfEmpty(Mono.fromRunnable(() -> permit.release(Outcome.IGNORED)))
+                .doOnError(error -> permit.release(Outcome.DROPPED))
+                .doOnCancel(() -> permit.release(Outcome.IGNORED)));
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    Mono<Permit> acquire() {
+        Waiter waiter;
+        synchronized (this) {
+            if (queue.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return Mono.just(new Permit(nanoClock.getAsLong()));
+            }
+            if (queue.size() >= maxQueue) {
+                return Mono.error(new LimitExceededException("Upstream concurrency limit reached and queue is full"));
+            }
+            waiter = new Waiter();
+            queue.addLast(waiter);
+        }
+
+        return waiter.sink.asMono()
+                .timeout(queueTimeout)
+                .onErrorResume(TimeoutException.class, e -> {
+                    abandon(waiter);
+                    return Mono.error(new LimitExceededException("Timed out waiting for an upstream slot"));
+                })
+                .doOnCancel(() -> abandon(waiter));
+    }
+
+    private void abandon(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (queue.remove(waiter)) {
+                return;
+            }
+            granted = waiter.granted;
+        }
+        // Granted concurrently with the timeout or cancel: hand the slot back
+        if (granted != null) {
+            granted.release(Outcome.IGNORED);
+        }
+    }
+
+    private void onRelease(Outcome outcome, long latencyNanos) {
+        List<Waiter> ready = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (outcome == Outcome.SUCCESS && latencyNanos <= latencyThresholdNanos) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            } else if (outcome != Outcome.IGNORED) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            }
+            while (!queue.isEmpty() && inFlight < (int) limit) {
+                Waiter waiter = queue.pollFirst();
+                inFlight++;
+                waiter.granted = new Permit(nanoClock.getAsLong());
+                ready.add(waiter);
+            }
+        }
+        for (Waiter waiter : ready) {
+            waiter.sink.tryEmitValue(waiter.granted);
+        }
+    }
+
+    private static ClientResponse releasedWithBody(ClientResponse response, Permit permit) {
+        Outcome outcome = isOverloaded(response.statusCode().value()) ? Outcome.DROPPED : Outcome.SUCCESS;
+        return response.mutate()
+                .body(body -> body
+                        .doOnComplete(() -> permit.release(outcome))
+                        .doOnError(error -> permit.release(Outcome.DROPPED))
+                        .doOnCancel(() -> permit.release(Outcome.IGNORED)))
+                .build();
+    }
+
+    private static boolean isOverloaded(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+    }
+
+    enum Outcome {
+        SUCCESS, DROPPED, IGNORED
+    }
+
+    final class Permit {
+        private final long startedNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+
+        void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                onRelease(outcome, nanoClock.getAsLong() - startedNanos);
+            }
+        }
+    }
+
+    private final class Waiter {
+        final Sinks.One<Permit> sink = Sinks.one();
+        Permit granted;
+    }
+
+    /**
+     * An outbound call was shed because Frankfurter is at its current concurrency limit.
+     */
+    public static class LimitExceededException extends RuntimeException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
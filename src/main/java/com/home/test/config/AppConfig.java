@@ -1,19 +1,73 @@
 package com.home.test.config;
 
+import com.home.test.service.HistoricalSeriesCache;
+import com.home.test.service.InMemorySharedCacheBackend;
+import com.home.test.service.SharedCacheBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class AppConfig {
 
     @Bean
-    public WebClient frankfurterWebClient(FrankfurterApiProperties properties) {
-        WebClientFactoryBean factoryBean = new WebClientFactoryBean(properties.getBaseUrl(), properties.getTimeout());
+    public AdaptiveConcurrencyLimiter frankfurterConcurrencyLimiter(FrankfurterApiProperties properties,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties.getLimiter());
+        meterRegistry.ifAvailable(limiter::bindTo);
+        return limiter;
+    }
+
+    @Bean
+    public HistoricalSeriesCache historicalSeriesCache(FrankfurterApiProperties properties,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        HistoricalSeriesCache cache = new HistoricalSeriesCache(properties.getHistoricalCache());
+        meterRegistry.ifAvailable(cache::bindTo);
+        return cache;
+    }
+
+    /**
+     * Store shared by the replicas when {@code cluster.enabled}. Other backends plug in as a
+     * {@link SharedCacheBackend} bean selected by their own {@code cluster.backend} value.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "cluster", name = "backend", havingValue = "in-memory", matchIfMissing = true)
+    public SharedCacheBackend inMemorySharedCacheBackend() {
+        return new InMemorySharedCacheBackend();
+    }
+
+    @Bean
+    public WebClient frankfurterWebClient(FrankfurterApiProperties properties, AdaptiveConcurrencyLimiter limiter) {
+        List<ExchangeFilterFunction> filters = properties.getLimiter().isEnabled() ? List.of(limiter) : List.of();
+        WebClientFactoryBean factoryBean = new WebClientFactoryBean(properties.getBaseUrl(), properties.getTimeout(), filters,
+                (int) properties.getMaxInMemorySize().toBytes());
         try {
             return factoryBean.getObject();
         } catch (Exception e) {
             throw new RuntimeException("Failed to create WebClient", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Scheduler for the blocking work left on the reactive path (snapshot file I/O). Runs on virtual threads
+     * when {@code spring.threads.virtual.enabled} is set, otherwise on a bounded elastic pool.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "virtual-blocking");
+        }
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "blocking");
+    }
+}
@@ -0,0 +1,106 @@
+package com.home.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterProperties {
+    public static final String SHARED_CACHE_MODE = "shared-cache";
+    public static final String PEERS_MODE = "peers";
+
+    private boolean enabled = false;
+    private String mode = SHARED_CACHE_MODE;
+    private String backend = "in-memory";
+    private String instanceId = UUID.randomUUID().toString();
+    private int leaseTtlMs = 30000;
+    private int syncIntervalMs = 5000;
+    private long refreshIntervalMs = 3600000;
+    private List<String> peers = new ArrayList<>();
+    private int peerTimeoutMs = 1000;
+    private String peerToken;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public int getLeaseTtlMs() {
+        return leaseTtlMs;
+    }
+
+    public void setLeaseTtlMs(int leaseTtlMs) {
+        this.leaseTtlMs = leaseTtlMs;
+    }
+
+    public int getSyncIntervalMs() {
+        return syncIntervalMs;
+    }
+
+    public void setSyncIntervalMs(int syncIntervalMs) {
+        this.syncIntervalMs = syncIntervalMs;
+    }
+
+    public long getRefreshIntervalMs() {
+        return refreshIntervalMs;
+    }
+
+    public void setRefreshIntervalMs(long refreshIntervalMs) {
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    public List<String> getPeers() {
+        return peers;
+    }
+
+    public void setPeers(List<String> peers) {
+        this.peers = peers;
+    }
+
+    public int getPeerTimeoutMs() {
+        return peerTimeoutMs;
+    }
+
+    public void setPeerTimeoutMs(int peerTimeoutMs) {
+        this.peerTimeoutMs = peerTimeoutMs;
+    }
+
+    public String getPeerToken() {
+        return peerToken;
+    }
+
+    public void setPeerToken(String peerToken) {
+        this.peerToken = peerToken;
+    }
+}
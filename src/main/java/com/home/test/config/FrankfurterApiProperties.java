@@ -2,12 +2,17 @@ package com.home.test.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 @Component
 @ConfigurationProperties(prefix = "frankfurter.api")
 public class FrankfurterApiProperties {
     private String baseUrl;
     private int timeout;
+    private int historicalBatchWindowMs = 5;
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+    private Limiter limiter = new Limiter();
+    private HistoricalCache historicalCache = new HistoricalCache();
 
     public String getBaseUrl() {
         return baseUrl;
@@ -24,4 +29,132 @@ public class FrankfurterApiProperties {
     public void setTimeout(int timeout) {
         this.timeout = timeout;
     }
-}
\ No newline at end of file
+
+    public int getHistoricalBatchWindowMs() {
+        return historicalBatchWindowMs;
+    }
+
+    public void setHistoricalBatchWindowMs(int historicalBatchWindowMs) {
+        this.historicalBatchWindowMs = historicalBatchWindowMs;
+    }
+
+    public DataSize getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    public void setMaxInMemorySize(DataSize maxInMemorySize) {
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    public Limiter getLimiter() {
+        return limiter;
+    }
+
+    public void setLimiter(Limiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public HistoricalCache getHistoricalCache() {
+        return historicalCache;
+    }
+
+    public void setHistoricalCache(HistoricalCache historicalCache) {
+        this.historicalCache = historicalCache;
+    }
+
+    public static class Limiter {
+        private boolean enabled = true;
+        private int initialLimit = 8;
+        private int minLimit = 1;
+        private int maxLimit = 64;
+        private int latencyThresholdMs = 500;
+        private double backoffRatio = 0.9;
+        private int maxQueue = 100;
+        private int queueTimeoutMs = 2000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public int getLatencyThresholdMs() {
+            return latencyThresholdMs;
+        }
+
+        public void setLatencyThresholdMs(int latencyThresholdMs) {
+            this.latencyThresholdMs = latencyThresholdMs;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public int getQueueTimeoutMs() {
+            return queueTimeoutMs;
+        }
+
+        public void setQueueTimeoutMs(int queueTimeoutMs) {
+            this.queueTimeoutMs = queueTimeoutMs;
+        }
+    }
+
+    public static class HistoricalCache {
+        private int hotMaxMonths = 36;
+        private DataSize coldMaxSize = DataSize.ofMegabytes(16);
+
+        public int getHotMaxMonths() {
+            return hotMaxMonths;
+        }
+
+        public void setHotMaxMonths(int hotMaxMonths) {
+            this.hotMaxMonths = hotMaxMonths;
+        }
+
+        public DataSize getColdMaxSize() {
+            return coldMaxSize;
+        }
+
+        public void setColdMaxSize(DataSize coldMaxSize) {
+            this.coldMaxSize = coldMaxSize;
+        }
+    }
+}
@@ -1,35 +1,137 @@
 package com.home.test.config;
 
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.CodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.home.test.util.FixedDecimal;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class JacksonConfig {
 
+    /** Fractional digits for rates below 0.001, which would otherwise be written in scientific notation. */
+    static final int SMALL_VALUE_SCALE = 8;
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    private static final int SMALL_VALUE_CHARS = 2 + SMALL_VALUE_SCALE;
+
     @Bean
     public Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder() {
         SimpleModule module = new SimpleModule();
         module.addSerializer(Double.class, new JsonSerializer<Double>() {
             @Override
             public void serialize(Double value, JsonGenerator gen, com.fasterxml.jackson.databind.SerializerProvider provider) throws IOException {
-                // Format double to avoid scientific notation for very small numbers
-                if (value != null && value < 0.001 && value > 0) {
-                    gen.writeRawValue(String.format("%.8f", value));
-                } else {
-                    gen.writeNumber(value);
+                writeRate(value, gen, new char[SMALL_VALUE_CHARS]);
+            }
+        });
+        // Columnar series, written with the same formatting as boxed rates
+        module.addSerializer(double[].class, new JsonSerializer<double[]>() {
+            @Override
+            public void serialize(double[] values, JsonGenerator gen, com.fasterxml.jackson.databind.SerializerProvider provider) throws IOException {
+                char[] digits = new char[SMALL_VALUE_CHARS];
+                gen.writeStartArray(values, values.length);
+                for (double value : values) {
+                    writeRate(value, gen, digits);
                 }
+                gen.writeEndArray();
             }
         });
 
-        return new Jackson2ObjectMapperBuilder()
+        return configure(new Jackson2ObjectMapperBuilder())
                 .modules(module)
-                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .indentOutput(false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Adds CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) alongside JSON
+     * for the server and every Boot-built WebClient; clients opt in through {@code Accept}.
+     */
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer(ObjectMapper objectMapper) {
+        return configurer -> registerBinaryCodecs(configurer, objectMapper);
+    }
+
+    /**
+     * Register the binary codecs on {@code configurer}. Custom writers are consulted before the defaults,
+     * so {@code jsonMapper}'s encoder is registered first to keep JSON the choice for a wildcard or missing
+     * {@code Accept}. Binary encodings write doubles natively at full precision rather than
+     * through the JSON small-value formatting.
+     */
+    public static void registerBinaryCodecs(CodecConfigurer configurer, ObjectMapper jsonMapper) {
+        configurer.customCodecs().register(new Jackson2JsonEncoder(jsonMapper));
+        configurer.customCodecs().register(new CborEncoder(BinaryMappers.CBOR));
+        configurer.customCodecs().register(new Jackson2CborDecoder(BinaryMappers.CBOR, MediaType.APPLICATION_CBOR));
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(BinaryMappers.SMILE, APPLICATION_SMILE));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(BinaryMappers.SMILE, APPLICATION_SMILE));
+    }
+
+    private static void writeRate(double value, JsonGenerator gen, char[] digits) throws IOException {
+        // Format double to avoid scientific notation for very small numbers
+        if (value < 0.001 && value > 0) {
+            gen.writeRawValue(digits, 0, FixedDecimal.format(value, SMALL_VALUE_SCALE, digits, 0));
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    /**
+     * Settings shared by the JSON and binary mappers.
+     */
+    private static Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Spring's CBOR encoder only implements {@code encodeValue}; response bodies arrive as a {@code Mono},
+     * so encode that single value, and a {@code Flux} as one CBOR array.
+     */
+    static final class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            return Flux.from(inputStream).collectList()
+                    .map(values -> encodeValue(values, bufferFactory,
+                            ResolvableType.forClassWithGenerics(List.class, elementType), mimeType, hints))
+                    .flux();
+        }
+    }
+
+    /** Thread-safe mappers shared by every configurer, built on first use. */
+    static final class BinaryMappers {
+        static final ObjectMapper CBOR = configure(Jackson2ObjectMapperBuilder.cbor()).build();
+        static final ObjectMapper SMILE = configure(Jackson2ObjectMapperBuilder.smile()).build();
+
+        private BinaryMappers() {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.home.test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "spread")
+public class SpreadProperties {
+    private Double defaultBuy;
+    private Double defaultSell;
+    private Map<String, Spread> currencies = new HashMap<>();
+    private Map<String, Tier> tiers = new LinkedHashMap<>();
+
+    public Double getDefaultBuy() {
+        return defaultBuy;
+    }
+
+    public void setDefaultBuy(Double defaultBuy) {
+        this.defaultBuy = defaultBuy;
+    }
+
+    public Double getDefaultSell() {
+        return defaultSell;
+    }
+
+    public void setDefaultSell(Double defaultSell) {
+        this.defaultSell = defaultSell;
+    }
+
+    public Map<String, Spread> getCurrencies() {
+        return currencies;
+    }
+
+    public void setCurrencies(Map<String, Spread> currencies) {
+        this.currencies = currencies;
+    }
+
+    public Map<String, Tier> getTiers() {
+        return tiers;
+    }
+
+    public void setTiers(Map<String, Tier> tiers) {
+        this.tiers = tiers;
+    }
+
+    public static class Spread {
+        private Double buy;
+        private Double sell;
+
+        public Double getBuy() {
+            return buy;
+        }
+
+        public void setBuy(Double buy) {
+            this.buy = buy;
+        }
+
+        public Double getSell() {
+            return sell;
+        }
+
+        public void setSell(Double sell) {
+            this.sell = sell;
+        }
+    }
+
+    public static class Tier {
+        private double multiplier = 1.0;
+        private Map<String, Spread> currencies = new HashMap<>();
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public void setMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public Map<String, Spread> getCurrencies() {
+            return currencies;
+        }
+
+        public void setCurrencies(Map<String, Spread> currencies) {
+            this.currencies = currencies;
+        }
+    }
+}
@@ -2,19 +2,36 @@ package com.home.test.config;
 
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
+import java.util.List;
 
 public class WebClientFactoryBean implements FactoryBean<WebClient> {
 
+    /** Codec default; too small for the all-currency historical series over more than about two years. */
+    private static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+
     private final String baseUrl;
     private final int timeout;
+    private final List<ExchangeFilterFunction> filters;
+    private final int maxInMemorySize;
 
     public WebClientFactoryBean(String baseUrl, int timeout) {
+        this(baseUrl, timeout, List.of());
+    }
+
+    public WebClientFactoryBean(String baseUrl, int timeout, List<ExchangeFilterFunction> filters) {
+        this(baseUrl, timeout, filters, DEFAULT_MAX_IN_MEMORY_SIZE);
+    }
+
+    public WebClientFactoryBean(String baseUrl, int timeout, List<ExchangeFilterFunction> filters, int maxInMemorySize) {
         this.baseUrl = baseUrl;
         this.timeout = timeout;
+        this.filters = filters;
+        this.maxInMemorySize = maxInMemorySize;
     }
 
     @Override
@@ -25,6 +42,8 @@ public class WebClientFactoryBean implements FactoryBean<WebClient> {
         return WebClient.builder()
                 .baseUrl(baseUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .filters(existing -> existing.addAll(filters))
                 .build();
     }
 
@@ -0,0 +1,73 @@
+package com.home.test.controller;
+
+import com.home.test.config.ClusterProperties;
+import com.home.test.dto.PeerHeartbeat;
+import com.home.test.service.PeerRefreshCoordinator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+
+/**
+ * Node-to-node endpoints of the peer protocol ({@code cluster.mode=peers}); see {@link PeerRefreshCoordinator}.
+ * Not under {@code /api}, so they bypass the client rate limit; pushes are only accepted with {@code cluster.peer-token}.
+ */
+@RestController
+@RequestMapping("/internal/cluster")
+@ConditionalOnProperty(prefix = "cluster", name = "mode", havingValue = ClusterProperties.PEERS_MODE)
+public class ClusterController {
+
+    private final PeerRefreshCoordinator coordinator;
+    private final Scheduler blockingScheduler;
+
+    @Autowired
+    public ClusterController(PeerRefreshCoordinator coordinator,
+                             @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this.coordinator = coordinator;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    @GetMapping("/heartbeat")
+    public ResponseEntity<PeerHeartbeat> heartbeat() {
+        if (!coordinator.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(coordinator.heartbeat());
+    }
+
+    @PostMapping(path = "/snapshot", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Mono<ResponseEntity<Object>> receiveSnapshot(
+            @RequestHeader(PeerRefreshCoordinator.VERSION_HEADER) long version,
+            @RequestHeader(value = PeerRefreshCoordinator.TOKEN_HEADER, required = false) String token,
+            @RequestBody byte[] snapshot) {
+        if (!coordinator.isEnabled()) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        if (!coordinator.acceptsToken(token)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "error", "Forbidden",
+                    "message", "Missing or invalid cluster token"
+            )));
+        }
+        // Applying persists the snapshot file, so keep it off the event loop
+        return Mono.fromCallable(() -> coordinator.receive(snapshot, version))
+                .subscribeOn(blockingScheduler)
+                .map(applied -> applied
+                        ? ResponseEntity.noContent().build()
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body((Object) Map.of(
+                                "error", "Stale Snapshot",
+                                "message", "Version " + version + " is not newer than the one held"
+                        )))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(Map.of(
+                        "error", "Invalid Snapshot",
+                        "message", e.getMessage()
+                ))));
+    }
+}
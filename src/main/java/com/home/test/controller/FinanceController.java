@@ -1,130 +1,149 @@
 package com.home.test.controller;
 
+import com.home.test.config.AdaptiveConcurrencyLimiter;
+import com.home.test.config.JacksonConfig;
 import com.home.test.service.DataStoreService;
+import com.home.test.service.EncodedResponseCache;
 import com.home.test.service.CurrencyMetadataService;
+import com.home.test.service.HistoricalRatesService;
+import com.home.test.dto.ColumnarHistoricalResponse;
 import com.home.test.dto.CurrencyResponse;
 import com.home.test.dto.EnrichedCurrencyResponse;
-import com.home.test.dto.FrankfurterHistoricalResponse;
 import com.home.test.dto.LatestRatesResponse;
+import com.home.test.util.RequestValidator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
-import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/finance/data")
 public class FinanceController {
 
+    /** How long a request may wait for startup initialization before it gets a 503. */
+    static final Duration READINESS_WAIT = Duration.ofSeconds(2);
+
+    /** {@code shape} value selecting {@link ColumnarHistoricalResponse} for historical data. */
+    static final String COLUMNAR_SHAPE = "columnar";
+
     private final DataStoreService dataStoreService;
-    private final WebClient webClient;
+    private final HistoricalRatesService historicalRatesService;
     private final CurrencyMetadataService currencyMetadataService;
+    private final EncodedResponseCache encodedResponseCache;
 
-    public FinanceController(DataStoreService dataStoreService, WebClient webClient, CurrencyMetadataService currencyMetadataService) {
+    public FinanceController(DataStoreService dataStoreService, HistoricalRatesService historicalRatesService,
+                             CurrencyMetadataService currencyMetadataService, EncodedResponseCache encodedResponseCache) {
         this.dataStoreService = dataStoreService;
-        this.webClient = webClient;
+        this.historicalRatesService = historicalRatesService;
         this.currencyMetadataService = currencyMetadataService;
+        this.encodedResponseCache = encodedResponseCache;
     }
 
     @GetMapping("/historical/custom")
-    public ResponseEntity<Object> getHistoricalData(
+    public Mono<ResponseEntity<Object>> getHistoricalData(
             @RequestParam String start,
             @RequestParam String end,
             @RequestParam String from,
-            @RequestParam String to) {
-        if (!dataStoreService.isInitialized()) {
-            return ResponseEntity.status(503).body(Map.of(
-                    "error", "Service Unavailable",
-                    "message", "Data initialization in progress"
-            ));
-        }
-
-        try {
+            @RequestParam String to,
+            @RequestParam(required = false) String shape) {
+        return whenInitialized(() -> {
             // Validate date format (YYYY-MM-DD)
-            if (!isValidDate(start) || !isValidDate(end)) {
-                return ResponseEntity.badRequest().body(Map.of(
+            if (!RequestValidator.isIsoDate(start) || !RequestValidator.isIsoDate(end)) {
+                return Mono.just(ResponseEntity.badRequest().body(Map.of(
                         "error", "Invalid Date Format",
                         "message", "Dates must be in YYYY-MM-DD format"
-                ));
+                )));
             }
 
-            // Validate currency codes
-            if (!isValidCurrencyCode(from) || !isValidCurrencyCode(to)) {
-                return ResponseEntity.badRequest().body(Map.of(
+            // Validate currency codes against what upstream currently serves
+            RequestValidator validator = currencyMetadataService.getRequestValidator();
+            if (!validator.isSupportedCurrencyCode(from) || !validator.isSupportedCurrencyCode(to)) {
+                return Mono.just(ResponseEntity.badRequest().body(Map.of(
                         "error", "Invalid Currency Code",
                         "message", "Currency codes must be 3-letter ISO 4217 codes"
-                ));
+                )));
             }
 
-            // Fetch historical data from Frankfurter API
-            FrankfurterHistoricalResponse response = fetchHistoricalDataFromAPI(start, end, from, to);
-
-            // Sort rates by date in descending order (newest first)
-            if (response.getRates() != null && !response.getRates().isEmpty()) {
-                Map<String, Map<String, Double>> sortedRates = new java.util.LinkedHashMap<>();
-                response.getRates().entrySet().stream()
-                    .sorted(Map.Entry.<String, Map<String, Double>>comparingByKey().reversed())
-                    .forEachOrdered(entry -> sortedRates.put(entry.getKey(), entry.getValue()));
-                response.setRates(sortedRates);
+            // Derive the pair from the canonical IDR series (fetched from Frankfurter only when not cached)
+            Mono<ResponseEntity<Object>> historical;
+            if (COLUMNAR_SHAPE.equals(shape)) {
+                // Parallel date/rate arrays, already newest first
+                historical = fetchHistorical(() -> historicalRatesService.getHistoricalSeries(start, end, from, to))
+                        .map(ResponseEntity::<Object>ok);
+            } else {
+                // Rates stay in date order; the response writes them newest first
+                historical = fetchHistorical(() -> historicalRatesService.getHistoricalRates(start, end, from, to))
+                        .map(ResponseEntity::<Object>ok);
             }
-
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "error", "Internal Server Error",
-                    "message", "Failed to fetch historical data: " + e.getMessage()
-            ));
-        }
+            return historical
+                    .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(Map.of(
+                            "error", "Invalid Date Range",
+                            "message", e.getMessage()
+                    ))))
+                    .onErrorResume(e -> Mono.just(isUpstreamBusy(e)
+                            ? ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "1").body(Map.of(
+                                    "error", "Service Unavailable",
+                                    "message", "Upstream rate provider is busy, please retry"
+                            ))
+                            : ResponseEntity.internalServerError().body(Map.of(
+                                    "error", "Internal Server Error",
+                                    "message", "Failed to fetch historical data: " + e.getMessage()
+                            ))));
+        });
     }
 
     @GetMapping("/{resourceType}")
-    public ResponseEntity<Object> getData(@PathVariable String resourceType, HttpServletRequest request) {
-        if (!dataStoreService.isInitialized()) {
-            return ResponseEntity.status(503).body(Map.of(
-                    "error", "Service Unavailable",
-                    "message", "Data initialization in progress"
-            ));
-        }
+    public Mono<ResponseEntity<Object>> getData(@PathVariable String resourceType,
+                                                @RequestParam(required = false) String format,
+                                                @RequestHeader HttpHeaders headers) {
+        return whenInitialized(() -> Mono.fromCallable(() -> readData(resourceType, format, headers))
+                .onErrorResume(e -> Mono.just(e instanceof IllegalArgumentException
+                        ? ResponseEntity.badRequest().body(Map.of(
+                                "error", "Resource Not Found",
+                                "message", e.getMessage()
+                        ))
+                        : ResponseEntity.internalServerError().body(Map.of(
+                                "error", "Internal Server Error",
+                                "message", "An unexpected error occurred while processing your request"
+                        )))));
+    }
 
-        try {
-            switch (resourceType) {
-                case "latest_idr_rates":
-                    LatestRatesResponse latestRates = dataStoreService.getData(resourceType, LatestRatesResponse.class);
-                    return ResponseEntity.ok(latestRates);
-
-                case "supported_currencies":
-                    CurrencyResponse currencies = dataStoreService.getData(resourceType, CurrencyResponse.class);
-                    // Check if simple format is requested
-                    String format = request.getParameter("format");
-                    if ("simple".equals(format)) {
-                        return ResponseEntity.ok(currencies);
-                    }
-                    // Default: Enrich response with detailed metadata
-                    EnrichedCurrencyResponse enrichedResponse = new EnrichedCurrencyResponse(
-                        currencyMetadataService.enrichCurrencies(currencies.getCurrencies())
-                    );
-                    return ResponseEntity.ok(enrichedResponse);
-
-                default:
-                    return ResponseEntity.badRequest().body(Map.of(
-                            "error", "Invalid Resource Type",
-                            "message", "Valid resource types are: latest_idr_rates, supported_currencies",
-                            "provided", resourceType
-                    ));
-            }
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Resource Not Found",
-                    "message", e.getMessage()
-            ));
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "error", "Internal Server Error",
-                    "message", "An unexpected error occurred while processing your request"
-            ));
+    private ResponseEntity<Object> readData(String resourceType, String format, HttpHeaders headers) {
+        switch (resourceType) {
+            case "latest_idr_rates":
+                if (servesJson(headers)) {
+                    return precomputed(encodedResponseCache.latestRates(), headers);
+                }
+                LatestRatesResponse latestRates = dataStoreService.getData(resourceType, LatestRatesResponse.class);
+                return ResponseEntity.ok(latestRates);
+
+            case "supported_currencies":
+                if (servesJson(headers)) {
+                    return precomputed(encodedResponseCache.supportedCurrencies("simple".equals(format)), headers);
+                }
+                CurrencyResponse currencies = dataStoreService.getData(resourceType, CurrencyResponse.class);
+                // Check if simple format is requested
+                if ("simple".equals(format)) {
+                    return ResponseEntity.ok(currencies);
+                }
+                // Default: Enrich response with detailed metadata
+                EnrichedCurrencyResponse enrichedResponse = new EnrichedCurrencyResponse(
+                    currencyMetadataService.enrichCurrencies(currencies.getCurrencies())
+                );
+                return ResponseEntity.ok(enrichedResponse);
+
+            default:
+                return ResponseEntity.badRequest().body(Map.of(
+                        "error", "Invalid Resource Type",
+                        "message", "Valid resource types are: latest_idr_rates, supported_currencies",
+                        "provided", resourceType
+                ));
         }
     }
 
@@ -136,30 +155,96 @@ public class FinanceController {
         ));
     }
 
-    private boolean isValidDate(String date) {
-        try {
-            java.time.LocalDate.parse(date);
-            return true;
-        } catch (java.time.DateTimeException e) {
-            return false;
+    /**
+     * Serve a precomputed JSON body, gzipped when the client accepts it. Compressed bodies already carry
+     * {@code Content-Encoding}, so the server's on-the-fly compression leaves them alone.
+     */
+    private static ResponseEntity<Object> precomputed(EncodedResponseCache.EncodedBody body, HttpHeaders requestHeaders) {
+        boolean gzip = body.getGzip() != null && acceptsGzip(requestHeaders);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
+        return response.body(gzip ? body.getGzip() : body.getIdentity());
     }
 
-    private boolean isValidCurrencyCode(String currency) {
-        return currency != null && currency.matches("^[A-Z]{3}$");
+    /**
+     * Whether content negotiation would pick JSON: no {@code Accept}, or one that admits JSON and names
+     * neither binary encoding.
+     */
+    static boolean servesJson(HttpHeaders headers) {
+        List<MediaType> accept = headers.getAccept();
+        if (accept.isEmpty()) {
+            return true;
+        }
+        boolean json = false;
+        for (MediaType type : accept) {
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)
+                    || type.equalsTypeAndSubtype(JacksonConfig.APPLICATION_SMILE)) {
+                return false;
+            }
+            json |= type.includes(MediaType.APPLICATION_JSON);
+        }
+        return json;
     }
 
-    private FrankfurterHistoricalResponse fetchHistoricalDataFromAPI(String start, String end, String from, String to) {
-        String url = String.format("/%s..%s?from=%s&to=%s", start, end, from, to);
+    /**
+     * Whether {@code Accept-Encoding} allows gzip, directly or via {@code *}, with a non-zero quality.
+     */
+    static boolean acceptsGzip(HttpHeaders headers) {
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                    continue;
+                }
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") && parseQuality(param.substring(2)) <= 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
 
+    private static double parseQuality(String value) {
         try {
-            return webClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(FrankfurterHistoricalResponse.class)
-                    .block();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to fetch historical data from Frankfurter API: " + e.getMessage(), e);
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static boolean isUpstreamBusy(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AdaptiveConcurrencyLimiter.LimitExceededException) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    /**
+     * Run {@code handler} once the store is initialized; requests arriving during startup wait without
+     * holding a thread and get a 503 after {@link #READINESS_WAIT}.
+     */
+    private Mono<ResponseEntity<Object>> whenInitialized(Supplier<Mono<ResponseEntity<Object>>> handler) {
+        return dataStoreService.awaitInitialized(READINESS_WAIT)
+                .flatMap(initialized -> initialized ? handler.get() : Mono.just(ResponseEntity.status(503).body(Map.of(
+                        "error", "Service Unavailable",
+                        "message", "Data initialization in progress"
+                ))));
+    }
+
+    private static <T> Mono<T> fetchHistorical(Supplier<Mono<T>> fetch) {
+        // Invalid ranges are the caller's fault and stay as they are
+        return Mono.defer(fetch)
+                .onErrorMap(e -> !(e instanceof IllegalArgumentException), e -> new RuntimeException("Failed to fetch historical data from Frankfurter API: " + e.getMessage(), e));
     }
 }
\ No newline at end of file
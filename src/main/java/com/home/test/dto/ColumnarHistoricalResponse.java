@@ -0,0 +1,90 @@
+package com.home.test.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historical rates as parallel arrays ({@code shape=columnar}): {@code series.get(code)[i]} is the rate on
+ * {@code dates.get(i)}, newest date first. Each currency code appears once instead of once per date.
+ */
+public class ColumnarHistoricalResponse {
+    @JsonProperty("amount")
+    private String amount;
+
+    @JsonProperty("base")
+    private String base;
+
+    @JsonProperty("start_date")
+    private String startDate;
+
+    @JsonProperty("end_date")
+    private String endDate;
+
+    @JsonProperty("dates")
+    private List<String> dates;
+
+    @JsonProperty("series")
+    private Map<String, double[]> series;
+
+    public ColumnarHistoricalResponse() {}
+
+    public ColumnarHistoricalResponse(String amount, String base, String startDate, String endDate,
+                                      List<String> dates, Map<String, double[]> series) {
+        this.amount = amount;
+        this.base = base;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.dates = dates;
+        this.series = series;
+    }
+
+    public String getAmount() {
+        return amount;
+    }
+
+    public void setAmount(String amount) {
+        this.amount = amount;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public List<String> getDates() {
+        return dates;
+    }
+
+    public void setDates(List<String> dates) {
+        this.dates = dates;
+    }
+
+    public Map<String, double[]> getSeries() {
+        return series;
+    }
+
+    public void setSeries(Map<String, double[]> series) {
+        this.series = series;
+    }
+}
@@ -2,7 +2,14 @@ package com.home.test.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
 import java.util.Map;
+import java.util.SequencedMap;
+import java.util.TreeMap;
 
 public class FrankfurterHistoricalResponse {
     @JsonProperty("amount")
@@ -17,7 +24,9 @@ public class FrankfurterHistoricalResponse {
     @JsonProperty("end_date")
     private String endDate;
 
+    /** Daily rates keyed by ISO date, held oldest first as upstream sends them; written newest first. */
     @JsonProperty("rates")
+    @JsonSerialize(using = NewestFirstSerializer.class)
     private Map<String, Map<String, Double>> rates;
 
     public String getAmount() {
@@ -59,4 +68,29 @@ public class FrankfurterHistoricalResponse {
     public void setRates(Map<String, Map<String, Double>> rates) {
         this.rates = rates;
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the date-keyed rates in reverse: an ordered map is walked through its reversed view, so no
+     * per-request sort or copy. A map without encounter order is sorted first.
+     */
+    static final class NewestFirstSerializer extends StdSerializer<Map<String, Map<String, Double>>> {
+
+        @SuppressWarnings("unchecked")
+        NewestFirstSerializer() {
+            super((Class<Map<String, Map<String, Double>>>) (Class<?>) Map.class);
+        }
+
+        @Override
+        public void serialize(Map<String, Map<String, Double>> rates, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            Map<String, Map<String, Double>> newestFirst = rates instanceof SequencedMap<String, Map<String, Double>> ordered
+                    ? ordered.reversed()
+                    : new TreeMap<>(rates).descendingMap();
+            gen.writeStartObject(rates, rates.size());
+            for (Map.Entry<String, Map<String, Double>> day : newestFirst.entrySet()) {
+                provider.defaultSerializeField(day.getKey(), day.getValue(), gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.home.test.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Map;
 
@@ -8,14 +9,21 @@ public class LatestRatesResponse {
     private String date;
     private Map<String, Double> rates;
     private Double usdBuySpreadIdr;
+    private Map<String, Map<String, SpreadQuote>> spreads;
 
     public LatestRatesResponse() {}
 
     public LatestRatesResponse(String base, String date, Map<String, Double> rates, Double usdBuySpreadIdr) {
+        this(base, date, rates, usdBuySpreadIdr, null);
+    }
+
+    public LatestRatesResponse(String base, String date, Map<String, Double> rates, Double usdBuySpreadIdr,
+                               Map<String, Map<String, SpreadQuote>> spreads) {
         this.base = base;
         this.date = date;
         this.rates = rates;
         this.usdBuySpreadIdr = usdBuySpreadIdr;
+        this.spreads = spreads;
     }
 
     public String getBase() {
@@ -50,4 +58,14 @@ public class LatestRatesResponse {
     public void setUsdBuySpreadIdr(Double usdBuySpreadIdr) {
         this.usdBuySpreadIdr = usdBuySpreadIdr;
     }
-}
\ No newline at end of file
+
+    @JsonProperty("spreads")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Map<String, Map<String, SpreadQuote>> getSpreads() {
+        return spreads;
+    }
+
+    public void setSpreads(Map<String, Map<String, SpreadQuote>> spreads) {
+        this.spreads = spreads;
+    }
+}
@@ -0,0 +1,48 @@
+package com.home.test.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * What a node reports to its peers each sync round: who it is, which snapshot version it holds and whether it
+ * currently considers itself the leader.
+ */
+public class PeerHeartbeat {
+    private String instanceId;
+    private long version;
+    private boolean leader;
+
+    public PeerHeartbeat() {}
+
+    public PeerHeartbeat(String instanceId, long version, boolean leader) {
+        this.instanceId = instanceId;
+        this.version = version;
+        this.leader = leader;
+    }
+
+    @JsonProperty("instance_id")
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    @JsonProperty("version")
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @JsonProperty("leader")
+    public boolean isLeader() {
+        return leader;
+    }
+
+    public void setLeader(boolean leader) {
+        this.leader = leader;
+    }
+}
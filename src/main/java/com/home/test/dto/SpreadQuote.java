@@ -0,0 +1,67 @@
+package com.home.test.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Buy/sell quote in IDR for one unit of a currency. {@code buy}/{@code sell} are the plain double quotes;
+ * {@code buy_minor}/{@code sell_minor} are the same quotes as exact settlement amounts in IDR minor units,
+ * rounded half-even at IDR's decimal places.
+ */
+public class SpreadQuote {
+    private double buy;
+    private double sell;
+    private Long buyMinor;
+    private Long sellMinor;
+
+    public SpreadQuote() {}
+
+    public SpreadQuote(double buy, double sell) {
+        this(buy, sell, null, null);
+    }
+
+    public SpreadQuote(double buy, double sell, Long buyMinor, Long sellMinor) {
+        this.buy = buy;
+        this.sell = sell;
+        this.buyMinor = buyMinor;
+        this.sellMinor = sellMinor;
+    }
+
+    @JsonProperty("buy")
+    public double getBuy() {
+        return buy;
+    }
+
+    public void setBuy(double buy) {
+        this.buy = buy;
+    }
+
+    @JsonProperty("sell")
+    public double getSell() {
+        return sell;
+    }
+
+    public void setSell(double sell) {
+        this.sell = sell;
+    }
+
+    @JsonProperty("buy_minor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getBuyMinor() {
+        return buyMinor;
+    }
+
+    public void setBuyMinor(Long buyMinor) {
+        this.buyMinor = buyMinor;
+    }
+
+    @JsonProperty("sell_minor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Long getSellMinor() {
+        return sellMinor;
+    }
+
+    public void setSellMinor(Long sellMinor) {
+        this.sellMinor = sellMinor;
+    }
+}
@@ -0,0 +1,166 @@
+package com.home.test.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.home.test.config.RateLimitProperties;
+import com.home.test.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for the finance endpoints, applied before any handler runs:
+ * a token bucket per client (API key header when it is one of {@code rate-limit.api-keys}, else client IP)
+ * and a global cap on concurrent upstream-bound (historical) requests. Rejections are 429 with {@code Retry-After}.
+ * Both checks are single compare-and-set operations, so the filter never blocks or serializes requests.
+ *
+ * Buckets live in a cache bounded by {@code rate-limit.max-tracked-clients} that drops a bucket once it has been
+ * idle long enough to refill completely, since forgetting a full bucket changes no decision.
+ *
+ * The client IP is the remote address, unless that is one of {@code rate-limit.trusted-proxies}: then it is the
+ * right-most {@code X-Forwarded-For} entry that is not a trusted proxy. Entries added by anyone else are ignored,
+ * so a client cannot pick its own bucket, but without the load balancers listed every client behind them shares one.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter implements WebFilter {
+
+    static final String API_PREFIX = "/api/finance/data/";
+    private static final String HEALTH_PATH = "/api/finance/data/health";
+    private static final String UPSTREAM_PREFIX = "/api/finance/data/historical/";
+    private static final long UPSTREAM_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final Set<String> apiKeys;
+    private final Set<String> trustedProxies;
+    private final Cache<String, TokenBucket> buckets;
+    private final AtomicInteger upstreamInFlight = new AtomicInteger();
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+        this.trustedProxies = Set.copyOf(properties.getTrustedProxies());
+        long refillNanos = (long) Math.ceil(properties.getBurst() * 1e9 / properties.getRequestsPerSecond());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedClients())
+                .expireAfterAccess(Duration.ofNanos(refillNanos))
+                .ticker(nanoClock::getAsLong)
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!properties.isEnabled() || !path.startsWith(API_PREFIX) || path.equals(HEALTH_PATH)) {
+            return chain.filter(exchange);
+        }
+
+        long now = nanoClock.getAsLong();
+        long wait = bucketFor(clientKey(exchange.getRequest()), now).tryAcquire(now);
+        if (wait > 0) {
+            return reject(exchange, wait, "Rate limit exceeded for this client");
+        }
+
+        if (!path.startsWith(UPSTREAM_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        if (!tryAcquireUpstream()) {
+            return reject(exchange, UPSTREAM_RETRY_NANOS, "Too many concurrent upstream requests");
+        }
+        return chain.filter(exchange).doFinally(signal -> upstreamInFlight.decrementAndGet());
+    }
+
+    int upstreamInFlight() {
+        return upstreamInFlight.get();
+    }
+
+    long trackedClients() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private TokenBucket bucketFor(String clientKey, long now) {
+        return buckets.get(clientKey, key -> new TokenBucket(properties.getRequestsPerSecond(), properties.getBurst(), now));
+    }
+
+    private boolean tryAcquireUpstream() {
+        while (true) {
+            int current = upstreamInFlight.get();
+            if (current >= properties.getUpstreamConcurrency()) {
+                return false;
+            }
+            if (upstreamInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private String clientKey(ServerHttpRequest request) {
+        // An unknown key must not buy a fresh bucket, or rotating the header would bypass the limit
+        String apiKey = request.getHeaders().getFirst(properties.getApiKeyHeader());
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "ip:unknown";
+        }
+        String address = remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString();
+        return "ip:" + (trustedProxies.contains(address) ? forwardedClient(request, address) : address);
+    }
+
+    /**
+     * Walk {@code X-Forwarded-For} from the nearest hop back, past every trusted proxy; the first other address is
+     * the one our own proxies saw connecting. Falls back to the proxy address when the header names no one else.
+     */
+    private String forwardedClient(ServerHttpRequest request, String proxy) {
+        List<String> headers = request.getHeaders().getOrEmpty(FORWARDED_FOR);
+        for (int h = headers.size() - 1; h >= 0; h--) {
+            String[] hops = headers.get(h).split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                    return hop;
+                }
+            }
+        }
+        return proxy;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, long waitNanos, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        long retryAfterSeconds = Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"error\":\"Too Many Requests\",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.home.test.health;
+
+import com.home.test.service.DataStoreService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Readiness contributor: the instance only accepts traffic once the data store has been initialized and holds the
+ * resources every request path depends on, so a marked but empty store (e.g. an empty snapshot) stays out of service.
+ * Included in the readiness probe group via {@code management.endpoint.health.group.readiness.include}.
+ */
+@Component("dataStore")
+public class DataStoreHealthIndicator implements HealthIndicator {
+
+    static final List<String> REQUIRED_RESOURCES = List.of("latest_idr_rates", "supported_currencies");
+
+    private final DataStoreService dataStoreService;
+
+    public DataStoreHealthIndicator(DataStoreService dataStoreService) {
+        this.dataStoreService = dataStoreService;
+    }
+
+    @Override
+    public Health health() {
+        Set<String> resources = dataStoreService.getResourceTypes();
+        List<String> missing = REQUIRED_RESOURCES.stream().filter(resource -> !resources.contains(resource)).toList();
+        if (dataStoreService.isInitialized() && missing.isEmpty()) {
+            return Health.up().withDetail("resources", resources).build();
+        }
+        return Health.outOfService()
+                .withDetail("resources", resources)
+                .withDetail("missing", missing)
+                .build();
+    }
+}
@@ -1,100 +1,215 @@
 package com.home.test.runner;
 
 import com.home.test.service.DataStoreService;
-import com.home.test.strategy.LatestRatesStrategy;
-import com.home.test.strategy.SupportedCurrenciesStrategy;
+import com.home.test.service.RefreshCoordinator;
+import com.home.test.strategy.IDRDataFetcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Loads every {@link IDRDataFetcher} bean at startup as a dependency DAG: independent fetchers run in
+ * parallel, dependents start once their dependencies have finished, and each fetcher is bounded by its own
+ * timeout and fallback.
+ *
+ * The load runs asynchronously so the server binds immediately; requests that arrive before the store is
+ * published are parked by the controller and the readiness probe reports OUT_OF_SERVICE until it is.
+ * When a snapshot from a previous run exists it is published first, so the instance is ready at once and
+ * the live load replaces it in the background. A load in which some fetcher stored nothing (e.g. during a
+ * Frankfurter outage) is retried with exponential backoff until every resource is loaded, so an instance that
+ * boots while upstream is down becomes ready once it is back. With {@code cluster.enabled} the load is left
+ * to the {@link RefreshCoordinator}, which runs it only on the replica elected to load and retries it itself.
+ */
 @Component
 public class DataInitializationRunner implements ApplicationRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializationRunner.class);
-    private static final Duration INITIALIZATION_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
 
-    private final LatestRatesStrategy latestRatesStrategy;
-    private final SupportedCurrenciesStrategy supportedCurrenciesStrategy;
+    private final Map<String, IDRDataFetcher<?>> fetchers;
+    private final List<String> loadOrder;
     private final DataStoreService dataStoreService;
+    private final Scheduler blockingScheduler;
+    private final RefreshCoordinator refreshCoordinator;
 
-    public DataInitializationRunner(LatestRatesStrategy latestRatesStrategy,
-                                   SupportedCurrenciesStrategy supportedCurrenciesStrategy,
-                                   DataStoreService dataStoreService) {
-        this.latestRatesStrategy = latestRatesStrategy;
-        this.supportedCurrenciesStrategy = supportedCurrenciesStrategy;
+    public DataInitializationRunner(List<IDRDataFetcher<?>> fetchers, DataStoreService dataStoreService) {
+        this(fetchers, dataStoreService, Schedulers.immediate());
+    }
+
+    public DataInitializationRunner(List<IDRDataFetcher<?>> fetchers, DataStoreService dataStoreService,
+                                    Scheduler blockingScheduler) {
+        this(fetchers, dataStoreService, blockingScheduler, null);
+    }
+
+    @Autowired
+    public DataInitializationRunner(List<IDRDataFetcher<?>> fetchers, DataStoreService dataStoreService,
+                                    @Qualifier("blockingScheduler") Scheduler blockingScheduler,
+                                    RefreshCoordinator refreshCoordinator) {
+        this.fetchers = indexByResourceType(fetchers);
+        this.loadOrder = topologicalOrder(this.fetchers);
         this.dataStoreService = dataStoreService;
+        this.blockingScheduler = blockingScheduler;
+        this.refreshCoordinator = refreshCoordinator;
     }
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
-        logger.info("Starting data initialization from Frankfurter API...");
-
-        try {
-            Mono<Void> initializationMono = Mono.zip(
-                    latestRatesStrategy.fetchData()
-                            .doOnSuccess(data -> {
-                                dataStoreService.storeLatestRates(data);
-                                logger.info("Successfully loaded latest IDR rates");
-                            })
-                            .doOnError(error -> logger.error("Failed to load latest IDR rates", error))
-                            .onErrorResume(error -> {
-                                logger.warn("Using fallback data for latest rates due to API error: {}", error.getMessage());
-                                return Mono.empty(); // Skip this data but continue initialization
-                            }),
-
-                    supportedCurrenciesStrategy.fetchData()
-                            .doOnSuccess(data -> {
-                                dataStoreService.storeSupportedCurrencies(data);
-                                logger.info("Successfully loaded supported currencies");
-                            })
-                            .doOnError(error -> logger.error("Failed to load supported currencies", error))
-                            .onErrorResume(error -> {
-                                logger.warn("Using fallback data for currencies due to API error: {}", error.getMessage());
-                                return Mono.empty(); // Skip this data but continue initialization
-                            })
-            ).then();
-
-            initializationMono
-                    .timeout(INITIALIZATION_TIMEOUT)
-                    .doOnSuccess(v -> {
-                        // Check if we have at least some data before marking as initialized
-                        if (hasAnyData()) {
-                            dataStoreService.markAsInitialized();
-                            logger.info("Data initialization completed successfully (with fallbacks if needed)");
-                        } else {
-                            logger.warn("No data could be loaded, but application will start in degraded mode");
-                            // Still mark as initialized to allow API to respond with appropriate errors
-                            dataStoreService.markAsInitialized();
-                        }
-                    })
-                    .doOnError(error -> {
-                        logger.error("Data initialization failed completely", error);
-                        dataStoreService.clearData();
-                        // Still try to start the application in degraded mode
-                        logger.warn("Starting application in degraded mode due to initialization failure");
-                        dataStoreService.markAsInitialized();
-                    })
-                    .block();
-
-        } catch (Exception e) {
-            logger.error("Critical error during data initialization", e);
-            // Don't throw exception - allow application to start in degraded mode
-            logger.warn("Application will start in degraded mode due to initialization errors");
-            dataStoreService.markAsInitialized();
+        if (dataStoreService.restoreSnapshot()) {
+            logger.info("Serving last-known data from snapshot while refreshing from Frankfurter API");
+        }
+        if (refreshCoordinator != null && refreshCoordinator.isEnabled()) {
+            refreshCoordinator.start(this::refresh);
+        } else {
+            initializeUntilLoaded().subscribe();
+        }
+    }
+
+    /**
+     * Load all fetchers and mark the store initialized once every node has finished or fallen back.
+     * Never errors: failures are logged and the application runs in degraded mode.
+     */
+    public Mono<Void> initialize() {
+        return loadAll().then();
+    }
+
+    /**
+     * The same load as {@link #initialize}, but errors with {@link IllegalStateException} when a fetcher stored
+     * nothing, after publishing whatever did load, so callers can tell a failed load from a complete one.
+     */
+    public Mono<Void> refresh() {
+        return loadAll().flatMap(missing -> missing.isEmpty()
+                ? Mono.<Void>empty()
+                : Mono.error(new IllegalStateException("Data not loaded for " + missing)));
+    }
+
+    /**
+     * {@link #refresh} until it completes, backing off from 1 second up to 1 minute between attempts.
+     */
+    Mono<Void> initializeUntilLoaded() {
+        return refresh().retryWhen(Retry.backoff(Long.MAX_VALUE, FIRST_RETRY_DELAY)
+                .maxBackoff(MAX_RETRY_DELAY)
+                .doBeforeRetry(signal -> logger.warn("Retrying data initialization (attempt {}): {}",
+                        signal.totalRetries() + 2, signal.failure().getMessage())));
+    }
+
+    /**
+     * Run the load and publish; emits the resource types for which nothing was stored.
+     */
+    private Mono<List<String>> loadAll() {
+        logger.info("Starting data initialization from Frankfurter API for {}", loadOrder);
+        Set<String> loaded = ConcurrentHashMap.newKeySet();
+
+        return Mono.defer(() -> {
+                    Map<String, Mono<Void>> nodes = new HashMap<>();
+                    for (String resourceType : loadOrder) {
+                        IDRDataFetcher<?> fetcher = fetchers.get(resourceType);
+                        List<Mono<Void>> dependencies = fetcher.getDependencies().stream()
+                                .map(nodes::get)
+                                .toList();
+                        nodes.put(resourceType, Mono.when(dependencies).then(load(fetcher, loaded)).cache());
+                    }
+                    return Mono.when(nodes.values());
+                })
+                .doOnSuccess(ignored -> logger.info("Data initialization completed (with fallbacks if needed)"))
+                .onErrorResume(e -> {
+                    logger.error("Critical error during data initialization", e);
+                    // Don't propagate - allow application to serve in degraded mode
+                    logger.warn("Application will start in degraded mode due to initialization errors");
+                    return Mono.empty();
+                })
+                // Publishing persists the snapshot file, so keep it off the event loop
+                .then(Mono.<Void>fromRunnable(dataStoreService::markAsInitialized).subscribeOn(blockingScheduler))
+                .then(Mono.fromSupplier(() -> loadOrder.stream().filter(type -> !loaded.contains(type)).toList()));
+    }
+
+    private <T> Mono<Void> load(IDRDataFetcher<T> fetcher, Set<String> loaded) {
+        String resourceType = fetcher.getResourceType();
+
+        return Mono.defer(fetcher::fetchData)
+                .timeout(fetcher.getTimeout())
+                .doOnNext(data -> logger.info("Successfully loaded {}", resourceType))
+                .onErrorResume(error -> {
+                    logger.warn("Using fallback data for {} due to API error: {}", resourceType, error.getMessage());
+                    return fetcher.fallback(error);
+                })
+                .doOnNext(data -> {
+                    dataStoreService.storeData(resourceType, data);
+                    loaded.add(resourceType);
+                })
+                .onErrorResume(error -> {
+                    logger.error("Failed to load {}", resourceType, error);
+                    return Mono.empty(); // Skip this data but continue initialization
+                })
+                .then();
+    }
+
+    private static Map<String, IDRDataFetcher<?>> indexByResourceType(List<IDRDataFetcher<?>> fetchers) {
+        Map<String, IDRDataFetcher<?>> byType = new LinkedHashMap<>();
+        for (IDRDataFetcher<?> fetcher : fetchers) {
+            if (byType.putIfAbsent(fetcher.getResourceType(), fetcher) != null) {
+                throw new IllegalStateException("Duplicate data fetcher for resource type: " + fetcher.getResourceType());
+            }
         }
+        return byType;
     }
 
-    private boolean hasAnyData() {
-        try {
-            // Simple check if any data was stored
-            return dataStoreService.isInitialized();
-        } catch (Exception e) {
-            return false;
+    /**
+     * Kahn's algorithm; rejects unknown dependencies and cycles so misconfiguration fails at startup.
+     */
+    private static List<String> topologicalOrder(Map<String, IDRDataFetcher<?>> fetchers) {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        fetchers.forEach((resourceType, fetcher) -> {
+            for (String dependency : fetcher.getDependencies()) {
+                if (!fetchers.containsKey(dependency)) {
+                    throw new IllegalStateException(resourceType + " depends on unknown resource type: " + dependency);
+                }
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(resourceType);
+            }
+            pending.put(resourceType, fetcher.getDependencies().size());
+        });
+
+        Deque<String> ready = new ArrayDeque<>();
+        pending.forEach((resourceType, count) -> {
+            if (count == 0) {
+                ready.add(resourceType);
+            }
+        });
+
+        List<String> order = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            String resourceType = ready.poll();
+            order.add(resourceType);
+            for (String dependent : dependents.getOrDefault(resourceType, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (order.size() != fetchers.size()) {
+            throw new IllegalStateException("Cyclic data fetcher dependencies among: " + fetchers.keySet());
         }
+        return order;
     }
-}
\ No newline at end of file
+}
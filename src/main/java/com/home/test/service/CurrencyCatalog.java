@@ -0,0 +1,111 @@
+package com.home.test.service;
+
+import com.home.test.dto.CurrencyInfo;
+import com.home.test.util.CurrencyRegistry;
+import com.home.test.util.RequestValidator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable currency metadata index, rebuilt whenever the supported-currency list is refreshed.
+ *
+ * Every code in the bundled ISO 4217 dataset has a precomputed {@link CurrencyInfo} indexed by registry
+ * ordinal. Upstream codes missing from the dataset are registered with {@link CurrencyRegistry} and get an
+ * entry built from the upstream display name. Lookups therefore return shared instances and never allocate;
+ * callers must not modify them.
+ */
+public final class CurrencyCatalog {
+
+    private final CurrencyInfo[] byOrdinal;
+    private final boolean[] supported;
+    private final List<String> supportedCodes;
+    private final RequestValidator requestValidator;
+
+    private CurrencyCatalog(CurrencyInfo[] byOrdinal, boolean[] supported, List<String> supportedCodes) {
+        this.byOrdinal = byOrdinal;
+        this.supported = supported;
+        this.supportedCodes = supportedCodes;
+        this.requestValidator = new RequestValidator(supportedCodes);
+    }
+
+    /**
+     * Build a catalog whose supported set is exactly {@code upstreamCurrencies} (code -> display name,
+     * as served by {@code /currencies}). Malformed codes, and new codes once the registry is full, are left out.
+     */
+    public static CurrencyCatalog build(Map<String, ?> upstreamCurrencies) {
+        CurrencyInfo[] byOrdinal = new CurrencyInfo[CurrencyRegistry.CAPACITY];
+        for (int ordinal = 0; ordinal < CurrencyRegistry.DATASET_SIZE; ordinal++) {
+            CurrencyRegistry.IsoCurrency iso = CurrencyRegistry.iso(ordinal);
+            byOrdinal[ordinal] = new CurrencyInfo(iso.getCode(), iso.getName(), iso.getSymbol(), iso.getCountry(),
+                    iso.getCountryCode(), isBaseCurrency(ordinal), iso.getDecimalPlaces());
+        }
+
+        boolean[] supported = new boolean[CurrencyRegistry.CAPACITY];
+        List<String> supportedCodes = new ArrayList<>();
+        upstreamCurrencies.forEach((rawCode, rawName) -> {
+            int ordinal = CurrencyRegistry.register(rawCode.toUpperCase(Locale.ROOT));
+            if (ordinal < 0 || supported[ordinal]) {
+                return;
+            }
+            supported[ordinal] = true;
+            String code = CurrencyRegistry.code(ordinal);
+            supportedCodes.add(code);
+            if (!CurrencyRegistry.isDatasetOrdinal(ordinal)) {
+                byOrdinal[ordinal] = upstreamEntry(code, rawName);
+            }
+        });
+        Collections.sort(supportedCodes);
+
+        return new CurrencyCatalog(byOrdinal, supported, List.copyOf(supportedCodes));
+    }
+
+    /**
+     * Metadata for a code in any letter case, or {@code null} if neither the dataset nor upstream knows it.
+     */
+    public CurrencyInfo lookup(String code) {
+        int ordinal = CurrencyRegistry.ordinalIgnoreCase(code);
+        return ordinal >= 0 ? byOrdinal[ordinal] : null;
+    }
+
+    /**
+     * Metadata for a registry ordinal, or {@code null} for a registered code this catalog's upstream did not list.
+     */
+    public CurrencyInfo get(int ordinal) {
+        return byOrdinal[ordinal];
+    }
+
+    /**
+     * Whether upstream currently serves rates for the code.
+     */
+    public boolean isSupported(String code) {
+        int ordinal = CurrencyRegistry.ordinalIgnoreCase(code);
+        return ordinal >= 0 && supported[ordinal];
+    }
+
+    /**
+     * Supported codes, sorted.
+     */
+    public List<String> getSupportedCodes() {
+        return supportedCodes;
+    }
+
+    /**
+     * Validator accepting exactly the supported codes, in upper case.
+     */
+    public RequestValidator getRequestValidator() {
+        return requestValidator;
+    }
+
+    private static CurrencyInfo upstreamEntry(String code, Object name) {
+        String displayName = name != null ? name.toString() : code;
+        return new CurrencyInfo(code, displayName, "", "Unknown", "XX", false, 2);
+    }
+
+    private static boolean isBaseCurrency(int ordinal) {
+        return ordinal == CurrencyRegistry.IDR || ordinal == CurrencyRegistry.USD;
+    }
+}
@@ -1,51 +1,83 @@
 package com.home.test.service;
 
 import com.home.test.dto.CurrencyInfo;
+import com.home.test.dto.CurrencyResponse;
+import com.home.test.util.CurrencyRegistry;
+import com.home.test.util.RequestValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Currency metadata backed by an immutable {@link CurrencyCatalog}: the bundled ISO 4217 dataset merged
+ * with the currencies Frankfurter actually serves. The catalog is swapped atomically on every refresh of
+ * {@code /currencies}; until the first refresh the supported set is Frankfurter's long-standing list.
+ * Nodes that never fetch (snapshot restore, shared-cache and peer followers) rebuild it from the
+ * published {@code supported_currencies} instead.
+ */
 @Service
 public class CurrencyMetadataService {
 
-    private static final Map<String, CurrencyMetadata> CURRENCY_METADATA = new HashMap<>();
-
-    static {
-        // Initialize currency metadata mapping
-        CURRENCY_METADATA.put("AUD", new CurrencyMetadata("Australian Dollar", "$", "Australia", "AU", 2));
-        CURRENCY_METADATA.put("BGN", new CurrencyMetadata("Bulgarian Lev", "лв", "Bulgaria", "BG", 2));
-        CURRENCY_METADATA.put("BRL", new CurrencyMetadata("Brazilian Real", "R$", "Brazil", "BR", 2));
-        CURRENCY_METADATA.put("CAD", new CurrencyMetadata("Canadian Dollar", "$", "Canada", "CA", 2));
-        CURRENCY_METADATA.put("CHF", new CurrencyMetadata("Swiss Franc", "CHF", "Switzerland", "CH", 2));
-        CURRENCY_METADATA.put("CNY", new CurrencyMetadata("Chinese Yuan", "¥", "China", "CN", 2));
-        CURRENCY_METADATA.put("CZK", new CurrencyMetadata("Czech Koruna", "Kč", "Czech Republic", "CZ", 2));
-        CURRENCY_METADATA.put("DKK", new CurrencyMetadata("Danish Krone", "kr", "Denmark", "DK", 2));
-        CURRENCY_METADATA.put("EUR", new CurrencyMetadata("Euro", "€", "European Union", "EU", 2));
-        CURRENCY_METADATA.put("GBP", new CurrencyMetadata("British Pound", "£", "United Kingdom", "GB", 2));
-        CURRENCY_METADATA.put("HKD", new CurrencyMetadata("Hong Kong Dollar", "$", "Hong Kong", "HK", 2));
-        CURRENCY_METADATA.put("HUF", new CurrencyMetadata("Hungarian Forint", "Ft", "Hungary", "HU", 2));
-        CURRENCY_METADATA.put("IDR", new CurrencyMetadata("Indonesian Rupiah", "Rp", "Indonesia", "ID", 0));
-        CURRENCY_METADATA.put("ILS", new CurrencyMetadata("Israeli New Shekel", "₪", "Israel", "IL", 2));
-        CURRENCY_METADATA.put("INR", new CurrencyMetadata("Indian Rupee", "₹", "India", "IN", 2));
-        CURRENCY_METADATA.put("ISK", new CurrencyMetadata("Icelandic Króna", "kr", "Iceland", "IS", 0));
-        CURRENCY_METADATA.put("JPY", new CurrencyMetadata("Japanese Yen", "¥", "Japan", "JP", 0));
-        CURRENCY_METADATA.put("KRW", new CurrencyMetadata("South Korean Won", "₩", "South Korea", "KR", 0));
-        CURRENCY_METADATA.put("MXN", new CurrencyMetadata("Mexican Peso", "$", "Mexico", "MX", 2));
-        CURRENCY_METADATA.put("MYR", new CurrencyMetadata("Malaysian Ringgit", "RM", "Malaysia", "MY", 2));
-        CURRENCY_METADATA.put("NOK", new CurrencyMetadata("Norwegian Krone", "kr", "Norway", "NO", 2));
-        CURRENCY_METADATA.put("NZD", new CurrencyMetadata("New Zealand Dollar", "$", "New Zealand", "NZ", 2));
-        CURRENCY_METADATA.put("PHP", new CurrencyMetadata("Philippine Peso", "₱", "Philippines", "PH", 2));
-        CURRENCY_METADATA.put("PLN", new CurrencyMetadata("Polish Złoty", "zł", "Poland", "PL", 2));
-        CURRENCY_METADATA.put("RON", new CurrencyMetadata("Romanian Leu", "lei", "Romania", "RO", 2));
-        CURRENCY_METADATA.put("SEK", new CurrencyMetadata("Swedish Krona", "kr", "Sweden", "SE", 2));
-        CURRENCY_METADATA.put("SGD", new CurrencyMetadata("Singapore Dollar", "$", "Singapore", "SG", 2));
-        CURRENCY_METADATA.put("THB", new CurrencyMetadata("Thai Baht", "฿", "Thailand", "TH", 2));
-        CURRENCY_METADATA.put("TRY", new CurrencyMetadata("Turkish Lira", "₺", "Turkey", "TR", 2));
-        CURRENCY_METADATA.put("USD", new CurrencyMetadata("United States Dollar", "$", "United States", "US", 2));
-        CURRENCY_METADATA.put("ZAR", new CurrencyMetadata("South African Rand", "R", "South Africa", "ZA", 2));
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyMetadataService.class);
+
+    private static final List<String> DEFAULT_SUPPORTED_CODES = List.of(
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP", "HKD",
+            "HUF", "IDR", "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK", "NZD",
+            "PHP", "PLN", "RON", "SEK", "SGD", "THB", "TRY", "USD", "ZAR");
+
+    private static final String SUPPORTED_CURRENCIES = "supported_currencies";
+
+    private final DataStoreService dataStoreService;
+    private volatile CurrencyCatalog catalog = CurrencyCatalog.build(defaultCurrencies());
+
+    /**
+     * Catalog that is only rebuilt through {@link #refreshCatalog}, for tests.
+     */
+    public CurrencyMetadataService() {
+        this.dataStoreService = null;
+    }
+
+    @Autowired
+    public CurrencyMetadataService(DataStoreService dataStoreService) {
+        this.dataStoreService = dataStoreService;
+        dataStoreService.onPublish(this::adoptPublishedCurrencies);
+    }
+
+    /**
+     * Rebuild the catalog from a fetched {@code /currencies} payload (code -> display name).
+     * An empty payload keeps the current catalog rather than dropping every currency.
+     */
+    public void refreshCatalog(Map<String, ?> upstreamCurrencies) {
+        if (upstreamCurrencies == null || upstreamCurrencies.isEmpty()) {
+            logger.warn("Upstream returned no currencies; keeping the current catalog");
+            return;
+        }
+        catalog = CurrencyCatalog.build(upstreamCurrencies);
+        logger.info("Currency catalog refreshed with {} supported currencies", catalog.getSupportedCodes().size());
+    }
+
+    /**
+     * Rebuild the catalog from the published {@code supported_currencies} when it differs from the current one.
+     * Only codes are stored, so currencies missing from the ISO dataset are named by their code.
+     */
+    void adoptPublishedCurrencies() {
+        if (!dataStoreService.getResourceTypes().contains(SUPPORTED_CURRENCIES)) {
+            return;
+        }
+        List<String> codes = dataStoreService.getData(SUPPORTED_CURRENCIES, CurrencyResponse.class).getCurrencies();
+        // The node that fetched them has already refreshed with upstream's display names
+        if (codes == null || codes.equals(catalog.getSupportedCodes())) {
+            return;
+        }
+        Map<String, String> currencies = new LinkedHashMap<>();
+        codes.forEach(code -> currencies.put(code, code));
+        refreshCatalog(currencies);
     }
 
     /**
@@ -58,76 +90,71 @@ public class CurrencyMetadataService {
     }
 
     /**
-     * Enrich a single currency code with metadata
+     * Enrich a single currency code with metadata. Known codes return the catalog's shared instance;
+     * only codes unknown to both the dataset and upstream get a fallback entry.
      */
     public CurrencyInfo enrichCurrency(String currencyCode) {
         if (currencyCode == null) {
             return null;
         }
 
-        CurrencyMetadata metadata = CURRENCY_METADATA.get(currencyCode.toUpperCase());
-        if (metadata == null) {
-            // Fallback for unknown currencies
-            return new CurrencyInfo(
-                currencyCode.toUpperCase(),
-                currencyCode.toUpperCase(), // Use code as name
-                "", // No symbol
-                "Unknown",
-                "XX",
-                false,
-                2
-            );
+        CurrencyInfo info = catalog.lookup(currencyCode);
+        if (info != null) {
+            return info;
         }
 
-        boolean isBaseCurrency = "IDR".equals(currencyCode.toUpperCase()) || "USD".equals(currencyCode.toUpperCase());
-
+        // Fallback for unknown currencies
+        String code = currencyCode.toUpperCase();
         return new CurrencyInfo(
-            currencyCode.toUpperCase(),
-            metadata.name,
-            metadata.symbol,
-            metadata.country,
-            metadata.countryCode,
-            isBaseCurrency,
-            metadata.decimalPlaces
+            code,
+            code, // Use code as name
+            "", // No symbol
+            "Unknown",
+            "XX",
+            false,
+            2
         );
     }
 
+    /**
+     * Enrich a currency already resolved to its registry ordinal
+     */
+    public CurrencyInfo enrichCurrency(int ordinal) {
+        CurrencyInfo info = catalog.get(ordinal);
+        return info != null ? info : enrichCurrency(CurrencyRegistry.code(ordinal));
+    }
+
     /**
      * Check if a currency code is supported
      */
     public boolean isSupportedCurrency(String currencyCode) {
-        return CURRENCY_METADATA.containsKey(currencyCode.toUpperCase());
+        return catalog.isSupported(currencyCode);
+    }
+
+    /**
+     * Validator for request parameters against the current supported set; replaced with the catalog
+     */
+    public RequestValidator getRequestValidator() {
+        return catalog.getRequestValidator();
     }
 
     /**
      * Get all supported currency codes
      */
     public List<String> getSupportedCurrencyCodes() {
-        return CURRENCY_METADATA.keySet().stream()
-                .sorted()
-                .collect(Collectors.toList());
+        return catalog.getSupportedCodes();
     }
 
     /**
      * Get metadata for a specific currency
      */
-    public CurrencyMetadata getCurrencyMetadata(String currencyCode) {
-        return CURRENCY_METADATA.get(currencyCode.toUpperCase());
+    public CurrencyInfo getCurrencyMetadata(String currencyCode) {
+        return catalog.lookup(currencyCode);
     }
 
-    private static class CurrencyMetadata {
-        final String name;
-        final String symbol;
-        final String country;
-        final String countryCode;
-        final int decimalPlaces;
-
-        CurrencyMetadata(String name, String symbol, String country, String countryCode, int decimalPlaces) {
-            this.name = name;
-            this.symbol = symbol;
-            this.country = country;
-            this.countryCode = countryCode;
-            this.decimalPlaces = decimalPlaces;
-        }
+    private static Map<String, String> defaultCurrencies() {
+        Map<String, String> currencies = new LinkedHashMap<>();
+        DEFAULT_SUPPORTED_CODES.forEach(code -> currencies.put(code, code));
+        return currencies;
     }
-}
\ No newline at end of file
+}
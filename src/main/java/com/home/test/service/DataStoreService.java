@@ -1,10 +1,21 @@
 package com.home.test.service;
 
+import com.home.test.config.SnapshotProperties;
 import com.home.test.dto.CurrencyResponse;
 import com.home.test.dto.LatestRatesResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -14,21 +25,39 @@ public class DataStoreService {
     private final ConcurrentHashMap<String, Object> dataStore = new ConcurrentHashMap<>();
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private volatile boolean initialized = false;
+    // Version of the contents as published across peers; 0 until stamped. Written under the write lock
+    private volatile long snapshotVersion;
+    private volatile CompletableFuture<Void> initializedSignal = new CompletableFuture<>();
+    private final SnapshotFileStore snapshotFileStore;
+    private final List<Runnable> publishListeners = new CopyOnWriteArrayList<>();
+    // Whether entries changed since the last save, other than by restoring the snapshot file. Guarded by the write lock
+    private boolean unsaved;
+
+    /**
+     * Store without file snapshots, for tests and benchmarks in this package.
+     */
+    DataStoreService() {
+        this(new SnapshotFileStore(disabledSnapshots()));
+    }
+
+    @Autowired
+    public DataStoreService(SnapshotFileStore snapshotFileStore) {
+        this.snapshotFileStore = snapshotFileStore;
+    }
 
     public void storeLatestRates(LatestRatesResponse data) {
-        lock.writeLock().lock();
-        try {
-            dataStore.put("latest_idr_rates", data);
-        } finally {
-            lock.writeLock().unlock();
-        }
+        storeData("latest_idr_rates", data);
     }
 
-    
     public void storeSupportedCurrencies(CurrencyResponse data) {
+        storeData("supported_currencies", data);
+    }
+
+    public void storeData(String resourceType, Object data) {
         lock.writeLock().lock();
         try {
-            dataStore.put("supported_currencies", data);
+            dataStore.put(resourceType, data);
+            unsaved = true;
         } finally {
             lock.writeLock().unlock();
         }
@@ -50,31 +79,166 @@ public class DataStoreService {
         }
     }
 
+    /**
+     * Publish the current contents: readers are released and, if anything was stored since the last save, the
+     * contents are persisted as the snapshot for the next warm start. A publish after a failed refresh therefore
+     * leaves the file, and its save time, as it was.
+     */
     public void markAsInitialized() {
+        publish();
+        boolean save;
         lock.writeLock().lock();
         try {
-            initialized = true;
+            save = unsaved;
+            unsaved = false;
         } finally {
             lock.writeLock().unlock();
         }
+        if (save) {
+            snapshotFileStore.save(snapshot());
+        }
     }
 
-    public boolean isInitialized() {
-        lock.readLock().lock();
+    /**
+     * Replace the entries with a snapshot published by another replica and publish them as if loaded here.
+     */
+    public void applySnapshot(Map<String, Object> snapshot) {
+        lock.writeLock().lock();
         try {
-            return initialized;
+            dataStore.putAll(snapshot);
+            unsaved = true;
         } finally {
-            lock.readLock().unlock();
+            lock.writeLock().unlock();
+        }
+        markAsInitialized();
+    }
+
+    /**
+     * Apply a snapshot pushed by a peer only if {@code version} is newer than the contents held here, so a
+     * late or duplicated push never rolls the store back. Returns whether it was applied.
+     */
+    public boolean applySnapshot(Map<String, Object> snapshot, long version) {
+        lock.writeLock().lock();
+        try {
+            if (version <= snapshotVersion) {
+                return false;
+            }
+            dataStore.putAll(snapshot);
+            snapshotVersion = version;
+            unsaved = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        markAsInitialized();
+        return true;
+    }
+
+    /**
+     * Stamp the current contents, just loaded here, with a version newer than any seen so far: {@code candidate}
+     * (the load time in epoch millis) unless a peer's clock already got further. Clamped at {@link Long#MAX_VALUE}.
+     */
+    public long stampSnapshotVersion(long candidate) {
+        lock.writeLock().lock();
+        try {
+            long next = snapshotVersion == Long.MAX_VALUE ? Long.MAX_VALUE : snapshotVersion + 1;
+            snapshotVersion = Math.max(candidate, next);
+            return snapshotVersion;
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * Copy of the current entries by resource type.
+     */
+    public Map<String, Object> snapshot() {
+        return new HashMap<>(dataStore);
+    }
+
+    /**
+     * Warm start from the last persisted snapshot. Returns {@code true} when data was restored, in which
+     * case the store is immediately initialized and a live refresh simply replaces the entries.
+     */
+    public boolean restoreSnapshot() {
+        Map<String, Object> snapshot = snapshotFileStore.load();
+        if (snapshot.isEmpty()) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            snapshot.forEach(dataStore::putIfAbsent);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        publish();
+        return true;
+    }
+
+    /**
+     * Run {@code listener} after every publish: snapshot restore, initial load and each later refresh.
+     * Listeners run on the publishing thread, which is never an event-loop thread.
+     */
+    public void onPublish(Runnable listener) {
+        publishListeners.add(listener);
+    }
+
+    private void publish() {
+        lock.writeLock().lock();
+        try {
+            initialized = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        initializedSignal.complete(null);
+        publishListeners.forEach(Runnable::run);
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Emits {@code true} once initialization completes, or {@code false} if it has not completed within
+     * {@code timeout}. Emits immediately once the store is initialized; waiting holds no thread.
+     */
+    public Mono<Boolean> awaitInitialized(Duration timeout) {
+        if (initialized) {
+            return Mono.just(true);
+        }
+        CompletableFuture<Void> signal = initializedSignal;
+        // suppressCancel: a timed-out waiter must not cancel the shared signal
+        return Mono.fromFuture(() -> signal, true)
+                .then(Mono.fromSupplier(() -> initialized))
+                .timeout(timeout, Mono.just(false));
+    }
+
+    /**
+     * Resource types currently held by the store.
+     */
+    public Set<String> getResourceTypes() {
+        return new TreeSet<>(dataStore.keySet());
+    }
+
     public void clearData() {
         lock.writeLock().lock();
         try {
             dataStore.clear();
             initialized = false;
+            if (initializedSignal.isDone()) {
+                initializedSignal = new CompletableFuture<>();
+            }
         } finally {
             lock.writeLock().unlock();
         }
     }
-}
\ No newline at end of file
+
+    private static SnapshotProperties disabledSnapshots() {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setEnabled(false);
+        return properties;
+    }
+}
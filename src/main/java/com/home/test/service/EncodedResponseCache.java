@@ -0,0 +1,156 @@
+package com.home.test.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.home.test.dto.CurrencyResponse;
+import com.home.test.dto.EnrichedCurrencyResponse;
+import com.home.test.dto.LatestRatesResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON bodies of the snapshot-backed resources, serialized and gzipped once per published version instead of
+ * once per request. Every variant is rebuilt on the publishing thread when {@link DataStoreService} publishes;
+ * request threads, which run on the event loop, only ever read the last published bytes and never gzip. A
+ * request that finds no entry at all (it raced the first publish) serializes the body once without gzip, and
+ * the next publish replaces that entry with the full encoding.
+ */
+@Service
+public class EncodedResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EncodedResponseCache.class);
+
+    private static final String LATEST_RATES = "latest_idr_rates";
+    private static final String SUPPORTED_CURRENCIES = "supported_currencies";
+
+    private final DataStoreService dataStoreService;
+    private final CurrencyMetadataService currencyMetadataService;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, EncodedBody> bodies = new ConcurrentHashMap<>();
+
+    public EncodedResponseCache(DataStoreService dataStoreService, CurrencyMetadataService currencyMetadataService,
+                                ObjectMapper objectMapper) {
+        this.dataStoreService = dataStoreService;
+        this.currencyMetadataService = currencyMetadataService;
+        this.objectMapper = objectMapper;
+        dataStoreService.onPublish(this::precompute);
+    }
+
+    public EncodedBody latestRates() {
+        return latestRates(false);
+    }
+
+    /**
+     * The enriched list, or the plain code list when {@code simple}.
+     */
+    public EncodedBody supportedCurrencies(boolean simple) {
+        return supportedCurrencies(simple, false);
+    }
+
+    /**
+     * Encode every variant of the just-published data. Resources missing in degraded mode are skipped.
+     */
+    void precompute() {
+        List<Supplier<EncodedBody>> variants = List.of(
+                () -> latestRates(true), () -> supportedCurrencies(false, true), () -> supportedCurrencies(true, true));
+        for (Supplier<EncodedBody> variant : variants) {
+            try {
+                variant.get();
+            } catch (RuntimeException e) {
+                logger.debug("Skipping response precomputation: {}", e.getMessage());
+            }
+        }
+    }
+
+    private EncodedBody latestRates(boolean publishing) {
+        return encoded(LATEST_RATES, LATEST_RATES, LatestRatesResponse.class, Function.identity(), publishing);
+    }
+
+    private EncodedBody supportedCurrencies(boolean simple, boolean publishing) {
+        if (simple) {
+            return encoded(SUPPORTED_CURRENCIES + "?format=simple", SUPPORTED_CURRENCIES, CurrencyResponse.class,
+                    Function.identity(), publishing);
+        }
+        return encoded(SUPPORTED_CURRENCIES, SUPPORTED_CURRENCIES, CurrencyResponse.class,
+                currencies -> new EnrichedCurrencyResponse(
+                        currencyMetadataService.enrichCurrencies(currencies.getCurrencies())), publishing);
+    }
+
+    private <T> EncodedBody encoded(String variant, String resourceType, Class<T> type, Function<T, ?> body,
+                                    boolean publishing) {
+        T source = dataStoreService.getData(resourceType, type);
+        EncodedBody cached = bodies.get(variant);
+        // Requests keep the last published bytes even if a newer source is stored but not yet published
+        if (cached != null && (!publishing || cached.source == source)) {
+            return cached;
+        }
+        if (!publishing) {
+            // No source recorded, so the next publish encodes this variant in full
+            EncodedBody identityOnly = new EncodedBody(null, serialize(body.apply(source)), null);
+            EncodedBody raced = bodies.putIfAbsent(variant, identityOnly);
+            return raced != null ? raced : identityOnly;
+        }
+        byte[] identity = serialize(body.apply(source));
+        byte[] gzip = gzip(identity);
+        // Tiny bodies can grow under gzip; those are only served uncompressed
+        EncodedBody encoded = new EncodedBody(source, identity, gzip.length < identity.length ? gzip : null);
+        bodies.put(variant, encoded);
+        return encoded;
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to encode " + body.getClass().getSimpleName(), e);
+        }
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        // Paid once per publish, so spend the CPU on the smallest output
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * One encoded variant: the JSON bytes, and their gzip form when that is smaller.
+     */
+    public static final class EncodedBody {
+        private final Object source;
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        EncodedBody(Object source, byte[] identity, byte[] gzip) {
+            this.source = source;
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        public byte[] getIdentity() {
+            return identity;
+        }
+
+        /**
+         * The gzip-encoded body, or {@code null} if compression would not make it smaller.
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.home.test.service;
+
+import com.home.test.config.ClusterProperties;
+import com.home.test.config.FrankfurterApiProperties;
+import com.home.test.dto.ColumnarHistoricalResponse;
+import com.home.test.dto.FrankfurterHistoricalResponse;
+import com.home.test.service.HistoricalSeriesCache.SeriesChunk;
+import com.home.test.util.CurrencyRegistry;
+import com.home.test.util.DailyRatesParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves historical cross rates from one canonical "all currencies vs IDR" daily series.
+ * The series is fetched from Frankfurter in calendar-month chunks and any requested pair
+ * A->B is derived locally as rate(IDR->B) / rate(IDR->A), so the cache grows with the
+ * number of currencies rather than the number of requested pairs. Each cached day is a {@code double[]}
+ * indexed by {@link CurrencyRegistry} ordinal, with {@code NaN} for currencies missing that day.
+ *
+ * Months are cached in a bounded {@link HistoricalSeriesCache} in front of the upstream range fetch.
+ * Missing months are not fetched per request: they are collected for a short batching window,
+ * merged into contiguous ranges and fetched once, and every caller waiting on a month is handed
+ * that month when the range covering it lands. A month that is already being fetched is joined, not re-requested.
+ * With {@code cluster.enabled} in {@code shared-cache} mode, ended months are also shared with the other replicas in their packed form,
+ * and a month another replica already fetched is read from the {@link SharedCacheBackend} instead of upstream.
+ * Shared months carry ISO codes rather than ordinals, since codes registered at runtime get different ordinals
+ * on each replica; a month that cannot be read, or a backend that does not answer in time, falls back to upstream.
+ */
+@Service
+public class HistoricalRatesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalRatesService.class);
+    private static final String BASE_CURRENCY = "IDR";
+    private static final Duration OPEN_MONTH_TTL = Duration.ofMinutes(15);
+    private static final String SHARED_KEY_PREFIX = "historical:IDR:";
+    private static final Duration SHARED_READ_TIMEOUT = Duration.ofSeconds(1);
+    /** First day of the ECB reference rates Frankfurter serves. */
+    static final LocalDate FIRST_COVERED_DAY = LocalDate.of(1999, 1, 4);
+    /** Longest range served by one request, after clamping to the covered days. */
+    static final Period MAX_RANGE = Period.ofYears(10);
+
+    private final WebClient webClient;
+    private final Clock clock;
+    private final Duration batchWindow;
+    private final Scheduler batchScheduler;
+    private final HistoricalSeriesCache cache;
+    private final SharedCacheBackend sharedBackend;
+
+    // Guarded by this: months being fetched, and the months collected for the next flush
+    private final Map<YearMonth, Sinks.One<SeriesChunk>> inFlight = new HashMap<>();
+    private TreeSet<YearMonth> pendingBatch;
+
+    @Autowired
+    public HistoricalRatesService(WebClient webClient, FrankfurterApiProperties properties, HistoricalSeriesCache cache,
+                                  SharedCacheBackend sharedBackend, ClusterProperties cluster) {
+        this(webClient, Clock.systemUTC(), Duration.ofMillis(properties.getHistoricalBatchWindowMs()), Schedulers.parallel(),
+                cache, sharesCache(cluster) ? sharedBackend : null);
+    }
+
+    HistoricalRatesService(WebClient webClient, Clock clock) {
+        this(webClient, clock, Duration.ZERO, Schedulers.immediate());
+    }
+
+    HistoricalRatesService(WebClient webClient, Clock clock, Duration batchWindow, Scheduler batchScheduler) {
+        this(webClient, clock, batchWindow, batchScheduler,
+                new HistoricalSeriesCache(new FrankfurterApiProperties.HistoricalCache()));
+    }
+
+    HistoricalRatesService(WebClient webClient, Clock clock, Duration batchWindow, Scheduler batchScheduler,
+                           HistoricalSeriesCache cache) {
+        this(webClient, clock, batchWindow, batchScheduler, cache, null);
+    }
+
+    HistoricalRatesService(WebClient webClient, Clock clock, Duration batchWindow, Scheduler batchScheduler,
+                           HistoricalSeriesCache cache, SharedCacheBackend sharedBackend) {
+        this.webClient = webClient;
+        this.clock = clock;
+        this.batchWindow = batchWindow;
+        this.batchScheduler = batchScheduler;
+        this.cache = cache;
+        this.sharedBackend = sharedBackend;
+    }
+
+    /**
+     * Peer mode has no store in common, so months are only shared through a shared-cache backend.
+     */
+    private static boolean sharesCache(ClusterProperties cluster) {
+        return cluster.isEnabled() && ClusterProperties.SHARED_CACHE_MODE.equals(cluster.getMode());
+    }
+
+    /**
+     * Get the daily rates of {@code from} expressed in {@code to} between the two ISO dates (inclusive),
+     * fetching only the months of the canonical IDR series that are not cached yet. Rates are keyed in
+     * ascending date order, straight from the cached series.
+     */
+    public Mono<FrankfurterHistoricalResponse> getHistoricalRates(String start, String end, String from, String to) {
+        return Mono.fromCallable(() -> coveredRange(start, end))
+                .flatMap(range -> loadRange(range).map(months ->
+                        derivePair(months, range.start.toString(), range.end.toString(), from, to)));
+    }
+
+    /**
+     * Same rates as {@link #getHistoricalRates} as parallel date/rate arrays, newest first, read straight
+     * from the cached series without building a per-date map.
+     */
+    public Mono<ColumnarHistoricalResponse> getHistoricalSeries(String start, String end, String from, String to) {
+        return Mono.fromCallable(() -> coveredRange(start, end))
+                .flatMap(range -> loadRange(range).map(months ->
+                        deriveSeries(months, range.start.toString(), range.end.toString(), from, to)));
+    }
+
+    /**
+     * {@code start..end} clamped to the days upstream has rates for (first ECB day through today), so no month
+     * outside them is ever fetched or cached. Rejects reversed ranges, ranges outside that coverage and ranges
+     * longer than {@link #MAX_RANGE} with {@link IllegalArgumentException}.
+     */
+    private DateRange coveredRange(String start, String end) {
+        LocalDate startDate = LocalDate.parse(start);
+        LocalDate endDate = LocalDate.parse(end);
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        LocalDate first = startDate.isBefore(FIRST_COVERED_DAY) ? FIRST_COVERED_DAY : startDate;
+        LocalDate last = endDate.isAfter(today) ? today : endDate;
+        if (last.isBefore(first)) {
+            throw new IllegalArgumentException("Rates are only available from " + FIRST_COVERED_DAY + " to " + today);
+        }
+        if (last.isAfter(first.plus(MAX_RANGE))) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE.getYears() + " years");
+        }
+        return new DateRange(first, last);
+    }
+
+    /**
+     * The cached chunks covering {@code range}, oldest month first.
+     */
+    private Mono<List<SeriesChunk>> loadRange(DateRange range) {
+        return Mono.defer(() -> loadMissingChunks(YearMonth.from(range.start), YearMonth.from(range.end)));
+    }
+
+    /**
+     * Read the months of {@code first..last} from the cache, register the missing ones with the current batch
+     * (or join their in-flight fetch), and emit every month once all of them are loaded. Fetched months are
+     * handed over directly, so a month evicted right after landing is still served.
+     */
+    private Mono<List<SeriesChunk>> loadMissingChunks(YearMonth first, YearMonth last) {
+        List<Mono<SeriesChunk>> months = new ArrayList<>();
+        boolean openedBatch = false;
+
+        synchronized (this) {
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                SeriesChunk cached = cache.get(month);
+                if (isUsable(cached)) {
+                    months.add(Mono.just(cached));
+                    continue;
+                }
+                Sinks.One<SeriesChunk> sink = inFlight.get(month);
+                if (sink == null) {
+                    sink = Sinks.one();
+                    inFlight.put(month, sink);
+                    if (pendingBatch == null) {
+                        pendingBatch = new TreeSet<>();
+                        openedBatch = true;
+                    }
+                    pendingBatch.add(month);
+                }
+                months.add(sink.asMono());
+            }
+        }
+
+        if (openedBatch) {
+            if (batchWindow.isZero()) {
+                flushBatch();
+            } else {
+                batchScheduler.schedule(this::flushBatch, batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        return Flux.concat(months).collectList();
+    }
+
+    private void flushBatch() {
+        TreeSet<YearMonth> months;
+        synchronized (this) {
+            months = pendingBatch;
+            pendingBatch = null;
+        }
+        if (months == null) {
+            return;
+        }
+        if (sharedBackend == null) {
+            fetchRanges(months);
+            return;
+        }
+
+        Flux.fromIterable(months)
+                .flatMap(month -> sharedBackend.get(sharedKey(month)).map(packed -> Map.entry(month, packed)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .timeout(SHARED_READ_TIMEOUT)
+                .onErrorResume(e -> {
+                    logger.warn("Shared historical cache unavailable, fetching from Frankfurter: {}", e.getMessage());
+                    return Mono.just(Map.of());
+                })
+                .subscribe(shared -> {
+                    Instant now = clock.instant();
+                    shared.forEach((month, packed) -> {
+                        SeriesChunk chunk;
+                        try {
+                            chunk = new SeriesChunk(HistoricalSeriesCache.unpackShared(month, packed), true, now);
+                        } catch (RuntimeException e) {
+                            // Left in the batch, so it is fetched from upstream and shared again in the current format
+                            logger.warn("Ignoring unreadable shared historical month {}: {}", month, e.getMessage());
+                            return;
+                        }
+                        cache.put(month, chunk);
+                        releaseWaiters(List.of(month), Map.of(month, chunk), null);
+                        months.remove(month);
+                    });
+                    fetchRanges(months);
+                }, error -> releaseWaiters(months, Map.of(), error));
+    }
+
+    private void fetchRanges(TreeSet<YearMonth> months) {
+        List<YearMonth[]> ranges = contiguousRanges(months);
+        logger.debug("Flushing {} missing month(s) as {} upstream call(s)", months.size(), ranges.size());
+        for (YearMonth[] range : ranges) {
+            NavigableSet<YearMonth> rangeMonths = months.subSet(range[0], true, range[1], true);
+            Mono.defer(() -> fetchChunks(range[0], range[1])).defaultIfEmpty(Map.of()).subscribe(
+                    fetched -> releaseWaiters(rangeMonths, fetched, null),
+                    error -> releaseWaiters(rangeMonths, Map.of(), error));
+        }
+    }
+
+    private static List<YearMonth[]> contiguousRanges(TreeSet<YearMonth> months) {
+        List<YearMonth[]> ranges = new ArrayList<>();
+        YearMonth rangeStart = null;
+        YearMonth previous = null;
+        for (YearMonth month : months) {
+            if (rangeStart == null) {
+                rangeStart = month;
+            } else if (!month.equals(previous.plusMonths(1))) {
+                ranges.add(new YearMonth[]{rangeStart, previous});
+                rangeStart = month;
+            }
+            previous = month;
+        }
+        if (rangeStart != null) {
+            ranges.add(new YearMonth[]{rangeStart, previous});
+        }
+        return ranges;
+    }
+
+    /**
+     * Hand {@code months} to their waiters. Only months of the flushed batch are passed in, so a month fetched by
+     * another batch keeps its waiters.
+     */
+    private void releaseWaiters(Collection<YearMonth> months, Map<YearMonth, SeriesChunk> fetched, Throwable error) {
+        Map<YearMonth, Sinks.One<SeriesChunk>> sinks = new LinkedHashMap<>();
+        synchronized (this) {
+            for (YearMonth month : months) {
+                Sinks.One<SeriesChunk> sink = inFlight.remove(month);
+                if (sink != null) {
+                    sinks.put(month, sink);
+                }
+            }
+        }
+        sinks.forEach((month, sink) -> {
+            SeriesChunk chunk = fetched.get(month);
+            if (error != null) {
+                sink.tryEmitError(error);
+            } else if (chunk != null) {
+                sink.tryEmitValue(chunk);
+            } else {
+                sink.tryEmitEmpty();
+            }
+        });
+    }
+
+    private Mono<Map<YearMonth, SeriesChunk>> fetchChunks(YearMonth first, YearMonth last) {
+        String url = String.format("/%s..%s?from=%s", first.atDay(1), last.atEndOfMonth(), BASE_CURRENCY);
+        logger.debug("Fetching canonical {} series from Frankfurter: {}", BASE_CURRENCY, url);
+
+        return webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(HistoricalRatesService::parseDailyRates)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .map(days -> storeChunks(first, last, days));
+    }
+
+    /**
+     * Stream the body straight into ordinal-indexed rows, releasing the buffer once read.
+     */
+    private static NavigableMap<String, double[]> parseDailyRates(DataBuffer body) {
+        try (InputStream in = body.asInputStream(true)) {
+            return DailyRatesParser.parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse Frankfurter time series", e);
+        }
+    }
+
+    private Map<YearMonth, SeriesChunk> storeChunks(YearMonth first, YearMonth last, NavigableMap<String, double[]> days) {
+        Map<YearMonth, NavigableMap<String, double[]>> byMonth = new LinkedHashMap<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            byMonth.put(month, new TreeMap<>());
+        }
+
+        days.forEach((date, rates) -> {
+            NavigableMap<String, double[]> monthRates = byMonth.get(YearMonth.from(LocalDate.parse(date)));
+            if (monthRates != null) {
+                monthRates.put(date, rates);
+            }
+        });
+
+        Instant now = clock.instant();
+        LocalDate today = LocalDate.now(clock);
+        Map<YearMonth, SeriesChunk> stored = new HashMap<>();
+        byMonth.forEach((month, rates) -> {
+            SeriesChunk chunk = new SeriesChunk(Collections.unmodifiableNavigableMap(rates), month.atEndOfMonth().isBefore(today), now);
+            cache.put(month, chunk);
+            stored.put(month, chunk);
+            // Only ended months are final; open ones are refetched by each replica after their TTL
+            if (sharedBackend != null && chunk.complete) {
+                sharedBackend.put(sharedKey(month), HistoricalSeriesCache.packShared(rates)).subscribe(
+                        null, error -> logger.warn("Failed to share historical month {}: {}", month, error.getMessage()));
+            }
+        });
+        return stored;
+    }
+
+    private static String sharedKey(YearMonth month) {
+        return SHARED_KEY_PREFIX + month;
+    }
+
+    private boolean isUsable(SeriesChunk chunk) {
+        if (chunk == null) {
+            return false;
+        }
+        return chunk.complete || chunk.fetchedAt.plus(OPEN_MONTH_TTL).isAfter(clock.instant());
+    }
+
+    private FrankfurterHistoricalResponse derivePair(List<SeriesChunk> months, String start, String end, String from, String to) {
+        Map<String, Map<String, Double>> rates = new LinkedHashMap<>();
+        int fromOrdinal = CurrencyRegistry.ordinal(from);
+        int toOrdinal = CurrencyRegistry.ordinal(to);
+        if (fromOrdinal >= 0 && toOrdinal >= 0) {
+            String toCode = CurrencyRegistry.code(toOrdinal);
+            for (SeriesChunk chunk : months) {
+                chunk.rates.subMap(start, true, end, true).forEach((date, idrRates) -> {
+                    double rate = crossRate(idrRates, fromOrdinal, toOrdinal);
+                    if (!Double.isNaN(rate)) {
+                        rates.put(date, Map.of(toCode, rate));
+                    }
+                });
+            }
+        }
+
+        FrankfurterHistoricalResponse response = new FrankfurterHistoricalResponse();
+        response.setAmount("1");
+        response.setBase(from);
+        response.setStartDate(rates.isEmpty() ? start : rates.keySet().iterator().next());
+        response.setEndDate(rates.isEmpty() ? end : lastKey(rates));
+        response.setRates(rates);
+        return response;
+    }
+
+    private ColumnarHistoricalResponse deriveSeries(List<SeriesChunk> months, String start, String end, String from, String to) {
+        int fromOrdinal = CurrencyRegistry.ordinal(from);
+        int toOrdinal = CurrencyRegistry.ordinal(to);
+        // At most one entry per calendar day of the range
+        int capacity = (int) ChronoUnit.DAYS.between(LocalDate.parse(start), LocalDate.parse(end)) + 1;
+        String[] dates = new String[capacity];
+        double[] values = new double[capacity];
+        int count = 0;
+        if (fromOrdinal >= 0 && toOrdinal >= 0) {
+            for (SeriesChunk chunk : months.reversed()) {
+                for (Map.Entry<String, double[]> day : chunk.rates.subMap(start, true, end, true).descendingMap().entrySet()) {
+                    double rate = crossRate(day.getValue(), fromOrdinal, toOrdinal);
+                    if (!Double.isNaN(rate)) {
+                        dates[count] = day.getKey();
+                        values[count++] = rate;
+                    }
+                }
+            }
+        }
+
+        String toCode = toOrdinal >= 0 ? CurrencyRegistry.code(toOrdinal) : to;
+        return new ColumnarHistoricalResponse("1", from,
+                count == 0 ? start : dates[count - 1],
+                count == 0 ? end : dates[0],
+                Arrays.asList(Arrays.copyOf(dates, count)),
+                Map.of(toCode, Arrays.copyOf(values, count)));
+    }
+
+    /**
+     * Rate of {@code from} in {@code to} on one day of the IDR series, or {@code NaN} if a leg is missing.
+     */
+    private static double crossRate(double[] idrRates, int fromOrdinal, int toOrdinal) {
+        double fromRate = idrRate(idrRates, fromOrdinal);
+        double toRate = idrRate(idrRates, toOrdinal);
+        return fromRate != 0 ? toRate / fromRate : Double.NaN;
+    }
+
+    private static double idrRate(double[] idrRates, int ordinal) {
+        return ordinal == CurrencyRegistry.IDR ? 1.0 : idrRates[ordinal];
+    }
+
+    private static String lastKey(Map<String, Map<String, Double>> rates) {
+        String last = null;
+        for (String date : rates.keySet()) {
+            last = date;
+        }
+        return last;
+    }
+
+    /** Inclusive day range a request is served for. */
+    private static final class DateRange {
+        final LocalDate start;
+        final LocalDate end;
+
+        DateRange(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
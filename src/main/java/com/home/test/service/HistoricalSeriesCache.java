@@ -0,0 +1,325 @@
+package com.home.test.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.home.test.config.FrankfurterApiProperties;
+import com.home.test.util.CurrencyRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Two-tier cache of the canonical IDR series, one entry per calendar month.
+ *
+ * The hot tier keeps months on-heap as ordinal-indexed rows in a Caffeine cache (W-TinyLFU admission and
+ * eviction), bounded by month count. Months it evicts are demoted to the cold tier: direct buffers that
+ * hold only the currencies quoted that month, packed as {@code double} columns, bounded by total bytes and
+ * evicted least recently used first. A cold hit is unpacked and promoted back to the hot tier.
+ */
+public class HistoricalSeriesCache {
+
+    /** Packed header: day count and column count, one {@code short} each. */
+    private static final int HEADER_BYTES = 4;
+
+    /** Leading byte of a shared month; bump it whenever {@link #packShared} changes. */
+    static final byte SHARED_FORMAT = 1;
+    private static final int CODE_BYTES = 3;
+
+    private final Cache<YearMonth, SeriesChunk> hot;
+    private final long coldMaxBytes;
+
+    // Guarded by cold: an access-ordered map, so reads reorder it too
+    private final LinkedHashMap<YearMonth, ColdChunk> cold = new LinkedHashMap<>(16, 0.75f, true);
+    private long coldBytes;
+
+    private final LongAdder coldHits = new LongAdder();
+    private final LongAdder coldMisses = new LongAdder();
+    private final LongAdder coldEvictions = new LongAdder();
+
+    public HistoricalSeriesCache(FrankfurterApiProperties.HistoricalCache properties) {
+        this(properties, ForkJoinPool.commonPool());
+    }
+
+    HistoricalSeriesCache(FrankfurterApiProperties.HistoricalCache properties, Executor executor) {
+        this.hot = Caffeine.newBuilder()
+                .maximumSize(properties.getHotMaxMonths())
+                .executor(executor)
+                .recordStats()
+                .<YearMonth, SeriesChunk>evictionListener((month, chunk, cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        demote(month, chunk);
+                    }
+                })
+                .build();
+        this.coldMaxBytes = properties.getColdMaxSize().toBytes();
+    }
+
+    /**
+     * Publish hits, misses, evictions and entry counts per tier ({@code tier=hot|cold}), plus cold tier bytes.
+     */
+    public HistoricalSeriesCache bindTo(MeterRegistry registry) {
+        counter(registry, "historical.series.cache.hits", "hot", cache -> cache.hot.stats().hitCount());
+        counter(registry, "historical.series.cache.misses", "hot", cache -> cache.hot.stats().missCount());
+        counter(registry, "historical.series.cache.evictions", "hot", cache -> cache.hot.stats().evictionCount());
+        counter(registry, "historical.series.cache.hits", "cold", cache -> cache.coldHits.sum());
+        counter(registry, "historical.series.cache.misses", "cold", cache -> cache.coldMisses.sum());
+        counter(registry, "historical.series.cache.evictions", "cold", cache -> cache.coldEvictions.sum());
+        Gauge.builder("historical.series.cache.entries", this, cache -> cache.hot.estimatedSize())
+                .tag("tier", "hot")
+                .register(registry);
+        Gauge.builder("historical.series.cache.entries", this, HistoricalSeriesCache::getColdEntries)
+                .tag("tier", "cold")
+                .register(registry);
+        Gauge.builder("historical.series.cache.cold.bytes", this, HistoricalSeriesCache::getColdBytes)
+                .description("Off-heap bytes held by the cold tier")
+                .register(registry);
+        return this;
+    }
+
+    /**
+     * The cached month, promoting it from the cold tier if needed, or {@code null} if neither tier has it.
+     */
+    SeriesChunk get(YearMonth month) {
+        SeriesChunk chunk = hot.getIfPresent(month);
+        if (chunk != null) {
+            return chunk;
+        }
+        ColdChunk packed;
+        synchronized (cold) {
+            packed = cold.remove(month);
+            if (packed != null) {
+                coldBytes -= packed.buffer.capacity();
+            }
+        }
+        if (packed == null) {
+            coldMisses.increment();
+            return null;
+        }
+        coldHits.increment();
+        chunk = new SeriesChunk(unpack(month, packed.buffer), packed.complete, packed.fetchedAt);
+        // A fresher chunk stored meanwhile wins over the promoted one
+        SeriesChunk current = hot.asMap().putIfAbsent(month, chunk);
+        return current != null ? current : chunk;
+    }
+
+    void put(YearMonth month, SeriesChunk chunk) {
+        synchronized (cold) {
+            ColdChunk stale = cold.remove(month);
+            if (stale != null) {
+                coldBytes -= stale.buffer.capacity();
+            }
+        }
+        hot.put(month, chunk);
+    }
+
+    /**
+     * Run pending hot tier maintenance, so evictions (and demotions) are applied.
+     */
+    void cleanUp() {
+        hot.cleanUp();
+    }
+
+    public long getColdBytes() {
+        synchronized (cold) {
+            return coldBytes;
+        }
+    }
+
+    public int getColdEntries() {
+        synchronized (cold) {
+            return cold.size();
+        }
+    }
+
+    private void demote(YearMonth month, SeriesChunk chunk) {
+        ByteBuffer buffer = pack(chunk.rates);
+        if (buffer.capacity() > coldMaxBytes) {
+            coldEvictions.increment();
+            return;
+        }
+        synchronized (cold) {
+            ColdChunk previous = cold.put(month, new ColdChunk(buffer, chunk.complete, chunk.fetchedAt));
+            coldBytes += buffer.capacity() - (previous != null ? previous.buffer.capacity() : 0);
+            Iterator<ColdChunk> eldest = cold.values().iterator();
+            while (coldBytes > coldMaxBytes && eldest.hasNext()) {
+                coldBytes -= eldest.next().buffer.capacity();
+                eldest.remove();
+                coldEvictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Pack one month into a direct buffer: day count, column count, each day's day-of-month, the ordinal of
+     * every currency quoted at least once that month, then one column of {@code double}s per such currency.
+     */
+    static ByteBuffer pack(NavigableMap<String, double[]> rates) {
+        int days = rates.size();
+        int[] ordinals = quotedOrdinals(rates);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER_BYTES + days + ordinals.length * (2 + days * Double.BYTES));
+        buffer.putShort((short) days).putShort((short) ordinals.length);
+        for (String date : rates.keySet()) {
+            buffer.put((byte) Integer.parseInt(date, 8, 10, 10));
+        }
+        for (int ordinal : ordinals) {
+            buffer.putShort((short) ordinal);
+        }
+        for (int ordinal : ordinals) {
+            for (double[] row : rates.values()) {
+                buffer.putDouble(row[ordinal]);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * The form months are shared between replicas in, whose ordinals differ: a format byte, then the layout of
+     * {@link #pack} with each column keyed by its three-letter ISO code instead of an ordinal.
+     */
+    static byte[] packShared(NavigableMap<String, double[]> rates) {
+        int days = rates.size();
+        int[] ordinals = quotedOrdinals(rates);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + HEADER_BYTES + days + ordinals.length * (CODE_BYTES + days * Double.BYTES));
+        buffer.put(SHARED_FORMAT).putShort((short) days).putShort((short) ordinals.length);
+        for (String date : rates.keySet()) {
+            buffer.put((byte) Integer.parseInt(date, 8, 10, 10));
+        }
+        for (int ordinal : ordinals) {
+            buffer.put(CurrencyRegistry.code(ordinal).getBytes(StandardCharsets.US_ASCII));
+        }
+        for (int ordinal : ordinals) {
+            for (double[] row : rates.values()) {
+                buffer.putDouble(row[ordinal]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Read a month written by {@link #packShared}, registering codes this process has not seen yet. Throws
+     * {@link IllegalArgumentException} for any other format or a truncated month.
+     */
+    static NavigableMap<String, double[]> unpackShared(YearMonth month, byte[] packed) {
+        ByteBuffer buffer = ByteBuffer.wrap(packed);
+        if (packed.length < 1 + HEADER_BYTES || buffer.get() != SHARED_FORMAT) {
+            throw new IllegalArgumentException("Unsupported shared month format");
+        }
+        int days = buffer.getShort();
+        int columns = buffer.getShort();
+        if (days < 0 || columns < 0 || buffer.remaining() != days + columns * (CODE_BYTES + days * Double.BYTES)) {
+            throw new IllegalArgumentException("Truncated shared month");
+        }
+        int[] dayOfMonth = new int[days];
+        for (int day = 0; day < days; day++) {
+            dayOfMonth[day] = buffer.get();
+        }
+        int[] ordinals = new int[columns];
+        byte[] code = new byte[CODE_BYTES];
+        for (int column = 0; column < columns; column++) {
+            buffer.get(code);
+            ordinals[column] = CurrencyRegistry.register(new String(code, StandardCharsets.US_ASCII));
+        }
+
+        double[][] rows = new double[days][CurrencyRegistry.CAPACITY];
+        for (double[] row : rows) {
+            Arrays.fill(row, Double.NaN);
+        }
+        for (int column = 0; column < columns; column++) {
+            for (int day = 0; day < days; day++) {
+                double value = buffer.getDouble();
+                // A code this process has no spare ordinal for is dropped, as the parser does
+                if (ordinals[column] >= 0) {
+                    rows[day][ordinals[column]] = value;
+                }
+            }
+        }
+        NavigableMap<String, double[]> rates = new TreeMap<>();
+        for (int day = 0; day < days; day++) {
+            rates.put(month.atDay(dayOfMonth[day]).toString(), rows[day]);
+        }
+        return Collections.unmodifiableNavigableMap(rates);
+    }
+
+    static NavigableMap<String, double[]> unpack(YearMonth month, ByteBuffer buffer) {
+        int days = buffer.getShort(0);
+        int columns = buffer.getShort(2);
+        int ordinalsAt = HEADER_BYTES + days;
+        int valuesAt = ordinalsAt + columns * 2;
+
+        NavigableMap<String, double[]> rates = new TreeMap<>();
+        for (int day = 0; day < days; day++) {
+            double[] row = new double[CurrencyRegistry.CAPACITY];
+            Arrays.fill(row, Double.NaN);
+            for (int column = 0; column < columns; column++) {
+                row[buffer.getShort(ordinalsAt + column * 2)] = buffer.getDouble(valuesAt + (column * days + day) * Double.BYTES);
+            }
+            rates.put(month.atDay(buffer.get(HEADER_BYTES + day)).toString(), row);
+        }
+        return Collections.unmodifiableNavigableMap(rates);
+    }
+
+    private static int[] quotedOrdinals(Map<String, double[]> rates) {
+        int known = CurrencyRegistry.size();
+        int[] ordinals = new int[known];
+        int count = 0;
+        for (int ordinal = 0; ordinal < known; ordinal++) {
+            for (double[] row : rates.values()) {
+                if (!Double.isNaN(row[ordinal])) {
+                    ordinals[count++] = ordinal;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(ordinals, count);
+    }
+
+    private void counter(MeterRegistry registry, String name, String tier, ToDoubleFunction<HistoricalSeriesCache> count) {
+        FunctionCounter.builder(name, this, count)
+                .tag("tier", tier)
+                .register(registry);
+    }
+
+    /**
+     * One cached month: rows by ISO date, whether the month has ended, and when it was fetched.
+     */
+    static final class SeriesChunk {
+        final NavigableMap<String, double[]> rates;
+        final boolean complete;
+        final Instant fetchedAt;
+
+        SeriesChunk(NavigableMap<String, double[]> rates, boolean complete, Instant fetchedAt) {
+            this.rates = rates;
+            this.complete = complete;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private static final class ColdChunk {
+        final ByteBuffer buffer;
+        final boolean complete;
+        final Instant fetchedAt;
+
+        ColdChunk(ByteBuffer buffer, boolean complete, Instant fetchedAt) {
+            this.buffer = buffer;
+            this.complete = complete;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
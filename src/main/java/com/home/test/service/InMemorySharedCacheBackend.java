@@ -0,0 +1,79 @@
+package com.home.test.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SharedCacheBackend} held in this process. Shared only by the replicas (application contexts or
+ * test instances) in one JVM, so it stands in for a networked store in tests and single-host setups.
+ * Values are copied in and out, as they would be over the wire.
+ */
+public class InMemorySharedCacheBackend implements SharedCacheBackend {
+
+    private final Clock clock;
+    private final ConcurrentHashMap<String, byte[]> values = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<String, Lease> leases = new HashMap<>();
+
+    public InMemorySharedCacheBackend() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemorySharedCacheBackend(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Boolean> tryAcquireLease(String lease, String owner, Duration ttl) {
+        return Mono.fromSupplier(() -> {
+            Instant now = clock.instant();
+            synchronized (this) {
+                Lease current = leases.get(lease);
+                if (current != null && !current.owner.equals(owner) && current.expiresAt.isAfter(now)) {
+                    return false;
+                }
+                leases.put(lease, new Lease(owner, now.plus(ttl)));
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> releaseLease(String lease, String owner) {
+        return Mono.fromRunnable(() -> {
+            synchronized (this) {
+                Lease current = leases.get(lease);
+                if (current != null && current.owner.equals(owner)) {
+                    leases.remove(lease);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value) {
+        return Mono.fromRunnable(() -> values.put(key, value.clone()));
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.fromSupplier(() -> values.get(key)).map(byte[]::clone);
+    }
+
+    private static final class Lease {
+        final String owner;
+        final Instant expiresAt;
+
+        Lease(String owner, Instant expiresAt) {
+            this.owner = owner;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
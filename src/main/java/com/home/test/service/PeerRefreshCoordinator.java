@@ -0,0 +1,272 @@
+package com.home.test.service;
+
+import com.home.test.config.ClusterProperties;
+import com.home.test.dto.PeerHeartbeat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the nodes listed in {@code cluster.peers} on one copy of the Frankfurter data without any shared store
+ * ({@code cluster.enabled} with {@code cluster.mode=peers}).
+ *
+ * On every sync interval each node asks its peers for a heartbeat. The node with the lowest instance id among
+ * those that answered is the leader: it is the only one that loads from Frankfurter, once per refresh interval,
+ * stamps the result with a version (its load time in epoch millis) and pushes it over HTTP to every peer that
+ * reported an older version, which also catches up nodes that join late. Peers apply a pushed snapshot only if
+ * it is newer than what they hold, so out-of-order or duplicate pushes are harmless. When the leader stops
+ * answering the next lowest id takes over and keeps the cadence of the version it already holds.
+ *
+ * Pushes must carry {@code cluster.peer-token}, which is required in this mode, and a version at most
+ * {@link #MAX_VERSION_SKEW} ahead of this node's clock, so one bad push cannot pin every node to a future version.
+ */
+@Service
+@ConditionalOnProperty(prefix = "cluster", name = "mode", havingValue = ClusterProperties.PEERS_MODE)
+public class PeerRefreshCoordinator implements RefreshCoordinator, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerRefreshCoordinator.class);
+
+    public static final String HEARTBEAT_PATH = "/internal/cluster/heartbeat";
+    public static final String SNAPSHOT_PATH = "/internal/cluster/snapshot";
+    public static final String VERSION_HEADER = "X-Snapshot-Version";
+    public static final String TOKEN_HEADER = "X-Cluster-Token";
+    static final Duration MAX_VERSION_SKEW = Duration.ofMinutes(1);
+
+    private final WebClient webClient;
+    private final DataStoreService dataStoreService;
+    private final SnapshotFileStore snapshotCodec;
+    private final boolean enabled;
+    private final String instanceId;
+    private final List<String> peers;
+    private final Duration peerTimeout;
+    private final Duration syncInterval;
+    private final Duration refreshInterval;
+    private final String peerToken;
+    private final Clock clock;
+    private final Scheduler blockingScheduler;
+
+    // Only touched by sync rounds, which never overlap
+    private volatile boolean leader;
+    private volatile Instant nextRefresh;
+    private volatile Disposable rounds;
+    private volatile long encodedVersion;
+    private volatile byte[] encoded;
+
+    @Autowired
+    public PeerRefreshCoordinator(WebClient.Builder webClientBuilder, DataStoreService dataStoreService,
+                                  SnapshotFileStore snapshotCodec, ClusterProperties properties,
+                                  @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this(webClientBuilder.build(), dataStoreService, snapshotCodec, properties, Clock.systemUTC(), blockingScheduler);
+    }
+
+    PeerRefreshCoordinator(WebClient webClient, DataStoreService dataStoreService, SnapshotFileStore snapshotCodec,
+                           ClusterProperties properties, Clock clock, Scheduler blockingScheduler) {
+        this.webClient = webClient;
+        this.dataStoreService = dataStoreService;
+        this.snapshotCodec = snapshotCodec;
+        this.enabled = properties.isEnabled();
+        this.instanceId = properties.getInstanceId();
+        this.peers = List.copyOf(properties.getPeers());
+        this.peerTimeout = Duration.ofMillis(properties.getPeerTimeoutMs());
+        this.syncInterval = Duration.ofMillis(properties.getSyncIntervalMs());
+        this.refreshInterval = Duration.ofMillis(properties.getRefreshIntervalMs());
+        String token = properties.getPeerToken();
+        if (token == null || token.isBlank()) {
+            throw new IllegalStateException("cluster.peer-token is required with cluster.mode=peers");
+        }
+        this.peerToken = token;
+        this.clock = clock;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isLeader() {
+        return leader;
+    }
+
+    public PeerHeartbeat heartbeat() {
+        return new PeerHeartbeat(instanceId, dataStoreService.getSnapshotVersion(), leader);
+    }
+
+    /**
+     * Whether a push carrying {@code token} comes from a node sharing {@code cluster.peer-token}.
+     */
+    public boolean acceptsToken(String token) {
+        return token != null && MessageDigest.isEqual(peerToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Apply a snapshot pushed by the leader if {@code version} is newer than the one held here. Returns whether it
+     * was applied; throws {@link IllegalArgumentException} when the body is not a snapshot or the version is not
+     * a load time this node's clock could have seen.
+     */
+    public boolean receive(byte[] snapshot, long version) {
+        if (version <= 0 || version > clock.millis() + MAX_VERSION_SKEW.toMillis()) {
+            throw new IllegalArgumentException("Snapshot version " + version + " is too far ahead of this node's clock");
+        }
+        Map<String, Object> resources = snapshotCodec.decode(snapshot);
+        if (resources.isEmpty()) {
+            throw new IllegalArgumentException("Snapshot body holds no resources");
+        }
+        boolean applied = dataStoreService.applySnapshot(resources, version);
+        if (applied) {
+            logger.info("Applied snapshot version {} from leader", version);
+        }
+        return applied;
+    }
+
+    /**
+     * Run a sync round now and then every sync interval; {@code refresh} loads from Frankfurter and is
+     * only subscribed while this node is the leader. A failed round is logged and retried next interval;
+     * a failed refresh is neither stamped nor pushed, and the leader loads again on that next round.
+     */
+    @Override
+    public void start(Supplier<Mono<Void>> refresh) {
+        rounds = Flux.interval(Duration.ZERO, syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync(refresh)
+                        .subscribeOn(blockingScheduler)
+                        .onErrorResume(e -> {
+                            logger.warn("Peer sync failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * One round: collect heartbeats, then lead (refresh if due and push to stale peers) or follow.
+     */
+    Mono<Void> sync(Supplier<Mono<Void>> refresh) {
+        return Flux.fromIterable(peers)
+                .flatMap(peer -> heartbeatOf(peer).map(heartbeat -> Map.entry(peer, heartbeat)))
+                // A peers list shared by every node also names this one
+                .filter(peer -> !instanceId.equals(peer.getValue().getInstanceId()))
+                .collectList()
+                .flatMap(live -> {
+                    boolean elected = live.stream()
+                            .noneMatch(peer -> peer.getValue().getInstanceId().compareTo(instanceId) < 0);
+                    return elected ? lead(refresh).then(Mono.defer(() -> push(live))) : follow();
+                });
+    }
+
+    private Mono<PeerHeartbeat> heartbeatOf(String peer) {
+        return webClient.get()
+                .uri(peer + HEARTBEAT_PATH)
+                .retrieve()
+                .bodyToMono(PeerHeartbeat.class)
+                .timeout(peerTimeout)
+                .filter(heartbeat -> heartbeat.getInstanceId() != null)
+                .onErrorResume(e -> {
+                    logger.debug("Peer {} did not answer: {}", peer, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> lead(Supplier<Mono<Void>> refresh) {
+        Instant now = clock.instant();
+        if (!leader) {
+            leader = true;
+            // Taking over keeps the cadence of the snapshot already held, or loads at once if there is none
+            long version = dataStoreService.getSnapshotVersion();
+            nextRefresh = version > 0 ? Instant.ofEpochMilli(version).plus(refreshInterval) : now;
+            logger.info("Instance {} is the refresh leader", instanceId);
+        }
+        if (now.isBefore(nextRefresh)) {
+            return Mono.empty();
+        }
+        // A failed load errors before this stamp, so the version and cadence only move on a complete one
+        return Mono.defer(refresh)
+                .then(Mono.fromRunnable(() -> {
+                    nextRefresh = now.plus(refreshInterval);
+                    long version = dataStoreService.stampSnapshotVersion(clock.millis());
+                    logger.info("Loaded snapshot version {}", version);
+                }));
+    }
+
+    private Mono<Void> push(List<Map.Entry<String, PeerHeartbeat>> live) {
+        long version = dataStoreService.getSnapshotVersion();
+        if (version == 0 || live.stream().allMatch(peer -> peer.getValue().getVersion() >= version)) {
+            return Mono.empty();
+        }
+        if (encodedVersion != version) {
+            Map<String, Object> resources = dataStoreService.snapshot();
+            if (resources.isEmpty()) {
+                return Mono.empty();
+            }
+            encoded = snapshotCodec.encode(resources);
+            encodedVersion = version;
+        }
+        byte[] snapshot = encoded;
+        return Flux.fromIterable(live)
+                .filter(peer -> peer.getValue().getVersion() < version)
+                .flatMap(peer -> pushTo(peer.getKey(), snapshot, version))
+                .then();
+    }
+
+    private Mono<Void> pushTo(String peer, byte[] snapshot, long version) {
+        return webClient.post()
+                .uri(peer + SNAPSHOT_PATH)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(VERSION_HEADER, Long.toString(version))
+                .header(TOKEN_HEADER, peerToken)
+                .bodyValue(snapshot)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(peerTimeout)
+                .doOnSuccess(ignored -> logger.debug("Pushed snapshot version {} to {}", version, peer))
+                // The peer already holds this version or a newer one
+                .onErrorResume(WebClientResponseException.Conflict.class, e -> Mono.empty())
+                .onErrorResume(e -> {
+                    logger.warn("Failed to push snapshot version {} to {}: {}", version, peer, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> follow() {
+        return Mono.fromRunnable(() -> {
+            if (leader) {
+                leader = false;
+                logger.info("Instance {} is no longer the refresh leader", instanceId);
+            }
+        });
+    }
+
+    /**
+     * Stop syncing; the peers elect the next leader once this node stops answering heartbeats.
+     */
+    @Override
+    public void destroy() {
+        Disposable current = rounds;
+        if (current != null) {
+            current.dispose();
+        }
+        leader = false;
+    }
+}
@@ -0,0 +1,26 @@
+package com.home.test.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides which replica loads from Frankfurter when {@code cluster.enabled}, and how the others get the result.
+ * One implementation is active, selected by {@code cluster.mode}: {@link SharedSnapshotSync} through a shared
+ * store, or {@link PeerRefreshCoordinator} directly between the nodes.
+ */
+public interface RefreshCoordinator {
+
+    boolean isEnabled();
+
+    /**
+     * Whether this replica is currently the one that loads.
+     */
+    boolean isLeader();
+
+    /**
+     * Take over the periodic load; {@code refresh} loads from Frankfurter and is only subscribed on the leader.
+     * It errors when a resource failed to load, and the load is then retried before the next regular refresh.
+     */
+    void start(Supplier<Mono<Void>> refresh);
+}
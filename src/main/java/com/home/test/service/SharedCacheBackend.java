@@ -0,0 +1,31 @@
+package com.home.test.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Store shared by every replica: opaque values by key, plus named leases that at most one replica holds
+ * at a time. Implementations map onto any store with an atomic set-if-absent-with-expiry (Redis
+ * {@code SET NX PX}, a database row, etcd); {@link InMemorySharedCacheBackend} is the in-process stand-in.
+ */
+public interface SharedCacheBackend {
+
+    /**
+     * Take {@code lease} for {@code owner} for {@code ttl} from now, or extend it if {@code owner} already
+     * holds it. Emits {@code false} while another owner holds an unexpired lease.
+     */
+    Mono<Boolean> tryAcquireLease(String lease, String owner, Duration ttl);
+
+    /**
+     * Give up {@code lease} if {@code owner} holds it.
+     */
+    Mono<Void> releaseLease(String lease, String owner);
+
+    Mono<Void> put(String key, byte[] value);
+
+    /**
+     * The value under {@code key}, or empty if there is none.
+     */
+    Mono<byte[]> get(String key);
+}
@@ -0,0 +1,179 @@
+package com.home.test.service;
+
+import com.home.test.config.ClusterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps replicas on one copy of the Frankfurter data through a {@link SharedCacheBackend}
+ * ({@code cluster.enabled} with {@code cluster.mode=shared-cache}).
+ *
+ * On every sync interval each replica first adopts the shared snapshot if it changed, then tries to take
+ * the refresh lease. The holder renews it on each round and is the only replica that loads from Frankfurter:
+ * at once if nothing has been shared yet, otherwise once per refresh interval, publishing the result for
+ * the others. Upstream load therefore does not grow with the replica count. A holder that stops renewing
+ * loses the lease after its TTL and the next replica to ask takes over on the same schedule.
+ */
+@Service
+@ConditionalOnProperty(prefix = "cluster", name = "mode", havingValue = ClusterProperties.SHARED_CACHE_MODE,
+        matchIfMissing = true)
+public class SharedSnapshotSync implements RefreshCoordinator, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedSnapshotSync.class);
+
+    static final String REFRESH_LEASE = "finance:refresh-lease";
+    static final String SNAPSHOT_KEY = "finance:snapshot";
+
+    private final SharedCacheBackend backend;
+    private final DataStoreService dataStoreService;
+    private final SnapshotFileStore snapshotCodec;
+    private final boolean enabled;
+    private final String instanceId;
+    private final Duration leaseTtl;
+    private final Duration syncInterval;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final Scheduler blockingScheduler;
+
+    // Only touched by sync rounds, which never overlap
+    private volatile byte[] adopted;
+    private volatile boolean leader;
+    private volatile Instant nextRefresh;
+    private volatile Disposable rounds;
+
+    @Autowired
+    public SharedSnapshotSync(SharedCacheBackend backend, DataStoreService dataStoreService,
+                              SnapshotFileStore snapshotCodec, ClusterProperties properties,
+                              @Qualifier("blockingScheduler") Scheduler blockingScheduler) {
+        this(backend, dataStoreService, snapshotCodec, properties, Clock.systemUTC(), blockingScheduler);
+    }
+
+    SharedSnapshotSync(SharedCacheBackend backend, DataStoreService dataStoreService, SnapshotFileStore snapshotCodec,
+                       ClusterProperties properties, Clock clock, Scheduler blockingScheduler) {
+        this.backend = backend;
+        this.dataStoreService = dataStoreService;
+        this.snapshotCodec = snapshotCodec;
+        this.enabled = properties.isEnabled();
+        this.instanceId = properties.getInstanceId();
+        this.leaseTtl = Duration.ofMillis(properties.getLeaseTtlMs());
+        this.syncInterval = Duration.ofMillis(properties.getSyncIntervalMs());
+        this.refreshInterval = Duration.ofMillis(properties.getRefreshIntervalMs());
+        this.clock = clock;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isLeader() {
+        return leader;
+    }
+
+    /**
+     * Run a sync round now and then every sync interval; {@code refresh} loads from Frankfurter and is
+     * only subscribed while this replica holds the lease. A failed round is logged and retried next interval;
+     * a failed refresh leaves the refresh due, so the leader loads again on that next round.
+     */
+    @Override
+    public void start(Supplier<Mono<Void>> refresh) {
+        rounds = Flux.interval(Duration.ZERO, syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync(refresh)
+                        .subscribeOn(blockingScheduler)
+                        .onErrorResume(e -> {
+                            logger.warn("Shared snapshot sync failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * One round: adopt a changed shared snapshot, then take or renew the lease and refresh if due.
+     */
+    Mono<Void> sync(Supplier<Mono<Void>> refresh) {
+        return adoptShared()
+                .then(backend.tryAcquireLease(REFRESH_LEASE, instanceId, leaseTtl))
+                .flatMap(acquired -> acquired ? lead(refresh) : follow());
+    }
+
+    private Mono<Void> adoptShared() {
+        return backend.get(SNAPSHOT_KEY)
+                .filter(snapshot -> !Arrays.equals(snapshot, adopted))
+                .doOnNext(snapshot -> {
+                    // Applying persists the local snapshot file, hence the blocking scheduler for rounds
+                    Map<String, Object> resources = snapshotCodec.decode(snapshot);
+                    if (!resources.isEmpty()) {
+                        dataStoreService.applySnapshot(resources);
+                    }
+                    adopted = snapshot;
+                })
+                .then();
+    }
+
+    private Mono<Void> lead(Supplier<Mono<Void>> refresh) {
+        Instant now = clock.instant();
+        if (!leader) {
+            leader = true;
+            // Taking over keeps the cadence: the shared snapshot already adopted is at most one interval old
+            nextRefresh = adopted != null ? now.plus(refreshInterval) : now;
+            logger.info("Instance {} holds the refresh lease", instanceId);
+        }
+        if (now.isBefore(nextRefresh)) {
+            return Mono.empty();
+        }
+        return Mono.defer(refresh)
+                // Only a complete load moves the cadence; otherwise the next round loads again
+                .then(Mono.fromRunnable(() -> nextRefresh = now.plus(refreshInterval)))
+                .then(Mono.fromCallable(dataStoreService::snapshot))
+                .filter(resources -> !resources.isEmpty())
+                .flatMap(resources -> {
+                    byte[] snapshot = snapshotCodec.encode(resources);
+                    adopted = snapshot;
+                    logger.info("Published shared snapshot with {}", resources.keySet());
+                    return backend.put(SNAPSHOT_KEY, snapshot);
+                });
+    }
+
+    private Mono<Void> follow() {
+        return Mono.fromRunnable(() -> {
+            if (leader) {
+                leader = false;
+                logger.info("Instance {} lost the refresh lease", instanceId);
+            }
+        });
+    }
+
+    /**
+     * Stop syncing and hand the lease over at once instead of letting it expire.
+     */
+    @Override
+    public void destroy() {
+        Disposable current = rounds;
+        if (current != null) {
+            current.dispose();
+        }
+        if (leader) {
+            leader = false;
+            backend.releaseLease(REFRESH_LEASE, instanceId).block(Duration.ofSeconds(1));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.home.test.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.home.test.config.SnapshotProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persists the published data store contents to a gzipped JSON file so a restart can serve
+ * last-known data immediately instead of waiting on Frankfurter.
+ *
+ * Only DTOs from {@code com.home.test.dto} are written; each entry records its class so it can be
+ * read back with the right type. Writes go to a temp file that is moved over the snapshot, so readers
+ * never see a partial file. A snapshot older than {@code snapshot.max-age-ms} is not loaded, so a long
+ * outage never boots into serving rates from days ago. The same encoding is what replicas exchange
+ * through the shared cache.
+ */
+@Component
+public class SnapshotFileStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotFileStore.class);
+    private static final int FORMAT_VERSION = 1;
+    // Far above a real snapshot; bounds what a pushed or corrupt gzip body can inflate to
+    static final int MAX_DECODED_BYTES = 16 * 1024 * 1024;
+    private static final String DTO_PACKAGE = "com.home.test.dto.";
+
+    // Plain mapper on purpose: the web mapper rounds small doubles for display
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final Path path;
+    // null when any age may be restored
+    private final Duration maxAge;
+    private final Clock clock;
+
+    @Autowired
+    public SnapshotFileStore(SnapshotProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    SnapshotFileStore(SnapshotProperties properties, Clock clock) {
+        this.enabled = properties.isEnabled();
+        this.path = Path.of(properties.getPath());
+        this.maxAge = properties.getMaxAgeMs() > 0 ? Duration.ofMillis(properties.getMaxAgeMs()) : null;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Write a snapshot of the given resources. Failures are logged and otherwise ignored.
+     */
+    public void save(Map<String, Object> resources) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            byte[] snapshot = encode(resources);
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, snapshot);
+                move(temp);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            logger.debug("Saved data snapshot with {} to {}", resources.keySet(), path);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to save data snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Read the last snapshot. Returns an empty map when disabled, missing, unreadable or older than the max age.
+     */
+    public Map<String, Object> load() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return decode(Files.readAllBytes(path), path.toString(), maxAge);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable data snapshot {}: {}", path, e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+
+    /**
+     * Gzipped JSON snapshot of the DTO resources, whether or not file snapshots are enabled.
+     */
+    public byte[] encode(Map<String, Object> resources) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("version", FORMAT_VERSION);
+        root.put("savedAt", clock.instant().toString());
+        ObjectNode entries = root.putObject("resources");
+        resources.forEach((resourceType, data) -> {
+            if (data != null && data.getClass().getName().startsWith(DTO_PACKAGE)) {
+                ObjectNode entry = entries.putObject(resourceType);
+                entry.put("type", data.getClass().getName());
+                entry.set("data", objectMapper.valueToTree(data));
+            }
+        });
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode data snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Read a snapshot produced by {@link #encode}. Returns an empty map when it is unreadable or inflates to more
+     * than {@link #MAX_DECODED_BYTES}.
+     */
+    public Map<String, Object> decode(byte[] snapshot) {
+        return decode(snapshot, "shared snapshot", null);
+    }
+
+    private Map<String, Object> decode(byte[] snapshot, String source, Duration maxAge) {
+        Map<String, Object> resources = new LinkedHashMap<>();
+        try {
+            byte[] json;
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot))) {
+                json = in.readNBytes(MAX_DECODED_BYTES + 1);
+            }
+            if (json.length > MAX_DECODED_BYTES) {
+                logger.warn("Ignoring data snapshot {} larger than {} bytes", source, MAX_DECODED_BYTES);
+                return resources;
+            }
+            JsonNode root = objectMapper.readTree(json);
+            if (root.path("version").asInt() != FORMAT_VERSION) {
+                logger.warn("Ignoring data snapshot {} with unsupported version {}", source, root.path("version"));
+                return resources;
+            }
+            if (maxAge != null) {
+                Instant savedAt = Instant.parse(root.path("savedAt").asText());
+                if (savedAt.plus(maxAge).isBefore(clock.instant())) {
+                    logger.warn("Ignoring data snapshot {} saved at {}, older than {}", source, savedAt, maxAge);
+                    return resources;
+                }
+            }
+
+            for (Map.Entry<String, JsonNode> entry : root.path("resources").properties()) {
+                String type = entry.getValue().path("type").asText();
+                if (!type.startsWith(DTO_PACKAGE)) {
+                    continue;
+                }
+                Class<?> clazz = Class.forName(type);
+                resources.put(entry.getKey(), objectMapper.treeToValue(entry.getValue().get("data"), clazz));
+            }
+            logger.info("Loaded data snapshot saved at {} with {}", root.path("savedAt").asText(), resources.keySet());
+            return resources;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            logger.warn("Ignoring unreadable data snapshot {}: {}", source, e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+
+    private void move(Path temp) throws IOException {
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.home.test.service;
+
+import com.home.test.config.GithubProperties;
+import com.home.test.config.SpreadProperties;
+import com.home.test.dto.SpreadQuote;
+import com.home.test.util.CurrencyRegistry;
+import com.home.test.util.FixedPoint;
+import com.home.test.util.SpreadFactorCalculator;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Precomputes buy/sell quotes in IDR for every currency and customer tier.
+ * Called once per rates refresh, so serving spread-adjusted quotes needs no per-request arithmetic.
+ * Each quote also carries its exact settlement amount, computed with {@link FixedPoint}.
+ */
+@Service
+public class SpreadEngine {
+
+    public static final String DEFAULT_TIER = "standard";
+    private static final int IDR_DECIMALS = CurrencyRegistry.iso(CurrencyRegistry.IDR).getDecimalPlaces();
+
+    private final SpreadProperties spreadProperties;
+    private final GithubProperties githubProperties;
+    private final SpreadFactorCalculator spreadFactorCalculator;
+
+    public SpreadEngine(SpreadProperties spreadProperties, GithubProperties githubProperties,
+                        SpreadFactorCalculator spreadFactorCalculator) {
+        this.spreadProperties = spreadProperties;
+        this.githubProperties = githubProperties;
+        this.spreadFactorCalculator = spreadFactorCalculator;
+    }
+
+    /**
+     * Build the full quote table: tier -> currency -> {buy, sell}, from IDR-based rates.
+     * Rates are gathered into arrays in {@link CurrencyRegistry} ordinal order; codes outside the bundled dataset
+     * are registered first, so only malformed codes (or new ones once the registry is full) are skipped.
+     */
+    public Map<String, Map<String, SpreadQuote>> buildTable(Map<String, Double> idrRates) {
+        Map<String, SpreadProperties.Tier> tiers = spreadProperties.getTiers().isEmpty()
+                ? Map.of(DEFAULT_TIER, new SpreadProperties.Tier())
+                : spreadProperties.getTiers();
+
+        double personalFactor = spreadFactorCalculator.calculateSpreadFactor(githubProperties.getUsername());
+        double defaultBuy = spreadProperties.getDefaultBuy() != null ? spreadProperties.getDefaultBuy() : personalFactor;
+        double defaultSell = spreadProperties.getDefaultSell() != null ? spreadProperties.getDefaultSell() : personalFactor;
+
+        idrRates.forEach((code, rate) -> {
+            if (rate != null && rate != 0) {
+                CurrencyRegistry.register(code);
+            }
+        });
+        int known = CurrencyRegistry.size();
+        int[] ordinals = new int[known];
+        double[] presentRates = new double[known];
+        int count = 0;
+        for (int ordinal = 0; ordinal < known; ordinal++) {
+            Double rate = idrRates.get(CurrencyRegistry.code(ordinal));
+            if (rate != null && rate != 0) {
+                ordinals[count] = ordinal;
+                presentRates[count++] = rate;
+            }
+        }
+        double[] rates = Arrays.copyOf(presentRates, count);
+        String[] currencies = new String[count];
+        for (int i = 0; i < count; i++) {
+            currencies[i] = CurrencyRegistry.code(ordinals[i]);
+        }
+
+        double[] buySpreads = new double[currencies.length];
+        double[] sellSpreads = new double[currencies.length];
+        double[] buyQuotes = new double[currencies.length];
+        double[] sellQuotes = new double[currencies.length];
+
+        Map<String, Map<String, SpreadQuote>> table = new LinkedHashMap<>();
+        tiers.forEach((tierName, tier) -> {
+            for (int i = 0; i < currencies.length; i++) {
+                buySpreads[i] = resolveSpread(tier, currencies[i], defaultBuy, true);
+                sellSpreads[i] = resolveSpread(tier, currencies[i], defaultSell, false);
+            }
+            spreadFactorCalculator.calculateBuySpreadIdr(rates, buySpreads, buyQuotes);
+            spreadFactorCalculator.calculateSellSpreadIdr(rates, sellSpreads, sellQuotes);
+
+            Map<String, SpreadQuote> quotes = new LinkedHashMap<>();
+            for (int i = 0; i < currencies.length; i++) {
+                quotes.put(currencies[i], new SpreadQuote(buyQuotes[i], sellQuotes[i],
+                        settlement(buyQuotes[i]), settlement(sellQuotes[i])));
+            }
+            table.put(tierName, Collections.unmodifiableMap(quotes));
+        });
+        return Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * A quote as an exact amount in IDR minor units, rounded half-even at IDR's decimal places, or {@code null}
+     * if it is outside the fixed-point range.
+     */
+    static Long settlement(double quote) {
+        try {
+            return FixedPoint.convert(1, 0, FixedPoint.toScaled(quote), IDR_DECIMALS, RoundingMode.HALF_EVEN);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tier-specific override first, then the currency override scaled by the tier multiplier, then the default.
+     */
+    private double resolveSpread(SpreadProperties.Tier tier, String currency, double defaultSpread, boolean buy) {
+        Double tierSpread = pick(tier.getCurrencies().get(currency), buy);
+        if (tierSpread != null) {
+            return tierSpread;
+        }
+        Double currencySpread = pick(spreadProperties.getCurrencies().get(currency), buy);
+        return (currencySpread != null ? currencySpread : defaultSpread) * tier.getMultiplier();
+    }
+
+    private static Double pick(SpreadProperties.Spread spread, boolean buy) {
+        if (spread == null) {
+            return null;
+        }
+        return buy ? spread.getBuy() : spread.getSell();
+    }
+}
@@ -2,7 +2,33 @@ package com.home.test.strategy;
 
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Set;
+
 public interface IDRDataFetcher<T> {
+    Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
     Mono<T> fetchData();
     String getResourceType();
-}
\ No newline at end of file
+
+    /**
+     * Resource types that must finish loading (successfully or via fallback) before this fetcher starts.
+     */
+    default Set<String> getDependencies() {
+        return Set.of();
+    }
+
+    /**
+     * Upper bound for {@link #fetchData()} during initialization.
+     */
+    default Duration getTimeout() {
+        return DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * Data to store when the fetch fails or times out. Empty leaves the resource unavailable.
+     */
+    default Mono<T> fallback(Throwable error) {
+        return Mono.empty();
+    }
+}
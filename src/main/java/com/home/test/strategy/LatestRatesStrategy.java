@@ -3,6 +3,7 @@ package com.home.test.strategy;
 import com.home.test.config.GithubProperties;
 import com.home.test.dto.FrankfurterLatestResponse;
 import com.home.test.dto.LatestRatesResponse;
+import com.home.test.service.SpreadEngine;
 import com.home.test.util.SpreadFactorCalculator;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -17,12 +18,14 @@ public class LatestRatesStrategy implements IDRDataFetcher<LatestRatesResponse>
     private final WebClient webClient;
     private final GithubProperties githubProperties;
     private final SpreadFactorCalculator spreadFactorCalculator;
+    private final SpreadEngine spreadEngine;
 
     public LatestRatesStrategy(WebClient webClient, GithubProperties githubProperties,
-                               SpreadFactorCalculator spreadFactorCalculator) {
+                               SpreadFactorCalculator spreadFactorCalculator, SpreadEngine spreadEngine) {
         this.webClient = webClient;
         this.githubProperties = githubProperties;
         this.spreadFactorCalculator = spreadFactorCalculator;
+        this.spreadEngine = spreadEngine;
     }
 
     @Override
@@ -46,6 +49,7 @@ public class LatestRatesStrategy implements IDRDataFetcher<LatestRatesResponse>
         Double usdBuySpreadIdr = null;
 
         if (usdRate != null) {
+            // Unrounded, in the same double arithmetic as the spread table
             usdBuySpreadIdr = spreadFactorCalculator.calculateUSDBuySpreadIdr(usdRate, spreadFactor);
         }
 
@@ -53,7 +57,8 @@ public class LatestRatesStrategy implements IDRDataFetcher<LatestRatesResponse>
                 response.getBase(),
                 response.getDate(),
                 response.getRates(),
-                usdBuySpreadIdr
+                usdBuySpreadIdr,
+                spreadEngine.buildTable(response.getRates())
         );
     }
 }
\ No newline at end of file
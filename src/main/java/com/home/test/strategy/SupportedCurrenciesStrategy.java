@@ -6,7 +6,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
 import java.util.Map;
 
 @Component
@@ -36,9 +35,8 @@ public class SupportedCurrenciesStrategy implements IDRDataFetcher<CurrencyRespo
     }
 
     private CurrencyResponse transformResponse(Map<String, Object> currenciesMap) {
-        List<String> currencies = currenciesMap.keySet().stream().toList();
-        // Get enriched currencies from metadata service
-        List<String> sortedCurrencies = currencyMetadataService.getSupportedCurrencyCodes();
-        return new CurrencyResponse(sortedCurrencies);
+        // Merge the fetched codes with the bundled ISO dataset, then serve the refreshed supported set
+        currencyMetadataService.refreshCatalog(currenciesMap);
+        return new CurrencyResponse(currencyMetadataService.getSupportedCurrencyCodes());
     }
-}
\ No newline at end of file
+}
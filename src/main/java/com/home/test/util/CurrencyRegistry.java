@@ -0,0 +1,246 @@
+package com.home.test.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Canonical set of known currency codes, each with a small dense ordinal and its bundled ISO 4217
+ * reference data ({@code currencies/iso4217.txt} on the classpath).
+ *
+ * Codes are resolved to ordinals once at the API edge; metadata, rates and spreads are then kept in
+ * arrays of {@link #CAPACITY} indexed by ordinal instead of {@code Map<String, ...>}. The bundled codes
+ * take the first {@link #DATASET_SIZE} ordinals in alphabetical order; codes Frankfurter serves beyond the
+ * dataset are {@linkplain #register registered} as they are seen and get the next free ordinals. Ordinals
+ * are stable for the life of the process but differ between processes, so they are never persisted or
+ * shared. Resolution is a direct lookup in a table indexed by the base-26 value of the code, so it
+ * neither hashes nor allocates.
+ */
+public final class CurrencyRegistry {
+
+    static final String DATASET = "/currencies/iso4217.txt";
+
+    /** Ordinals kept free for upstream codes outside the dataset. */
+    static final int MAX_REGISTERED = 64;
+
+    private static final IsoCurrency[] DATASET_CURRENCIES = loadDataset();
+
+    /** Number of codes in the bundled dataset; they hold ordinals {@code 0 .. DATASET_SIZE - 1}. */
+    public static final int DATASET_SIZE = DATASET_CURRENCIES.length;
+
+    /** Length of ordinal-indexed arrays: every ordinal this process can ever hand out is below it. */
+    public static final int CAPACITY = DATASET_SIZE + MAX_REGISTERED;
+
+    private static final IsoCurrency[] CURRENCIES = Arrays.copyOf(DATASET_CURRENCIES, CAPACITY);
+
+    /** Ordinal + 1 per base-26 code index; 0 means unknown. */
+    private static final short[] ORDINAL_BY_INDEX = new short[26 * 26 * 26];
+
+    // Ordinals below this are fully published; written after the tables above, under the class lock
+    private static volatile int size;
+
+    static {
+        for (int ordinal = 0; ordinal < DATASET_SIZE; ordinal++) {
+            int index = RequestValidator.codeIndex(CURRENCIES[ordinal].getCode());
+            if (index < 0 || ORDINAL_BY_INDEX[index] != 0) {
+                throw new IllegalStateException("Invalid or duplicate currency code in " + DATASET + ": "
+                        + CURRENCIES[ordinal].getCode());
+            }
+            ORDINAL_BY_INDEX[index] = (short) (ordinal + 1);
+        }
+        size = DATASET_SIZE;
+    }
+
+    public static final int IDR = ordinal("IDR");
+    public static final int USD = ordinal("USD");
+
+    private CurrencyRegistry() {
+    }
+
+    /**
+     * Ordinal of an upper-case code, or {@code -1} if it is null, malformed or unknown.
+     */
+    public static int ordinal(String code) {
+        int index = RequestValidator.codeIndex(code);
+        return index < 0 ? -1 : published(ORDINAL_BY_INDEX[index] - 1);
+    }
+
+    /**
+     * Ordinal of an upper-case code, registering it if it is well-formed but not known yet. Returns {@code -1}
+     * if it is malformed or every spare ordinal is taken.
+     */
+    public static int register(String code) {
+        int ordinal = ordinal(code);
+        if (ordinal >= 0 || RequestValidator.codeIndex(code) < 0) {
+            return ordinal;
+        }
+        synchronized (CurrencyRegistry.class) {
+            int index = RequestValidator.codeIndex(code);
+            if (ORDINAL_BY_INDEX[index] != 0) {
+                return ORDINAL_BY_INDEX[index] - 1;
+            }
+            int next = size;
+            if (next == CAPACITY) {
+                return -1;
+            }
+            CURRENCIES[next] = new IsoCurrency(code.intern(), 2, code, "", "Unknown", "XX");
+            ORDINAL_BY_INDEX[index] = (short) (next + 1);
+            size = next + 1;
+            return next;
+        }
+    }
+
+    /**
+     * Number of ordinals handed out so far: the dataset plus every registered code.
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * Whether the ordinal belongs to a code from the bundled dataset rather than a registered one.
+     */
+    public static boolean isDatasetOrdinal(int ordinal) {
+        return ordinal < DATASET_SIZE;
+    }
+
+    /**
+     * Ordinal of a code in any letter case, or {@code -1} if it is malformed or unknown.
+     * Case is folded per character, so no upper-cased copy of the code is created.
+     */
+    public static int ordinalIgnoreCase(String code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        int a = letter(code.charAt(0));
+        int b = letter(code.charAt(1));
+        int c = letter(code.charAt(2));
+        if ((a | b | c) < 0) {
+            return -1;
+        }
+        return published(ORDINAL_BY_INDEX[(a * 26 + b) * 26 + c] - 1);
+    }
+
+    /**
+     * The canonical code instance for an ordinal.
+     */
+    public static String code(int ordinal) {
+        return CURRENCIES[ordinal].getCode();
+    }
+
+    /**
+     * Bundled ISO 4217 reference data for an ordinal; a registered code gets placeholder data named after the code.
+     */
+    public static IsoCurrency iso(int ordinal) {
+        return CURRENCIES[ordinal];
+    }
+
+    /**
+     * All known codes, in ordinal order: the dataset alphabetically, then registered codes as they were seen.
+     */
+    public static List<String> codes() {
+        int known = size;
+        String[] codes = new String[known];
+        for (int i = 0; i < known; i++) {
+            codes[i] = CURRENCIES[i].getCode();
+        }
+        return List.of(codes);
+    }
+
+    // A table entry written by a concurrent register() only counts once its ordinal is published
+    private static int published(int ordinal) {
+        return ordinal < size ? ordinal : -1;
+    }
+
+    private static int letter(char ch) {
+        if (ch >= 'A' && ch <= 'Z') {
+            return ch - 'A';
+        }
+        if (ch >= 'a' && ch <= 'z') {
+            return ch - 'a';
+        }
+        return -1;
+    }
+
+    /**
+     * Parse the bundled dataset: one {@code code|minorUnits|name|symbol|country|countryCode} row per line,
+     * {@code #} comments ignored. Rows are sorted by code so ordinals do not depend on file order.
+     */
+    private static IsoCurrency[] loadDataset() {
+        List<IsoCurrency> currencies = new ArrayList<>();
+        try (InputStream in = CurrencyRegistry.class.getResourceAsStream(DATASET)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing bundled currency dataset " + DATASET);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\|", -1);
+                if (fields.length != 6) {
+                    throw new IllegalStateException("Malformed row in " + DATASET + ": " + line);
+                }
+                currencies.add(new IsoCurrency(fields[0].intern(), Integer.parseInt(fields[1]),
+                        fields[2], fields[3], fields[4], fields[5]));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + DATASET, e);
+        }
+        currencies.sort(Comparator.comparing(IsoCurrency::getCode));
+        return currencies.toArray(new IsoCurrency[0]);
+    }
+
+    /**
+     * One row of the bundled ISO 4217 dataset.
+     */
+    public static final class IsoCurrency {
+        private final String code;
+        private final int decimalPlaces;
+        private final String name;
+        private final String symbol;
+        private final String country;
+        private final String countryCode;
+
+        IsoCurrency(String code, int decimalPlaces, String name, String symbol, String country, String countryCode) {
+            this.code = code;
+            this.decimalPlaces = decimalPlaces;
+            this.name = name;
+            this.symbol = symbol;
+            this.country = country;
+            this.countryCode = countryCode;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public int getDecimalPlaces() {
+            return decimalPlaces;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public String getCountry() {
+            return country;
+        }
+
+        public String getCountryCode() {
+            return countryCode;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.home.test.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Streaming parser for Frankfurter time-series bodies
+ * ({@code {"base":..., "rates": {"2025-01-02": {"USD": 0.000061, ...}, ...}}}).
+ *
+ * Each day's rates go straight into a {@code double[]} indexed by {@link CurrencyRegistry} ordinal
+ * ({@code NaN} where a currency is missing), with no intermediate DTO, boxed {@code Double} or per-day map.
+ * Currency keys are resolved from Jackson's canonicalized field names, so repeated keys allocate nothing.
+ */
+public final class DailyRatesParser {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+            .build();
+
+    private DailyRatesParser() {
+    }
+
+    /**
+     * Parse the {@code rates} object of a time-series body into date -> ordinal-indexed rates.
+     * Other top-level fields are skipped; codes outside the bundled dataset are registered, so only malformed
+     * codes (or new ones once the registry is full) are ignored.
+     */
+    public static NavigableMap<String, double[]> parse(InputStream body) throws IOException {
+        NavigableMap<String, double[]> days = new TreeMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("rates".equals(field) && value == JsonToken.START_OBJECT) {
+                    parseDays(parser, days);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return days;
+    }
+
+    private static void parseDays(JsonParser parser, NavigableMap<String, double[]> days) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String date = parser.currentName();
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+            double[] row = new double[CurrencyRegistry.CAPACITY];
+            Arrays.fill(row, Double.NaN);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                int ordinal = CurrencyRegistry.register(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (ordinal >= 0 && (value == JsonToken.VALUE_NUMBER_FLOAT || value == JsonToken.VALUE_NUMBER_INT)) {
+                    row[ordinal] = parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            days.put(date, row);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected " + actual + " (expected " + expected + ") at "
+                    + parser.currentLocation());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.home.test.util;
+
+/**
+ * Fixed-precision decimal formatting of doubles into a caller-supplied {@code char[]}, without
+ * {@link java.util.Formatter}, intermediate Strings or locale lookups.
+ *
+ * The output matches {@code String.format(Locale.ROOT, "%.<scale>f", value)}: Formatter rounds the shortest
+ * decimal representation of the double HALF_UP. The value is scaled to a long and the rounding decision is
+ * made by comparing against the double nearest to the halfway point {@code (2n + 1) / (2 * 10^scale)}.
+ * IEEE division rounds that quotient correctly, so the comparison is exact, and a halfway decimal this
+ * short is always its own shortest representation, so ties round up just as Formatter does.
+ */
+public final class FixedDecimal {
+
+    /** Largest scaled magnitude for which the halfway numerator stays an exact double. */
+    private static final double MAX_SCALED = 1e15;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private FixedDecimal() {
+    }
+
+    /**
+     * Whether {@link #format} supports {@code value} at {@code scale}.
+     */
+    public static boolean isSupported(double value, int scale) {
+        return scale >= 0 && scale < POWERS_OF_TEN.length && value >= 0 && value * POWERS_OF_TEN[scale] < MAX_SCALED;
+    }
+
+    /**
+     * Write {@code value} with exactly {@code scale} fractional digits into {@code dest} at {@code offset}.
+     * Requires {@link #isSupported}; needs at most 17 chars of space. Returns the number of chars written.
+     */
+    public static int format(double value, int scale, char[] dest, int offset) {
+        if (!isSupported(value, scale)) {
+            throw new IllegalArgumentException("Unsupported value for fixed-point formatting: " + value);
+        }
+        long scaled = roundHalfUp(value, POWERS_OF_TEN[scale]);
+        long unit = (long) POWERS_OF_TEN[scale];
+        long integerPart = scaled / unit;
+        long fraction = scaled - integerPart * unit;
+
+        int pos = offset + writeDigits(integerPart, dest, offset);
+        if (scale > 0) {
+            dest[pos++] = '.';
+            for (int i = pos + scale - 1; i >= pos; i--) {
+                dest[i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            pos += scale;
+        }
+        return pos - offset;
+    }
+
+    /**
+     * Round {@code value * factor} HALF_UP on the value's shortest decimal representation.
+     */
+    static long roundHalfUp(double value, double factor) {
+        long candidate = (long) (value * factor + 0.5);
+        // The scaled product may be off by an ulp; correct with exact halfway comparisons in either direction
+        if (candidate > 0 && value < (2 * candidate - 1) / (2 * factor)) {
+            candidate--;
+        } else if (value >= (2 * candidate + 1) / (2 * factor)) {
+            candidate++;
+        }
+        return candidate;
+    }
+
+    private static int writeDigits(long value, char[] dest, int offset) {
+        int length = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            length++;
+        }
+        for (int i = offset + length - 1; i >= offset; i--) {
+            dest[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return length;
+    }
+}
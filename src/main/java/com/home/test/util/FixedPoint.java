@@ -0,0 +1,178 @@
+package com.home.test.util;
+
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free fixed-point arithmetic for rates and money amounts.
+ *
+ * Rates are carried as {@code long} values scaled by {@link #SCALE} (12 decimal digits), amounts
+ * as {@code long} minor units of their currency (for example cents for USD, whole rupiah for IDR).
+ * Intermediate products are kept in 128 bits, so results are exact up to the final rounding step.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE_DIGITS = 12;
+    public static final long SCALE = 1_000_000_000_000L;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Convert a double rate (as parsed from an upstream decimal) to its scaled representation.
+     */
+    public static long toScaled(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= Long.MAX_VALUE / (double) SCALE) {
+            throw new ArithmeticException("Rate out of fixed-point range: " + value);
+        }
+        return Math.round(value * SCALE);
+    }
+
+    /**
+     * Convert an amount in minor units back to a double, e.g. 1575732 with 2 decimal places to 15757.32.
+     * The result is the double nearest to the exact decimal value.
+     */
+    public static double toDouble(long minorUnits, int decimalPlaces) {
+        return minorUnits / (double) pow10(decimalPlaces);
+    }
+
+    public static long pow10(int exponent) {
+        if (exponent < 0 || exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Unsupported power of ten: " + exponent);
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Convert an amount between currencies: {@code amount * rate}, rounded to the target currency's decimal places.
+     *
+     * @param amountMinor  amount in minor units of the source currency
+     * @param fromDecimals decimal places of the source currency
+     * @param rateScaled   units of target currency per unit of source currency, scaled by {@link #SCALE}
+     * @param toDecimals   decimal places of the target currency
+     */
+    public static long convert(long amountMinor, int fromDecimals, long rateScaled, int toDecimals, RoundingMode mode) {
+        int exponent = SCALE_DIGITS + fromDecimals - toDecimals;
+        if (exponent >= 0) {
+            return multiplyDivide(amountMinor, rateScaled, pow10(exponent), mode);
+        }
+        return multiplyDivide(Math.multiplyExact(amountMinor, pow10(-exponent)), rateScaled, 1L, mode);
+    }
+
+    /**
+     * Compute {@code a * b / divisor} with a 128-bit intermediate product and a single rounding step.
+     */
+    public static long multiplyDivide(long a, long b, long divisor, RoundingMode mode) {
+        if (divisor <= 0) {
+            throw new ArithmeticException("Divisor must be positive: " + divisor);
+        }
+        if (a == Long.MIN_VALUE || b == Long.MIN_VALUE) {
+            throw new ArithmeticException("Fixed-point overflow");
+        }
+        boolean negative = (a < 0) != (b < 0) && a != 0 && b != 0;
+        long x = Math.abs(a);
+        long y = Math.abs(b);
+        RoundingMode magnitudeMode = negative ? mirror(mode) : mode;
+
+        long high = Math.multiplyHigh(x, y);
+        long low = x * y;
+        long quotient;
+        long remainder;
+
+        if (high == 0 && low >= 0) {
+            quotient = low / divisor;
+            remainder = low - quotient * divisor;
+        } else {
+            if (high >= divisor) {
+                throw new ArithmeticException("Fixed-point overflow");
+            }
+            quotient = divideUnsigned128(high, low, divisor);
+            remainder = low - quotient * divisor;
+            if (quotient < 0) {
+                throw new ArithmeticException("Fixed-point overflow");
+            }
+        }
+
+        long rounded = round(quotient, remainder, divisor, magnitudeMode);
+        return negative ? -rounded : rounded;
+    }
+
+    /**
+     * Divide {@code dividend / divisor} rounding with the given mode.
+     */
+    public static long divide(long dividend, long divisor, RoundingMode mode) {
+        return multiplyDivide(dividend, 1L, divisor, mode);
+    }
+
+    /**
+     * Unsigned 128-by-64 bit division (Hacker's Delight "divlu") using two 64-by-32 bit digit steps.
+     * Requires {@code high < divisor}; the caller derives the remainder from the low word.
+     */
+    private static long divideUnsigned128(long high, long low, long divisor) {
+        final long base = 1L << 32;
+        final long mask = base - 1;
+
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << shift;
+        long vHigh = v >>> 32;
+        long vLow = v & mask;
+
+        long u32 = shift == 0 ? high : (high << shift) | (low >>> (64 - shift));
+        long u10 = low << shift;
+        long u1 = u10 >>> 32;
+        long u0 = u10 & mask;
+
+        long q1 = Long.divideUnsigned(u32, vHigh);
+        long rhat = u32 - q1 * vHigh;
+        while (q1 >= base || Long.compareUnsigned(q1 * vLow, (rhat << 32) + u1) > 0) {
+            q1--;
+            rhat += vHigh;
+            if (rhat >= base) {
+                break;
+            }
+        }
+
+        long u21 = (u32 << 32) + u1 - q1 * v;
+        long q0 = Long.divideUnsigned(u21, vHigh);
+        rhat = u21 - q0 * vHigh;
+        while (q0 >= base || Long.compareUnsigned(q0 * vLow, (rhat << 32) + u0) > 0) {
+            q0--;
+            rhat += vHigh;
+            if (rhat >= base) {
+                break;
+            }
+        }
+
+        return (q1 << 32) + q0;
+    }
+
+    private static long round(long quotient, long remainder, long divisor, RoundingMode mode) {
+        if (remainder == 0) {
+            return quotient;
+        }
+        long half = divisor - remainder;
+        return switch (mode) {
+            case DOWN, FLOOR -> quotient;
+            case UP, CEILING -> Math.incrementExact(quotient);
+            case HALF_UP -> remainder >= half ? Math.incrementExact(quotient) : quotient;
+            case HALF_DOWN -> remainder > half ? Math.incrementExact(quotient) : quotient;
+            case HALF_EVEN -> remainder > half || (remainder == half && (quotient & 1L) == 1L)
+                    ? Math.incrementExact(quotient) : quotient;
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+    }
+
+    private static RoundingMode mirror(RoundingMode mode) {
+        return switch (mode) {
+            case FLOOR -> RoundingMode.CEILING;
+            case CEILING -> RoundingMode.FLOOR;
+            default -> mode;
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.home.test.util;
+
+import java.util.Collection;
+
+/**
+ * Allocation-free validation of request parameters.
+ *
+ * Currency codes are looked up in a bitmap indexed by the base-26 value of their three letters, a
+ * collision-free (perfect) hash over all 17,576 possible codes, so a check is three character reads and
+ * one bit test. Dates are parsed with a fixed-width {@code yyyy-MM-dd} parser that rejects bad input by
+ * returning {@code false} rather than by throwing, so garbage costs no more than valid traffic.
+ */
+public final class RequestValidator {
+
+    private static final int CODE_SPACE = 26 * 26 * 26;
+    private static final int[] DAYS_IN_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private final long[] supportedCodes = new long[(CODE_SPACE + 63) >>> 6];
+
+    public RequestValidator(Collection<String> supportedCurrencyCodes) {
+        for (String code : supportedCurrencyCodes) {
+            int index = codeIndex(code);
+            if (index < 0) {
+                throw new IllegalArgumentException("Not a 3-letter upper-case currency code: " + code);
+            }
+            supportedCodes[index >>> 6] |= 1L << index;
+        }
+    }
+
+    /**
+     * Check that {@code code} is three upper-case ASCII letters naming a supported currency.
+     */
+    public boolean isSupportedCurrencyCode(String code) {
+        int index = codeIndex(code);
+        return index >= 0 && (supportedCodes[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Check that {@code date} is a real calendar date in ISO {@code yyyy-MM-dd} form, accepting exactly
+     * what {@link java.time.LocalDate#parse(CharSequence)} accepts for four-digit years.
+     */
+    public static boolean isIsoDate(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return false;
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        if (month == 2 && isLeapYear(year)) {
+            return day <= 29;
+        }
+        return day <= DAYS_IN_MONTH[month];
+    }
+
+    /**
+     * Base-26 index of a three-letter upper-case code, or {@code -1} if it is not one.
+     */
+    static int codeIndex(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int a = code.charAt(0) - 'A';
+        int b = code.charAt(1) - 'A';
+        int c = code.charAt(2) - 'A';
+        // Any out-of-range letter makes its offset negative or >= 26; OR-ing catches all cases in one test
+        if ((a | b | c | (25 - a) | (25 - b) | (25 - c)) < 0) {
+            return -1;
+        }
+        return (a * 26 + b) * 26 + c;
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+}
@@ -2,9 +2,16 @@ package com.home.test.util;
 
 import org.springframework.stereotype.Component;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
 @Component
 public class SpreadFactorCalculator {
 
+    // VectorSpreadKernel is compiled on its own with the incubator module, so it is only linked when that module is present
+    private static final MethodHandle VECTOR_KERNEL = vectorKernel();
+
     public double calculateSpreadFactor(String githubUsername) {
         if (githubUsername == null || githubUsername.isEmpty()) {
             return 0.0;
@@ -21,9 +28,80 @@ public class SpreadFactorCalculator {
     }
 
     public double calculateUSDBuySpreadIdr(double usdRate, double spreadFactor) {
-        if (usdRate == 0) {
+        return calculateBuySpreadIdr(usdRate, spreadFactor);
+    }
+
+    /**
+     * IDR paid per unit of a currency when the customer buys it: (1 / rate) * (1 + spread).
+     */
+    public double calculateBuySpreadIdr(double rate, double spread) {
+        if (rate == 0) {
             return 0.0;
         }
-        return (1.0 / usdRate) * (1.0 + spreadFactor);
+        return (1.0 / rate) * (1.0 + spread);
+    }
+
+    /**
+     * IDR received per unit of a currency when the customer sells it: (1 / rate) * (1 - spread).
+     */
+    public double calculateSellSpreadIdr(double rate, double spread) {
+        if (rate == 0) {
+            return 0.0;
+        }
+        return (1.0 / rate) * (1.0 - spread);
+    }
+
+    /**
+     * Batch form of {@link #calculateBuySpreadIdr(double, double)}: {@code out[i] = (1 / rates[i]) * (1 + spreads[i])}.
+     * Uses the Vector API when the JVM runs with {@code --add-modules jdk.incubator.vector}, a scalar loop otherwise;
+     * both produce bit-identical results.
+     */
+    public void calculateBuySpreadIdr(double[] rates, double[] spreads, double[] out) {
+        calculateSpreadIdr(rates, spreads, out, true);
+    }
+
+    /**
+     * Batch form of {@link #calculateSellSpreadIdr(double, double)}: {@code out[i] = (1 / rates[i]) * (1 - spreads[i])}.
+     */
+    public void calculateSellSpreadIdr(double[] rates, double[] spreads, double[] out) {
+        calculateSpreadIdr(rates, spreads, out, false);
+    }
+
+    public boolean isVectorized() {
+        return VECTOR_KERNEL != null;
+    }
+
+    private void calculateSpreadIdr(double[] rates, double[] spreads, double[] out, boolean buy) {
+        if (spreads.length != rates.length || out.length != rates.length) {
+            throw new IllegalArgumentException("rates, spreads and out must have the same length");
+        }
+        if (VECTOR_KERNEL != null) {
+            try {
+                VECTOR_KERNEL.invokeExact(rates, spreads, out, buy);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Vector spread kernel failed", e);
+            }
+        } else {
+            calculateSpreadIdrScalar(rates, spreads, out, buy);
+        }
+    }
+
+    static void calculateSpreadIdrScalar(double[] rates, double[] spreads, double[] out, boolean buy) {
+        for (int i = 0; i < rates.length; i++) {
+            double rate = rates[i];
+            out[i] = rate == 0 ? 0.0 : (1.0 / rate) * (buy ? 1.0 + spreads[i] : 1.0 - spreads[i]);
+        }
+    }
+
+    private static MethodHandle vectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().findStatic(Class.forName("com.home.test.util.VectorSpreadKernel"), "apply",
+                    MethodType.methodType(void.class, double[].class, double[].class, double[].class, boolean.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
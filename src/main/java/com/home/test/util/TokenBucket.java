@@ -0,0 +1,45 @@
+package com.home.test.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The whole bucket state is a single "theoretical arrival time" (the GCRA
+ * formulation of a token bucket), so acquiring a token is one compare-and-set with no lock and no
+ * refill thread. Time is passed in by the caller as {@link System#nanoTime()} readings.
+ */
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param tokensPerSecond sustained rate
+     * @param capacity        maximum burst; the bucket starts full
+     */
+    public TokenBucket(double tokensPerSecond, int capacity, long nowNanos) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
+        }
+        this.nanosPerToken = Math.max(1L, Math.round(1_000_000_000L / tokensPerSecond));
+        this.burstNanos = Math.multiplyExact(nanosPerToken, (long) capacity);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token. Returns {@code 0} on success, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
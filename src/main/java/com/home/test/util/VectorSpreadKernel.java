@@ -0,0 +1,39 @@
+package com.home.test.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernel for {@code (1 / rate) * (1 +/- spread)} over whole rate arrays.
+ * Only loaded when the {@code jdk.incubator.vector} module is present; see {@link SpreadFactorCalculator}.
+ */
+final class VectorSpreadKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorSpreadKernel() {
+    }
+
+    static void apply(double[] rates, double[] spreads, double[] out, boolean buy) {
+        int length = rates.length;
+        int bound = SPECIES.loopBound(length);
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector rate = DoubleVector.fromArray(SPECIES, rates, i);
+            DoubleVector spread = DoubleVector.fromArray(SPECIES, spreads, i);
+            DoubleVector factor = buy ? one.add(spread) : one.sub(spread);
+            VectorMask<Double> zeroRate = rate.compare(VectorOperators.EQ, 0.0);
+
+            one.div(rate).mul(factor).blend(0.0, zeroRate).intoArray(out, i);
+        }
+
+        for (; i < length; i++) {
+            double rate = rates[i];
+            out[i] = rate == 0 ? 0.0 : (1.0 / rate) * (buy ? 1.0 + spreads[i] : 1.0 - spreads[i]);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.home.test.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The packaged application running in a child JVM against {@link FrankfurterStub}, for the
+ * process-level harnesses ({@link StartupBenchmark}, {@link LoadBenchmark}).
+ */
+final class AppProcess implements AutoCloseable {
+
+    static final String HEALTH_PATH = "/api/finance/data/health";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private final Process process;
+    private final int port;
+
+    private AppProcess(Process process, int port) {
+        this.process = process;
+        this.port = port;
+    }
+
+    static AppProcess launch(Path jar, List<String> jvmArgs, FrankfurterStub stub,
+                             ProcessBuilder.Redirect output) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Application jar not found: " + jar);
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(List.of("--add-modules", "jdk.incubator.vector", "-jar", jar.toString(),
+                "--server.port=" + port,
+                "--frankfurter.api.base-url=" + stub.baseUrl(),
+                // Measure the live load, not a warm start from a previous run's snapshot
+                "--snapshot.enabled=false",
+                // All harness traffic comes from one address
+                "--rate-limit.enabled=false"));
+        Process process = new ProcessBuilder(command)
+                .directory(jar.toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(output)
+                .start();
+        return new AppProcess(process, port);
+    }
+
+    /**
+     * Milliseconds from process launch until {@code /health} first reports an initialized store.
+     */
+    long awaitReady() throws IOException, InterruptedException {
+        long started = process.info().startInstant().map(instant -> instant.toEpochMilli()).orElse(System.currentTimeMillis());
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + " before becoming ready");
+            }
+            try {
+                HttpResponse<String> response = get(HEALTH_PATH);
+                if (response.statusCode() == 200 && response.body().contains("\"initialized\":true")) {
+                    return System.currentTimeMillis() - started;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application not ready within " + STARTUP_TIMEOUT);
+    }
+
+    HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+
+    /**
+     * Resident set size and thread count of the child JVM from {@code /proc}; {@code -1} where unavailable.
+     */
+    long[] residentKbAndThreads() {
+        long rss = -1;
+        long threads = -1;
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    rss = Long.parseLong(line.replaceAll("\\D", ""));
+                } else if (line.startsWith("Threads:")) {
+                    threads = Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not on Linux or the process has exited
+        }
+        return new long[]{rss, threads};
+    }
+
+    int exitValue() {
+        return process.exitValue();
+    }
+
+    /**
+     * SIGTERM so the JVM runs its normal exit path (and writes the AOT cache during training).
+     */
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(60, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.home.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.home.test.config.JacksonConfig;
+import com.home.test.dto.FrankfurterHistoricalResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a {@code historical/custom} response (30 currencies per day) as JSON, CBOR and Smile
+ * with the application's mappers. Payload sizes are printed once per trial.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BinaryFormatBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"31", "365"})
+    private int days;
+
+    private ObjectMapper mapper;
+    private FrankfurterHistoricalResponse response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "json" -> new JacksonConfig().jackson2ObjectMapperBuilder().build();
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> throw new IllegalArgumentException(format);
+        };
+
+        Random random = new Random(11);
+        Map<String, Map<String, Double>> rates = new LinkedHashMap<>();
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        for (int day = 0; day < days; day++, date = date.plusDays(1)) {
+            Map<String, Double> row = new LinkedHashMap<>();
+            for (int i = 0; i < 30; i++) {
+                row.put("C" + (char) ('A' + i / 26) + (char) ('A' + i % 26), Math.round(random.nextDouble() * 1e5) / 1e10);
+            }
+            rates.put(date.toString(), row);
+        }
+        response = new FrankfurterHistoricalResponse();
+        response.setAmount("1.0");
+        response.setBase("IDR");
+        response.setStartDate("2024-01-01");
+        response.setEndDate(date.minusDays(1).toString());
+        response.setRates(rates);
+
+        encoded = mapper.writeValueAsBytes(response);
+        System.out.printf("%n%s, %d days: %d bytes%n", format, days, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public FrankfurterHistoricalResponse decode() throws IOException {
+        return mapper.readValue(encoded, FrankfurterHistoricalResponse.class);
+    }
+}
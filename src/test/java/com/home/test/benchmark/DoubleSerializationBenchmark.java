@@ -0,0 +1,103 @@
+package com.home.test.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.home.test.config.JacksonConfig;
+import com.home.test.util.FixedDecimal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing IDR-based rates (almost all below 0.001): String.format("%.8f") vs FixedDecimal, per value and for
+ * a whole one-year historical response through the application's ObjectMapper. Run with -prof gc for allocation.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=DoubleSerializationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DoubleSerializationBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final double[] rates = new double[SIZE];
+    private final char[] buffer = new char[32];
+    private final Map<String, Map<String, Double>> historical = new LinkedHashMap<>();
+
+    private ObjectMapper formatterMapper;
+    private ObjectMapper fixedDecimalMapper;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        for (int i = 0; i < SIZE; i++) {
+            rates[i] = Math.round(random.nextDouble() * 1e5) / 1e10;
+        }
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        for (int day = 0; day < 365; day++, date = date.plusDays(1)) {
+            Map<String, Double> row = new LinkedHashMap<>();
+            for (int i = 0; i < 30; i++) {
+                row.put("C" + i, rates[(day * 30 + i) % SIZE]);
+            }
+            historical.put(date.toString(), row);
+        }
+
+        SimpleModule legacy = new SimpleModule();
+        legacy.addSerializer(Double.class, new JsonSerializer<Double>() {
+            @Override
+            public void serialize(Double value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                if (value != null && value < 0.001 && value > 0) {
+                    gen.writeRawValue(String.format("%.8f", value));
+                } else {
+                    gen.writeNumber(value);
+                }
+            }
+        });
+        formatterMapper = new ObjectMapper().registerModule(legacy);
+        fixedDecimalMapper = new JacksonConfig().jackson2ObjectMapperBuilder().build();
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format("%.8f", rates[index++ & (SIZE - 1)]);
+    }
+
+    @Benchmark
+    public int fixedDecimal() {
+        return FixedDecimal.format(rates[index++ & (SIZE - 1)], 8, buffer, 0);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] historicalResponseFormatter() throws IOException {
+        return formatterMapper.writeValueAsBytes(historical);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] historicalResponseFixedDecimal() throws IOException {
+        return fixedDecimalMapper.writeValueAsBytes(historical);
+    }
+}
@@ -0,0 +1,109 @@
+package com.home.test.benchmark;
+
+import com.home.test.util.FixedPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spread and conversion math: double vs scaled-long fixed point vs BigDecimal.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=FixedPointBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FixedPointBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final double[] rates = new double[SIZE];
+    private final long[] scaledRates = new long[SIZE];
+    private final BigDecimal[] decimalRates = new BigDecimal[SIZE];
+    private final long[] amounts = new long[SIZE];
+
+    private final double spreadFactor = 0.00832;
+    private final long scaledSpreadFactor = FixedPoint.toScaled(0.00832);
+    private final BigDecimal decimalSpreadFactor = new BigDecimal("1.00832");
+
+    @Setup
+    public void setUp() {
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < SIZE; i++) {
+            double rate = Math.round((0.00001 + random.nextDouble() * 0.01) * 1e8) / 1e8;
+            rates[i] = rate;
+            scaledRates[i] = FixedPoint.toScaled(rate);
+            decimalRates[i] = BigDecimal.valueOf(rate);
+            amounts[i] = 1_000L + random.nextInt(100_000_000);
+        }
+    }
+
+    @Benchmark
+    public double spreadDouble() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += Math.rint((1.0 / rates[i]) * (1.0 + spreadFactor));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long spreadFixedPoint() {
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += FixedPoint.multiplyDivide(FixedPoint.SCALE + scaledSpreadFactor, 1L, scaledRates[i], RoundingMode.HALF_EVEN);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BigDecimal spreadBigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < SIZE; i++) {
+            sum = sum.add(decimalSpreadFactor.divide(decimalRates[i], MathContext.DECIMAL64).setScale(0, RoundingMode.HALF_EVEN));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double convertDouble() {
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += Math.rint(amounts[i] * rates[i] * 100.0) / 100.0;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long convertFixedPoint() {
+        long sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += FixedPoint.convert(amounts[i], 0, scaledRates[i], 2, RoundingMode.HALF_EVEN);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BigDecimal convertBigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < SIZE; i++) {
+            sum = sum.add(BigDecimal.valueOf(amounts[i]).multiply(decimalRates[i]).setScale(2, RoundingMode.HALF_EVEN));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,105 @@
+package com.home.test.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process stand-in for the Frankfurter API: {@code /latest}, {@code /currencies} and
+ * {@code /{start}..{end}} with fixed IDR-base rates. Used by the startup harness so training and
+ * measurement runs do not depend on the network, and by the cluster tests to count upstream calls.
+ */
+public final class FrankfurterStub implements AutoCloseable {
+
+    private static final Map<String, Double> IDR_RATES = Map.of(
+            "USD", 0.0000612, "EUR", 0.0000563, "JPY", 0.00951, "GBP", 0.0000482,
+            "SGD", 0.0000821, "AUD", 0.0000936, "CNY", 0.000443, "MYR", 0.000271);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    private FrankfurterStub(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static FrankfurterStub start() throws IOException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        FrankfurterStub stub = new FrankfurterStub(server, executor);
+        server.createContext("/", stub::handle);
+        server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Requests received so far for {@code path}.
+     */
+    public int requests(String path) {
+        AtomicInteger count = requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.computeIfAbsent(path, ignored -> new AtomicInteger()).incrementAndGet();
+        String body;
+        if (path.equals("/latest")) {
+            body = "{\"amount\":1.0,\"base\":\"IDR\",\"date\":\"" + LocalDate.now() + "\",\"rates\":" + rates() + "}";
+        } else if (path.equals("/currencies")) {
+            StringJoiner currencies = new StringJoiner(",", "{", "}");
+            currencies.add("\"IDR\":\"Indonesian Rupiah\"");
+            IDR_RATES.keySet().forEach(code -> currencies.add("\"" + code + "\":\"" + code + "\""));
+            body = currencies.toString();
+        } else if (path.contains("..")) {
+            String[] range = path.substring(1).split("\\.\\.");
+            StringJoiner days = new StringJoiner(",", "{", "}");
+            LocalDate end = LocalDate.parse(range[1]);
+            for (LocalDate day = LocalDate.parse(range[0]); !day.isAfter(end); day = day.plusDays(1)) {
+                days.add("\"" + day + "\":" + rates());
+            }
+            body = "{\"amount\":1.0,\"base\":\"IDR\",\"start_date\":\"" + range[0] + "\",\"end_date\":\"" + range[1]
+                    + "\",\"rates\":" + days + "}";
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String rates() {
+        StringJoiner rates = new StringJoiner(",", "{", "}");
+        IDR_RATES.forEach((code, rate) -> rates.add("\"" + code + "\":" + rate));
+        return rates.toString();
+    }
+}
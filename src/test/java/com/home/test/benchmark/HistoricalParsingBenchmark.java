@@ -0,0 +1,100 @@
+package com.home.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.home.test.dto.FrankfurterHistoricalResponse;
+import com.home.test.util.CurrencyRegistry;
+import com.home.test.util.DailyRatesParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a Frankfurter time-series body into the ordinal-indexed series cache:
+ * DTO binding (boxed Map tree) plus conversion vs the streaming DailyRatesParser.
+ * Run with -prof gc to compare allocation per parsed body.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=HistoricalParsingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoricalParsingBenchmark {
+
+    private static final String[] CURRENCIES = {
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP", "HKD", "HUF", "ILS", "INR", "ISK",
+            "JPY", "KRW", "MXN", "MYR", "NOK", "NZD", "PHP", "PLN", "RON", "SEK", "SGD", "THB", "TRY", "USD", "ZAR"
+    };
+
+    @Param({"31", "365"})
+    public int days;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        StringBuilder json = new StringBuilder("{\"amount\":1.0,\"base\":\"IDR\",\"start_date\":\"2024-01-01\",\"end_date\":\"2024-12-31\",\"rates\":{");
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        boolean first = true;
+        for (int day = 0; day < days; day++, date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            json.append(first ? "" : ",").append('"').append(date).append("\":{");
+            for (int i = 0; i < CURRENCIES.length; i++) {
+                json.append(i == 0 ? "" : ",").append('"').append(CURRENCIES[i]).append("\":")
+                        .append(Math.round(random.nextDouble() * 1e7) / 1e10);
+            }
+            json.append('}');
+            first = false;
+        }
+        body = json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public NavigableMap<String, double[]> dtoBinding() throws IOException {
+        FrankfurterHistoricalResponse response = objectMapper.readValue(body, FrankfurterHistoricalResponse.class);
+        NavigableMap<String, double[]> rows = new TreeMap<>();
+        for (Map.Entry<String, Map<String, Double>> day : response.getRates().entrySet()) {
+            double[] row = new double[CurrencyRegistry.CAPACITY];
+            Arrays.fill(row, Double.NaN);
+            day.getValue().forEach((code, rate) -> {
+                int ordinal = CurrencyRegistry.ordinal(code);
+                if (ordinal >= 0 && rate != null) {
+                    row[ordinal] = rate;
+                }
+            });
+            rows.put(day.getKey(), row);
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public NavigableMap<String, double[]> streaming() throws IOException {
+        return DailyRatesParser.parse(new ByteArrayInputStream(body));
+    }
+}
@@ -0,0 +1,101 @@
+package com.home.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.home.test.config.JacksonConfig;
+import com.home.test.dto.ColumnarHistoricalResponse;
+import com.home.test.dto.FrankfurterHistoricalResponse;
+import com.home.test.util.CurrencyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One historical pair from the cached ordinal-indexed IDR series to response bytes: the default nested
+ * shape (per-date maps, written newest first by reverse iteration) vs {@code shape=columnar}. Response sizes
+ * are printed once per trial.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=HistoricalShapeBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoricalShapeBenchmark {
+
+    @Param({"31", "365", "1826"})
+    private int days;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().jackson2ObjectMapperBuilder().build();
+    private final NavigableMap<String, double[]> series = new TreeMap<>();
+    private final int from = CurrencyRegistry.ordinal("USD");
+    private final int to = CurrencyRegistry.ordinal("JPY");
+    private String start;
+    private String end;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(5);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        start = date.toString();
+        for (int day = 0; day < days; day++, date = date.plusDays(1)) {
+            double[] row = new double[CurrencyRegistry.CAPACITY];
+            Arrays.fill(row, Double.NaN);
+            row[from] = 0.00006 + random.nextDouble() * 1e-5;
+            row[to] = 0.009 + random.nextDouble() * 1e-3;
+            series.put(date.toString(), row);
+        }
+        end = date.minusDays(1).toString();
+
+        System.out.printf("%n%d days: nested %d bytes, columnar %d bytes%n",
+                days, nested().length, columnar().length);
+    }
+
+    @Benchmark
+    public byte[] nested() throws IOException {
+        String toCode = CurrencyRegistry.code(to);
+        Map<String, Map<String, Double>> rates = new LinkedHashMap<>();
+        series.subMap(start, true, end, true).forEach((date, row) -> rates.put(date, Map.of(toCode, row[to] / row[from])));
+
+        FrankfurterHistoricalResponse response = new FrankfurterHistoricalResponse();
+        response.setAmount("1");
+        response.setBase("USD");
+        response.setStartDate(start);
+        response.setEndDate(end);
+        response.setRates(rates);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] columnar() throws IOException {
+        String[] dates = new String[days];
+        double[] values = new double[days];
+        int count = 0;
+        for (Map.Entry<String, double[]> day : series.subMap(start, true, end, true).descendingMap().entrySet()) {
+            dates[count] = day.getKey();
+            values[count++] = day.getValue()[to] / day.getValue()[from];
+        }
+        ColumnarHistoricalResponse response = new ColumnarHistoricalResponse("1", "USD", start, end,
+                Arrays.asList(Arrays.copyOf(dates, count)), Map.of(CurrencyRegistry.code(to), Arrays.copyOf(values, count)));
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
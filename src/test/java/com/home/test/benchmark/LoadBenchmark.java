@@ -0,0 +1,135 @@
+package com.home.test.benchmark;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and memory footprint of packaged builds under high concurrency, e.g. the servlet (Tomcat)
+ * build against the WebFlux (Netty) build. Each jar is started against {@link FrankfurterStub}; then
+ * {@code concurrency} virtual-thread clients hammer {@code /latest_idr_rates} in a closed loop while the
+ * child's RSS and thread count are sampled from {@code /proc}. An optional path and extra JVM flags
+ * (e.g. {@code -Dspring.threads.virtual.enabled=false}) select the endpoint and execution mode.
+ *
+ * mvn -Pbenchmark test-compile exec:exec@load-benchmark -Dload.jars=/tmp/servlet.jar,target/test-0.0.1-SNAPSHOT.jar
+ */
+public final class LoadBenchmark {
+
+    private static final String DEFAULT_PATH = "/api/finance/data/latest_idr_rates";
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private LoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: LoadBenchmark <concurrency> <seconds> <jar>[,<jar>...] [path] [jvmArgs...]");
+            System.exit(2);
+        }
+        int concurrency = Integer.parseInt(args[0]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[1]));
+        List<String> jars = Arrays.stream(args[2].split(",")).map(String::trim).filter(jar -> !jar.isEmpty()).toList();
+        String path = args.length > 3 && !args[3].isBlank() ? args[3] : DEFAULT_PATH;
+        List<String> jvmArgs = args.length > 4 ? List.of(Arrays.copyOfRange(args, 4, args.length)) : List.of();
+        System.out.printf("%d clients on %s %s%n", concurrency, path, String.join(" ", jvmArgs));
+
+        System.out.printf("%-45s %10s %8s %8s %10s %10s %8s%n",
+                "jar", "req/s", "p50 ms", "p99 ms", "idle MB", "peak MB", "threads");
+        try (FrankfurterStub stub = FrankfurterStub.start()) {
+            for (String jar : jars) {
+                try (AppProcess app = AppProcess.launch(Path.of(jar), jvmArgs, stub, ProcessBuilder.Redirect.DISCARD)) {
+                    app.awaitReady();
+                    long idleRss = app.residentKbAndThreads()[0];
+                    run(app, path, concurrency, WARMUP);
+                    Result result = run(app, path, concurrency, duration);
+                    System.out.printf("%-45s %10.0f %8.2f %8.2f %10.1f %10.1f %8d%s%n",
+                            Path.of(jar).getFileName(), result.throughput(), result.p50Millis(), result.p99Millis(),
+                            idleRss / 1024.0, result.peakRssKb() / 1024.0, result.peakThreads(),
+                            result.errors() > 0 ? "   (" + result.errors() + " errors)" : "");
+                }
+            }
+        }
+    }
+
+    private static Result run(AppProcess app, String path, int concurrency, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(app.uri(path)).timeout(Duration.ofSeconds(30)).build();
+        AtomicLong peakRss = new AtomicLong();
+        AtomicLong peakThreads = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(clients).build()) {
+            Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    long[] usage = app.residentKbAndThreads();
+                    peakRss.accumulateAndGet(usage[0], Math::max);
+                    peakThreads.accumulateAndGet(usage[1], Math::max);
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+
+            List<Future<long[]>> workers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long started = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - started;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            long[] all = new long[0];
+            for (Future<long[]> worker : workers) {
+                long[] latencies = worker.get();
+                long[] merged = Arrays.copyOf(all, all.length + latencies.length);
+                System.arraycopy(latencies, 0, merged, all.length, latencies.length);
+                all = merged;
+            }
+            sampler.join();
+            Arrays.sort(all);
+            return new Result(all.length / (double) duration.toSeconds(),
+                    percentile(all, 0.50), percentile(all, 0.99), peakRss.get(), peakThreads.get(), errors.get());
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(quantile * sorted.length))] / 1_000_000.0;
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis,
+                          long peakRssKb, long peakThreads, long errors) {
+    }
+}
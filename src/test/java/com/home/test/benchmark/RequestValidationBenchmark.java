@@ -0,0 +1,73 @@
+package com.home.test.benchmark;
+
+import com.home.test.util.CurrencyRegistry;
+import com.home.test.util.RequestValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Historical request validation: regex + exception-driven LocalDate.parse vs RequestValidator,
+ * for valid and garbage inputs. Run with -prof gc to compare allocation per operation.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RequestValidationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestValidationBenchmark {
+
+    private static final RequestValidator VALIDATOR = new RequestValidator(CurrencyRegistry.codes());
+
+    @Param({"valid", "invalid"})
+    public String input;
+
+    private String start;
+    private String end;
+    private String from;
+    private String to;
+
+    @Setup
+    public void setUp() {
+        boolean valid = "valid".equals(input);
+        start = valid ? "2025-01-02" : "2025-02-30";
+        end = valid ? "2025-03-31" : "31-03-2025";
+        from = valid ? "IDR" : "idr";
+        to = valid ? "USD" : "US1";
+    }
+
+    @Benchmark
+    public boolean regexAndLocalDate() {
+        return legacyDate(start) && legacyDate(end) && from.matches("^[A-Z]{3}$") && to.matches("^[A-Z]{3}$");
+    }
+
+    @Benchmark
+    public boolean requestValidator() {
+        return RequestValidator.isIsoDate(start) && RequestValidator.isIsoDate(end)
+                && VALIDATOR.isSupportedCurrencyCode(from) && VALIDATOR.isSupportedCurrencyCode(to);
+    }
+
+    private static boolean legacyDate(String date) {
+        try {
+            LocalDate.parse(date);
+            return true;
+        } catch (DateTimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.home.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.home.test.config.JacksonConfig;
+import com.home.test.config.SnapshotProperties;
+import com.home.test.dto.CurrencyResponse;
+import com.home.test.dto.EnrichedCurrencyResponse;
+import com.home.test.service.CurrencyMetadataService;
+import com.home.test.service.DataStoreService;
+import com.home.test.service.EncodedResponseCache;
+import com.home.test.service.SnapshotFileStore;
+import com.home.test.util.CurrencyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serving the enriched {@code supported_currencies} body gzipped: serialization plus gzip on every request
+ * (what on-the-fly compression costs) vs the variant precomputed at publish time.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ResponseCompressionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseCompressionBenchmark {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().jackson2ObjectMapperBuilder().build();
+    private final CurrencyMetadataService currencyMetadataService = new CurrencyMetadataService();
+    private final DataStoreService dataStoreService = new DataStoreService(new SnapshotFileStore(disabledSnapshots()));
+    private EncodedResponseCache cache;
+
+    @Setup
+    public void setUp() {
+        cache = new EncodedResponseCache(dataStoreService, currencyMetadataService, objectMapper);
+        dataStoreService.storeSupportedCurrencies(new CurrencyResponse(CurrencyRegistry.codes()));
+        dataStoreService.markAsInitialized();
+        EncodedResponseCache.EncodedBody body = cache.supportedCurrencies(false);
+        System.out.printf("%nenriched supported_currencies: %d bytes, gzip %d bytes%n",
+                body.getIdentity().length, body.getGzip().length);
+    }
+
+    @Benchmark
+    public byte[] perRequestGzip() throws IOException {
+        CurrencyResponse currencies = dataStoreService.getData("supported_currencies", CurrencyResponse.class);
+        byte[] json = objectMapper.writeValueAsBytes(
+                new EnrichedCurrencyResponse(currencyMetadataService.enrichCurrencies(currencies.getCurrencies())));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] precomputedGzip() {
+        return cache.supportedCurrencies(false).getGzip();
+    }
+
+    private static SnapshotProperties disabledSnapshots() {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setEnabled(false);
+        return properties;
+    }
+}
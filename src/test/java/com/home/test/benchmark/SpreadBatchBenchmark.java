@@ -0,0 +1,68 @@
+package com.home.test.benchmark;
+
+import com.home.test.util.SpreadFactorCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch spread computation: per-element calculator loop vs the vectorized batch API.
+ * The batch API runs the SIMD kernel because the benchmark JVM is started with jdk.incubator.vector.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SpreadBatchBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpreadBatchBenchmark {
+
+    /** 31 currencies, 31 currencies x 3 tiers, and a bulk quote run */
+    @Param({"31", "93", "4096"})
+    private int size;
+
+    private final SpreadFactorCalculator calculator = new SpreadFactorCalculator();
+
+    private double[] rates;
+    private double[] spreads;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        rates = new double[size];
+        spreads = new double[size];
+        out = new double[size];
+        for (int i = 0; i < size; i++) {
+            rates[i] = 0.00001 + random.nextDouble() * 0.01;
+            spreads[i] = random.nextDouble() * 0.01;
+        }
+    }
+
+    @Benchmark
+    public double[] perElement() {
+        for (int i = 0; i < size; i++) {
+            out[i] = calculator.calculateBuySpreadIdr(rates[i], spreads[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] batch() {
+        calculator.calculateBuySpreadIdr(rates, spreads, out);
+        return out;
+    }
+}
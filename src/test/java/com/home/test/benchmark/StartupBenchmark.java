@@ -0,0 +1,89 @@
+package com.home.test.benchmark;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cold-start harness for the packaged application, run against {@link FrankfurterStub}.
+ *
+ * <ul>
+ *   <li>{@code train <jar> <jvmArgs...>}: start the app with the given flags (e.g. {@code -XX:AOTCacheOutput=app.aot}),
+ *   wait until it is initialized, exercise every endpoint and shut it down so the JVM writes its cache.</li>
+ *   <li>{@code measure <jar> <runs> <jvmArgs...>}: report time-to-first-ready {@code /health} (HTTP 200 with
+ *   {@code initialized=true}) for a plain start and for a start with the given flags.</li>
+ * </ul>
+ *
+ * mvn -Paot-cache package -DskipTests &amp;&amp; mvn -Paot-cache exec:exec@startup-benchmark
+ */
+public final class StartupBenchmark {
+
+    private static final List<String> TRAINING_PATHS = List.of(
+            "/api/finance/data/latest_idr_rates",
+            "/api/finance/data/supported_currencies",
+            "/api/finance/data/supported_currencies?format=simple",
+            "/api/finance/data/historical/custom?start=2025-01-02&end=2025-02-20&from=USD&to=EUR",
+            "/api/finance/data/invalid_resource",
+            "/actuator/health/readiness");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupBenchmark train <jar> <jvmArgs...> | measure <jar> <runs> <jvmArgs...>");
+            System.exit(2);
+        }
+        Path jar = Path.of(args[1]);
+        switch (args[0]) {
+            case "train" -> train(jar, List.of(Arrays.copyOfRange(args, 2, args.length)));
+            case "measure" -> measure(jar, Integer.parseInt(args[2]), List.of(Arrays.copyOfRange(args, 3, args.length)));
+            default -> throw new IllegalArgumentException("Unknown mode: " + args[0]);
+        }
+    }
+
+    private static void train(Path jar, List<String> jvmArgs) throws Exception {
+        try (FrankfurterStub stub = FrankfurterStub.start()) {
+            AppProcess app = AppProcess.launch(jar, jvmArgs, stub, ProcessBuilder.Redirect.INHERIT);
+            try (app) {
+                long readyMillis = app.awaitReady();
+                System.out.printf("Training run ready after %d ms, exercising endpoints%n", readyMillis);
+                for (int i = 0; i < 50; i++) {
+                    for (String path : TRAINING_PATHS) {
+                        app.get(path);
+                    }
+                }
+            }
+            // 143 is the JVM's normal exit status after SIGTERM
+            if (app.exitValue() != 0 && app.exitValue() != 143) {
+                throw new IllegalStateException("Training run exited with " + app.exitValue());
+            }
+            System.out.printf("Training run exited with %d%n", app.exitValue());
+        }
+    }
+
+    private static void measure(Path jar, int runs, List<String> jvmArgs) throws Exception {
+        try (FrankfurterStub stub = FrankfurterStub.start()) {
+            report("default", sample(jar, runs, List.of(), stub));
+            report(String.join(" ", jvmArgs), sample(jar, runs, jvmArgs, stub));
+        }
+    }
+
+    private static List<Long> sample(Path jar, int runs, List<String> jvmArgs, FrankfurterStub stub) throws Exception {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            try (AppProcess app = AppProcess.launch(jar, jvmArgs, stub, ProcessBuilder.Redirect.DISCARD)) {
+                samples.add(app.awaitReady());
+            }
+        }
+        Collections.sort(samples);
+        return samples;
+    }
+
+    private static void report(String label, List<Long> samples) {
+        System.out.printf("%-60s min %5d ms   median %5d ms   max %5d ms   (%d runs)%n", label,
+                samples.getFirst(), samples.get(samples.size() / 2), samples.getLast(), samples.size());
+    }
+}
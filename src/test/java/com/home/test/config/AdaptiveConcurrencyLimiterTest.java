@@ -0,0 +1,275 @@
+package com.home.test.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final ClientRequest REQUEST = ClientRequest.create(HttpMethod.GET, URI.create("http://frankfurter/latest")).build();
+
+    private FrankfurterApiProperties.Limiter properties;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FrankfurterApiProperties.Limiter();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(10);
+        properties.setLatencyThresholdMs(100);
+        properties.setBackoffRatio(0.5);
+        properties.setMaxQueue(1);
+        properties.setQueueTimeoutMs(200);
+        clock = new AtomicLong();
+    }
+
+    @Test
+    void fastResponses_IncreaseLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+
+        // Act
+        exchange(limiter, request -> Mono.just(response(HttpStatus.OK))).block();
+
+        // Assert
+        assertEquals(2.5, limiter.getLimit(), 1e-9);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void slowResponses_DecreaseLimit() {
+        // Arrange
+        properties.setInitialLimit(8);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+
+        // Act
+        exchange(limiter, request -> Mono.fromSupplier(() -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+            return response(HttpStatus.OK);
+        })).block();
+
+        // Assert
+        assertEquals(4.0, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void overloadStatusAndErrors_DecreaseLimit() {
+        // Arrange
+        properties.setInitialLimit(8);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+
+        // Act
+        exchange(limiter, request -> Mono.just(response(HttpStatus.SERVICE_UNAVAILABLE))).block();
+        StepVerifier.create(limiter.filter(REQUEST, request -> Mono.error(new RuntimeException("reset"))))
+                .expectError()
+                .verify();
+
+        // Assert
+        assertEquals(2.0, limiter.getLimit(), 1e-9);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void slotIsHeldUntilBodyCompletes() {
+        // Arrange
+        properties.setInitialLimit(8);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        ClientResponse response = limiter.filter(REQUEST,
+                request -> Mono.just(ClientResponse.create(HttpStatus.OK).body(body.asFlux()).build())).block();
+
+        // Act - headers arrived, the body is still streaming
+        response.releaseBody().subscribe();
+        assertEquals(1, limiter.getInFlight());
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        body.tryEmitComplete();
+
+        // Assert - the slow body counts as a slow call
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(4.0, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void bodyErrorAndCancel_ReleaseSlot() {
+        // Arrange
+        properties.setInitialLimit(8);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+
+        // Act
+        StepVerifier.create(limiter.filter(REQUEST, request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .body(Flux.error(new RuntimeException("reset"))).build()))
+                        .flatMap(ClientResponse::releaseBody))
+                .expectError()
+                .verify();
+        ClientResponse streaming = limiter.filter(REQUEST, request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body(Flux.never()).build())).block();
+        streaming.bodyToFlux(DataBuffer.class).subscribe().dispose();
+
+        // Assert - an error backs off, a cancel only frees the slot
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(4.0, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void limitNeverLeavesBounds() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            exchange(limiter, request -> Mono.just(response(HttpStatus.TOO_MANY_REQUESTS))).block();
+        }
+        assertEquals(1.0, limiter.getLimit(), 1e-9);
+
+        for (int i = 0; i < 500; i++) {
+            exchange(limiter, request -> Mono.just(response(HttpStatus.OK))).block();
+        }
+        assertEquals(10.0, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void excessRequests_QueueUntilSlotFrees() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+        Sinks.One<ClientResponse> first = Sinks.one();
+        Sinks.One<ClientResponse> second = Sinks.one();
+        exchange(limiter, request -> first.asMono()).subscribe();
+        exchange(limiter, request -> second.asMono()).subscribe();
+        assertEquals(2, limiter.getInFlight());
+
+        // Act & Assert
+        StepVerifier.create(exchange(limiter, request -> Mono.just(response(HttpStatus.OK))))
+                .then(() -> assertEquals(1, limiter.getQueued()))
+                .then(() -> first.tryEmitValue(response(HttpStatus.OK)))
+                .verifyComplete();
+
+        assertEquals(0, limiter.getQueued());
+        second.tryEmitValue(response(HttpStatus.OK));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void fullQueue_ShedsImmediately() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+        limiter.filter(REQUEST, request -> Mono.never()).subscribe();
+        limiter.filter(REQUEST, request -> Mono.never()).subscribe();
+        limiter.filter(REQUEST, request -> Mono.never()).subscribe();
+
+        // Act & Assert
+        StepVerifier.create(limiter.filter(REQUEST, request -> Mono.just(response(HttpStatus.OK))))
+                .expectError(AdaptiveConcurrencyLimiter.LimitExceededException.class)
+                .verify();
+    }
+
+    @Test
+    void queuedRequest_ShedAfterQueueTimeout() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+        limiter.filter(REQUEST, request -> Mono.never()).subscribe();
+        limiter.filter(REQUEST, request -> Mono.never()).subscribe();
+
+        // Act & Assert
+        StepVerifier.create(limiter.filter(REQUEST, request -> Mono.just(response(HttpStatus.OK))))
+                .expectError(AdaptiveConcurrencyLimiter.LimitExceededException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(0, limiter.getQueued());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void bindTo_PublishesLimitGauge() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, clock::get);
+
+        // Act
+        limiter.bindTo(registry);
+
+        // Assert (gauges hold the limiter weakly, so keep it reachable until here)
+        assertEquals(2.0, registry.get("frankfurter.client.concurrency.limit").gauge().value());
+        assertEquals(0.0, registry.get("frankfurter.client.concurrency.in_flight").gauge().value());
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void slowingUpstream_LimitConvergesBelowInitial() throws Exception {
+        // Arrange: the stub answers in 25 ms per request it is serving concurrently
+        AtomicInteger serving = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            int concurrent = serving.incrementAndGet();
+            try {
+                Thread.sleep(25L * concurrent);
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                serving.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+
+        properties.setInitialLimit(16);
+        properties.setMaxLimit(32);
+        properties.setBackoffRatio(0.9);
+        properties.setMaxQueue(1_000);
+        properties.setQueueTimeoutMs(30_000);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        WebClient webClient = new WebClientFactoryBean("http://127.0.0.1:" + server.getAddress().getPort(), 30_000,
+                List.of(limiter)).getObject();
+
+        try {
+            // Act
+            List<String> responses = Flux.range(0, 200)
+                    .flatMap(i -> webClient.get().uri("/").retrieve().bodyToMono(String.class), 64)
+                    .collectList()
+                    .block(Duration.ofSeconds(60));
+
+            // Assert: equilibrium is around 100 ms / 25 ms = 4 concurrent calls
+            assertEquals(200, responses.size());
+            assertTrue(limiter.getLimit() < 8, "Limit should back off under load, was " + limiter.getLimit());
+            assertEquals(0, limiter.getInFlight());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static Mono<Void> exchange(AdaptiveConcurrencyLimiter limiter, ExchangeFunction next) {
+        return limiter.filter(REQUEST, next).flatMap(ClientResponse::releaseBody);
+    }
+
+    private static ClientResponse response(HttpStatus status) {
+        return ClientResponse.create(status).build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.home.test.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.home.test.dto.FrankfurterHistoricalResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonConfigTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().jackson2ObjectMapperBuilder().build();
+
+    @Test
+    void doubleSerializer_WritesSmallRatesInFixedNotation() throws Exception {
+        // Arrange
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rates.put("USD", 0.000064);
+        rates.put("JPY", 0.0097);
+        rates.put("BTC", 1.5e-9);
+        rates.put("ZERO", 0.0);
+
+        // Act
+        String json = objectMapper.writeValueAsString(rates);
+
+        // Assert
+        assertEquals("{\"USD\":0.00006400,\"JPY\":0.0097,\"BTC\":0.00000000,\"ZERO\":0.0}", json);
+    }
+
+    @Test
+    void doubleArraySerializer_UsesSameFormattingAsBoxedRates() throws Exception {
+        // Act
+        String json = objectMapper.writeValueAsString(Map.of("USD", new double[]{0.000064, 15800.0, 0.0}));
+
+        // Assert
+        assertEquals("{\"USD\":[0.00006400,15800.0,0.0]}", json);
+    }
+
+    @Test
+    void historicalRates_WrittenNewestFirst() throws Exception {
+        // Arrange
+        Map<String, Map<String, Double>> ordered = new LinkedHashMap<>();
+        ordered.put("2025-01-09", Map.of("USD", 0.000065));
+        ordered.put("2025-01-10", Map.of("USD", 0.000064));
+        Map<String, Map<String, Double>> unordered = new HashMap<>(ordered);
+        unordered.put("2025-01-08", Map.of("USD", 0.000066));
+
+        // Act
+        String orderedJson = objectMapper.writeValueAsString(historical(ordered));
+        String unorderedJson = objectMapper.writeValueAsString(historical(unordered));
+
+        // Assert
+        assertTrue(orderedJson.endsWith(
+                "\"rates\":{\"2025-01-10\":{\"USD\":0.00006400},\"2025-01-09\":{\"USD\":0.00006500}}}"));
+        assertTrue(unorderedJson.contains("{\"2025-01-10\":{\"USD\":0.00006400},"
+                + "\"2025-01-09\":{\"USD\":0.00006500},\"2025-01-08\":{\"USD\":0.00006600}}"));
+        assertEquals(List.of("2025-01-09", "2025-01-10"), List.copyOf(ordered.keySet()));
+    }
+
+    @Test
+    void doubleSerializer_IgnoresDefaultLocale() throws Exception {
+        // Arrange
+        Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("id-ID"));
+        try {
+            // Act
+            String json = objectMapper.writeValueAsString(Map.of("USD", 0.000064));
+
+            // Assert
+            assertEquals("{\"USD\":0.00006400}", json);
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    void registerBinaryCodecs_KeepsJsonAheadOfBinaryWriters() {
+        // Arrange
+        ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+
+        // Act
+        JacksonConfig.registerBinaryCodecs(configurer, objectMapper);
+        List<MediaType> objectTypes = configurer.getWriters().stream()
+                .filter(writer -> writer.canWrite(ResolvableType.forClass(Object.class), null))
+                .flatMap(writer -> writer.getWritableMediaTypes().stream())
+                .filter(type -> type.equals(MediaType.APPLICATION_JSON) || type.equals(MediaType.APPLICATION_CBOR)
+                        || type.equals(JacksonConfig.APPLICATION_SMILE))
+                .distinct()
+                .toList();
+
+        // Assert
+        assertEquals(List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, JacksonConfig.APPLICATION_SMILE),
+                objectTypes);
+    }
+
+    @Test
+    void binaryMappers_WriteRatesAtFullPrecision() throws Exception {
+        // Arrange
+        Map<String, Double> rates = Map.of("USD", 6.4123456789e-5);
+
+        // Act
+        byte[] cbor = JacksonConfig.BinaryMappers.CBOR.writeValueAsBytes(rates);
+        byte[] smile = JacksonConfig.BinaryMappers.SMILE.writeValueAsBytes(rates);
+
+        // Assert
+        assertEquals(6.4123456789e-5, JacksonConfig.BinaryMappers.CBOR.readTree(cbor).get("USD").doubleValue());
+        assertEquals(6.4123456789e-5, JacksonConfig.BinaryMappers.SMILE.readTree(smile).get("USD").doubleValue());
+    }
+
+    private static FrankfurterHistoricalResponse historical(Map<String, Map<String, Double>> rates) {
+        FrankfurterHistoricalResponse response = new FrankfurterHistoricalResponse();
+        response.setBase("IDR");
+        response.setRates(rates);
+        return response;
+    }
+}
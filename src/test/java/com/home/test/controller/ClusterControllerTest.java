@@ -0,0 +1,167 @@
+package com.home.test.controller;
+
+import com.home.test.config.ClusterProperties;
+import com.home.test.config.SnapshotProperties;
+import com.home.test.dto.CurrencyResponse;
+import com.home.test.service.DataStoreService;
+import com.home.test.service.PeerRefreshCoordinator;
+import com.home.test.service.SnapshotFileStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterControllerTest {
+
+    private static final String TOKEN = "secret";
+
+    private SnapshotFileStore codec;
+    private DataStoreService dataStoreService;
+    private byte[] snapshot;
+
+    @BeforeEach
+    void setUp() {
+        SnapshotProperties snapshotProperties = new SnapshotProperties();
+        snapshotProperties.setEnabled(false);
+        codec = new SnapshotFileStore(snapshotProperties);
+        dataStoreService = new DataStoreService(codec);
+        snapshot = codec.encode(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR", "USD"))));
+    }
+
+    // ==================== HEARTBEAT TESTS ====================
+
+    @Test
+    void heartbeat_ReportsInstanceAndVersion() {
+        // Arrange
+        dataStoreService.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))), 42);
+
+        // Act & Assert
+        client(true).get()
+                .uri("/internal/cluster/heartbeat")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.instance_id").isEqualTo("node-b")
+                .jsonPath("$.version").isEqualTo(42)
+                .jsonPath("$.leader").isEqualTo(false);
+    }
+
+    @Test
+    void heartbeat_ClusterDisabled_ReturnsNotFound() {
+        // Act & Assert
+        client(false).get()
+                .uri("/internal/cluster/heartbeat")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // ==================== SNAPSHOT PUSH TESTS ====================
+
+    @Test
+    void receiveSnapshot_NewerVersion_AppliesIt() {
+        // Act
+        push(client(true), 100, TOKEN)
+                .expectStatus().isNoContent();
+
+        // Assert
+        assertTrue(dataStoreService.isInitialized());
+        assertEquals(100, dataStoreService.getSnapshotVersion());
+        assertEquals(List.of("IDR", "USD"),
+                dataStoreService.getData("supported_currencies", CurrencyResponse.class).getCurrencies());
+    }
+
+    @Test
+    void receiveSnapshot_StaleVersion_ReturnsConflict() {
+        // Arrange
+        WebTestClient client = client(true);
+        push(client, 100, TOKEN).expectStatus().isNoContent();
+
+        // Act & Assert
+        push(client, 99, TOKEN)
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Stale Snapshot");
+        assertEquals(100, dataStoreService.getSnapshotVersion());
+    }
+
+    @Test
+    void receiveSnapshot_WrongToken_ReturnsForbidden() {
+        // Act & Assert
+        push(client(true), 100, "guess")
+                .expectStatus().isForbidden();
+        assertFalse(dataStoreService.isInitialized());
+    }
+
+    @Test
+    void receiveSnapshot_MissingToken_ReturnsForbidden() {
+        // Act & Assert
+        push(client(true), 100, null)
+                .expectStatus().isForbidden();
+        assertFalse(dataStoreService.isInitialized());
+    }
+
+    @Test
+    void receiveSnapshot_VersionFarAhead_ReturnsBadRequest() {
+        // Act & Assert
+        push(client(true), Long.MAX_VALUE, TOKEN)
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Snapshot");
+        assertFalse(dataStoreService.isInitialized());
+    }
+
+    @Test
+    void receiveSnapshot_Garbage_ReturnsBadRequest() {
+        // Act & Assert
+        client(true).post()
+                .uri("/internal/cluster/snapshot")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(PeerRefreshCoordinator.VERSION_HEADER, "100")
+                .header(PeerRefreshCoordinator.TOKEN_HEADER, TOKEN)
+                .bodyValue(new byte[]{1, 2, 3})
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Snapshot");
+    }
+
+    @Test
+    void receiveSnapshot_ClusterDisabled_ReturnsNotFound() {
+        // Act & Assert
+        push(client(false), 100, TOKEN)
+                .expectStatus().isNotFound();
+        assertFalse(dataStoreService.isInitialized());
+    }
+
+    private WebTestClient.ResponseSpec push(WebTestClient client, long version, String token) {
+        return client.post()
+                .uri("/internal/cluster/snapshot")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(PeerRefreshCoordinator.VERSION_HEADER, Long.toString(version))
+                .headers(headers -> {
+                    if (token != null) {
+                        headers.set(PeerRefreshCoordinator.TOKEN_HEADER, token);
+                    }
+                })
+                .bodyValue(snapshot)
+                .exchange();
+    }
+
+    private WebTestClient client(boolean enabled) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(enabled);
+        properties.setMode(ClusterProperties.PEERS_MODE);
+        properties.setInstanceId("node-b");
+        properties.setPeerToken(TOKEN);
+        PeerRefreshCoordinator coordinator = new PeerRefreshCoordinator(WebClient.builder(), dataStoreService, codec,
+                properties, Schedulers.immediate());
+        return WebTestClient.bindToController(new ClusterController(coordinator, Schedulers.immediate())).build();
+    }
+}
@@ -1,26 +1,36 @@
 package com.home.test.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.home.test.config.AdaptiveConcurrencyLimiter;
+import com.home.test.config.JacksonConfig;
 import com.home.test.dto.*;
 import com.home.test.service.CurrencyMetadataService;
 import com.home.test.service.DataStoreService;
+import com.home.test.service.EncodedResponseCache;
+import com.home.test.service.HistoricalRatesService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.setup.MockMvcBuilders;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
 @SuppressWarnings("unchecked")
@@ -30,25 +40,31 @@ class FinanceControllerTest {
     private DataStoreService dataStoreService;
 
     @Mock
-    private WebClient webClient;
+    private HistoricalRatesService historicalRatesService;
 
     @Mock
     private CurrencyMetadataService currencyMetadataService;
 
-    @Mock
-    private WebClient.RequestHeadersUriSpec<?> requestHeadersUriSpec;
-
-    @Mock
-    private WebClient.ResponseSpec responseSpec;
-
-    @InjectMocks
     private FinanceController financeController;
 
-    private MockMvc mockMvc;
+    private WebTestClient webTestClient;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(financeController).build();
+        lenient().when(currencyMetadataService.getRequestValidator())
+                .thenReturn(new CurrencyMetadataService().getRequestValidator());
+        EncodedResponseCache encodedResponseCache = new EncodedResponseCache(dataStoreService, currencyMetadataService,
+                new JacksonConfig().jackson2ObjectMapperBuilder().build());
+        financeController = new FinanceController(dataStoreService, historicalRatesService, currencyMetadataService,
+                encodedResponseCache);
+        webTestClient = WebTestClient.bindToController(financeController).build();
+    }
+
+    private WebTestClient binaryClient() {
+        return WebTestClient.bindToController(financeController)
+                .httpMessageCodecs(configurer -> JacksonConfig.registerBinaryCodecs(configurer,
+                        new JacksonConfig().jackson2ObjectMapperBuilder().build()))
+                .build();
     }
 
     // ==================== LATEST IDR RATES TESTS ====================
@@ -65,52 +81,88 @@ class FinanceControllerTest {
             "IDR", "2024-01-15", rates, 15800.0
         );
 
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
         when(dataStoreService.getData("latest_idr_rates", LatestRatesResponse.class))
             .thenReturn(mockResponse);
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/latest_idr_rates")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.base").value("IDR"))
-                .andExpect(jsonPath("$.date").value("2024-01-15"))
-                .andExpect(jsonPath("$.rates.USD").value(0.000064))
-                .andExpect(jsonPath("$.rates.EUR").value(0.000059))
-                .andExpect(jsonPath("$.USD_BuySpread_IDR").value(15800.0));
+        webTestClient.get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.base").isEqualTo("IDR")
+                .jsonPath("$.date").isEqualTo("2024-01-15")
+                .jsonPath("$.rates.USD").isEqualTo(0.000064)
+                .jsonPath("$.rates.EUR").isEqualTo(0.000059)
+                .jsonPath("$.USD_BuySpread_IDR").isEqualTo(15800.0);
 
         verify(dataStoreService).getData("latest_idr_rates", LatestRatesResponse.class);
     }
 
+    @Test
+    void getLatestIdrRates_IncludesPrecomputedSpreads() throws Exception {
+        // Arrange
+        Map<String, Map<String, SpreadQuote>> spreads = new LinkedHashMap<>();
+        spreads.put("standard", Map.of("USD", new SpreadQuote(15757.0, 15497.0)));
+        spreads.put("priority", Map.of("USD", new SpreadQuote(15691.0, 15562.0)));
+
+        LatestRatesResponse mockResponse = new LatestRatesResponse(
+            "IDR", "2024-01-15", Map.of("USD", 0.000064), 15757.0, spreads
+        );
+
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(dataStoreService.getData("latest_idr_rates", LatestRatesResponse.class))
+            .thenReturn(mockResponse);
+
+        // Act & Assert
+        webTestClient.get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.spreads.standard.USD.buy").isEqualTo(15757.0)
+                .jsonPath("$.spreads.standard.USD.sell").isEqualTo(15497.0)
+                .jsonPath("$.spreads.priority.USD.buy").isEqualTo(15691.0);
+    }
+
     @Test
     void getLatestIdrRates_ServiceNotInitialized() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(false);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(false));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/latest_idr_rates")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isServiceUnavailable())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Service Unavailable"))
-                .andExpect(jsonPath("$.message").value("Data initialization in progress"));
+        webTestClient.get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Service Unavailable")
+                .jsonPath("$.message").isEqualTo("Data initialization in progress");
     }
 
     @Test
     void getLatestIdrRates_ResourceNotFound() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
         when(dataStoreService.getData("latest_idr_rates", LatestRatesResponse.class))
             .thenThrow(new IllegalArgumentException("Resource type not found: latest_idr_rates"));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/latest_idr_rates")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Resource Not Found"))
-                .andExpect(jsonPath("$.message").value("Resource type not found: latest_idr_rates"));
+        webTestClient.get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Resource Not Found")
+                .jsonPath("$.message").isEqualTo("Resource type not found: latest_idr_rates");
     }
 
     // ==================== SUPPORTED CURRENCIES TESTS ====================
@@ -127,25 +179,28 @@ class FinanceControllerTest {
             new CurrencyInfo("SGD", "Singapore Dollar", "S$", "SG", "Singapore", false, 2)
         );
 
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
         when(dataStoreService.getData("supported_currencies", CurrencyResponse.class))
             .thenReturn(mockResponse);
         when(currencyMetadataService.enrichCurrencies(currencies))
             .thenReturn(enrichedCurrencies);
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/supported_currencies")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.currencies").isArray())
-                .andExpect(jsonPath("$.currencies.length()").value(3))
-                .andExpect(jsonPath("$.currencies[0].code").value("USD"))
-                .andExpect(jsonPath("$.currencies[0].name").value("United States Dollar"))
-                .andExpect(jsonPath("$.currencies[0].symbol").value("$"))
-                .andExpect(jsonPath("$.metadata.total_currencies").value(3))
-                .andExpect(jsonPath("$.metadata.supported_pairs").value(9))
-                .andExpect(jsonPath("$.metadata.version").value("2.0.0"));
+        webTestClient.get()
+                .uri("/api/finance/data/supported_currencies")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.currencies").isArray()
+                .jsonPath("$.currencies.length()").isEqualTo(3)
+                .jsonPath("$.currencies[0].code").isEqualTo("USD")
+                .jsonPath("$.currencies[0].name").isEqualTo("United States Dollar")
+                .jsonPath("$.currencies[0].symbol").isEqualTo("$")
+                .jsonPath("$.metadata.total_currencies").isEqualTo(3)
+                .jsonPath("$.metadata.supported_pairs").isEqualTo(9)
+                .jsonPath("$.metadata.version").isEqualTo("2.0.0");
 
         verify(dataStoreService).getData("supported_currencies", CurrencyResponse.class);
         verify(currencyMetadataService).enrichCurrencies(currencies);
@@ -157,20 +212,24 @@ class FinanceControllerTest {
         List<String> currencies = Arrays.asList("USD", "EUR", "SGD", "JPY", "GBP");
         CurrencyResponse mockResponse = new CurrencyResponse(currencies);
 
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
         when(dataStoreService.getData("supported_currencies", CurrencyResponse.class))
             .thenReturn(mockResponse);
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/supported_currencies")
-                .param("format", "simple")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.currencies").isArray())
-                .andExpect(jsonPath("$.currencies.length()").value(5))
-                .andExpect(jsonPath("$.currencies[0]").value("USD"))
-                .andExpect(jsonPath("$.currencies[1]").value("EUR"));
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/supported_currencies")
+                        .queryParam("format", "simple")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.currencies").isArray()
+                .jsonPath("$.currencies.length()").isEqualTo(5)
+                .jsonPath("$.currencies[0]").isEqualTo("USD")
+                .jsonPath("$.currencies[1]").isEqualTo("EUR");
 
         verify(dataStoreService).getData("supported_currencies", CurrencyResponse.class);
         verify(currencyMetadataService, never()).enrichCurrencies(any());
@@ -179,15 +238,18 @@ class FinanceControllerTest {
     @Test
     void getSupportedCurrencies_ServiceNotInitialized() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(false);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(false));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/supported_currencies")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isServiceUnavailable())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Service Unavailable"))
-                .andExpect(jsonPath("$.message").value("Data initialization in progress"));
+        webTestClient.get()
+                .uri("/api/finance/data/supported_currencies")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Service Unavailable")
+                .jsonPath("$.message").isEqualTo("Data initialization in progress");
     }
 
     // ==================== HISTORICAL DATA TESTS ====================
@@ -196,9 +258,9 @@ class FinanceControllerTest {
     void getHistoricalData_Success() throws Exception {
         // Arrange
         Map<String, Map<String, Double>> rates = new LinkedHashMap<>();
-        rates.put("2025-01-10", Map.of("USD", 0.000064));
-        rates.put("2025-01-09", Map.of("USD", 0.000065));
         rates.put("2024-12-27", Map.of("USD", 0.000066));
+        rates.put("2025-01-09", Map.of("USD", 0.000065));
+        rates.put("2025-01-10", Map.of("USD", 0.000064));
 
         FrankfurterHistoricalResponse mockResponse = new FrankfurterHistoricalResponse();
         mockResponse.setAmount("1");
@@ -207,140 +269,468 @@ class FinanceControllerTest {
         mockResponse.setEndDate("2025-01-10");
         mockResponse.setRates(rates);
 
-        when(dataStoreService.isInitialized()).thenReturn(true);
-        doReturn(requestHeadersUriSpec).when(webClient).get();
-        doReturn(requestHeadersUriSpec).when(requestHeadersUriSpec).uri(anyString());
-        doReturn(responseSpec).when(requestHeadersUriSpec).retrieve();
-        when(responseSpec.bodyToMono(FrankfurterHistoricalResponse.class))
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(historicalRatesService.getHistoricalRates(anyString(), anyString(), anyString(), anyString()))
             .thenReturn(Mono.just(mockResponse));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/historical/custom")
-                .param("start", "2024-12-27")
-                .param("end", "2025-01-10")
-                .param("from", "IDR")
-                .param("to", "USD")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.base").value("IDR"))
-                .andExpect(jsonPath("$.start_date").value("2024-12-27"))
-                .andExpect(jsonPath("$.end_date").value("2025-01-10"))
-                .andExpect(jsonPath("$.rates").isMap())
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "USD")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.base").isEqualTo("IDR")
+                .jsonPath("$.start_date").isEqualTo("2024-12-27")
+                .jsonPath("$.end_date").isEqualTo("2025-01-10")
+                .jsonPath("$.rates").isMap()
                 // Verify sorted in descending order (newest first)
-                .andExpect(jsonPath("$.rates['2025-01-10'].USD").value(0.000064))
-                .andExpect(jsonPath("$.rates['2025-01-09'].USD").value(0.000065))
-                .andExpect(jsonPath("$.rates['2024-12-27'].USD").value(0.000066));
+                .jsonPath("$.rates['2025-01-10'].USD").isEqualTo(0.000064)
+                .jsonPath("$.rates['2025-01-09'].USD").isEqualTo(0.000065)
+                .jsonPath("$.rates['2024-12-27'].USD").isEqualTo(0.000066)
+                .consumeWith(result -> {
+                    String body = new String(result.getResponseBody(), StandardCharsets.UTF_8);
+                    assertTrue(body.indexOf("\"2025-01-10\":") < body.indexOf("\"2025-01-09\":"));
+                    assertTrue(body.indexOf("\"2025-01-09\":") < body.indexOf("\"2024-12-27\":"));
+                });
+
+        verify(historicalRatesService).getHistoricalRates("2024-12-27", "2025-01-10", "IDR", "USD");
+    }
+
+    @Test
+    void getHistoricalData_ColumnarShape_ReturnsParallelArrays() throws Exception {
+        // Arrange
+        ColumnarHistoricalResponse mockResponse = new ColumnarHistoricalResponse("1", "IDR", "2025-01-09", "2025-01-10",
+            List.of("2025-01-10", "2025-01-09"), Map.of("USD", new double[]{0.000064, 0.000065}));
+
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(historicalRatesService.getHistoricalSeries("2025-01-09", "2025-01-10", "IDR", "USD"))
+            .thenReturn(Mono.just(mockResponse));
 
-        verify(webClient).get();
-        verify(requestHeadersUriSpec).uri("/2024-12-27..2025-01-10?from=IDR&to=USD");
+        // Act & Assert
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2025-01-09")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "USD")
+                        .queryParam("shape", "columnar")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.base").isEqualTo("IDR")
+                .jsonPath("$.dates[0]").isEqualTo("2025-01-10")
+                .jsonPath("$.dates[1]").isEqualTo("2025-01-09")
+                .jsonPath("$.series.USD[0]").isEqualTo(0.000064)
+                .jsonPath("$.series.USD[1]").isEqualTo(0.000065)
+                .jsonPath("$.rates").doesNotExist();
+
+        verify(historicalRatesService, never()).getHistoricalRates(anyString(), anyString(), anyString(), anyString());
     }
 
     @Test
     void getHistoricalData_ServiceNotInitialized() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(false);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(false));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/historical/custom")
-                .param("start", "2024-12-27")
-                .param("end", "2025-01-10")
-                .param("from", "IDR")
-                .param("to", "USD")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isServiceUnavailable())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Service Unavailable"))
-                .andExpect(jsonPath("$.message").value("Data initialization in progress"));
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "USD")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Service Unavailable")
+                .jsonPath("$.message").isEqualTo("Data initialization in progress");
     }
 
     @Test
     void getHistoricalData_InvalidDateFormat() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "27-12-2024")  // Invalid format
+                        .queryParam("end", "2025-01-10")  // Valid format
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "USD")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Date Format")
+                .jsonPath("$.message").isEqualTo("Dates must be in YYYY-MM-DD format");
+    }
+
+    @Test
+    void getHistoricalData_RangeOutsideCoverage_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(historicalRatesService.getHistoricalRates("1900-01-01", "2025-01-10", "IDR", "USD"))
+                .thenReturn(Mono.error(new IllegalArgumentException("Date range must not exceed 10 years")));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/historical/custom")
-                .param("start", "27-12-2024")  // Invalid format
-                .param("end", "2025-01-10")   // Valid format
-                .param("from", "IDR")
-                .param("to", "USD")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Invalid Date Format"))
-                .andExpect(jsonPath("$.message").value("Dates must be in YYYY-MM-DD format"));
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "1900-01-01")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "USD")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Date Range")
+                .jsonPath("$.message").isEqualTo("Date range must not exceed 10 years");
     }
 
     @Test
     void getHistoricalData_InvalidCurrencyCode() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/historical/custom")
-                .param("start", "2024-12-27")
-                .param("end", "2025-01-10")
-                .param("from", "IDR")
-                .param("to", "usd")  // Lowercase, should be uppercase
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Invalid Currency Code"))
-                .andExpect(jsonPath("$.message").value("Currency codes must be 3-letter ISO 4217 codes"));
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "usd")  // Lowercase, should be uppercase
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Currency Code")
+                .jsonPath("$.message").isEqualTo("Currency codes must be 3-letter ISO 4217 codes");
     }
 
     @Test
     void getHistoricalData_InvalidCurrencyCodeLength() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "US")  // Only 2 letters
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Currency Code")
+                .jsonPath("$.message").isEqualTo("Currency codes must be 3-letter ISO 4217 codes");
+    }
+
+    @Test
+    void getHistoricalData_CodeAddedByCatalogRefresh_IsAccepted() throws Exception {
+        // Arrange
+        CurrencyMetadataService catalog = new CurrencyMetadataService();
+        catalog.refreshCatalog(Map.of("IDR", "Indonesian Rupiah", "QRA", "Quux Rand"));
+        when(currencyMetadataService.getRequestValidator()).thenReturn(catalog.getRequestValidator());
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(historicalRatesService.getHistoricalRates(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(Mono.just(new FrankfurterHistoricalResponse()));
+
+        // Act & Assert
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "QRA")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(historicalRatesService).getHistoricalRates("2024-12-27", "2025-01-10", "IDR", "QRA");
+    }
+
+    @Test
+    void getHistoricalData_UnsupportedCurrencyCode() throws Exception {
+        // Arrange
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/historical/custom")
-                .param("start", "2024-12-27")
-                .param("end", "2025-01-10")
-                .param("from", "IDR")
-                .param("to", "US")  // Only 2 letters
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Invalid Currency Code"))
-                .andExpect(jsonPath("$.message").value("Currency codes must be 3-letter ISO 4217 codes"));
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "XYZ")  // Well-formed but not a supported currency
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Currency Code");
+
+        verifyNoInteractions(historicalRatesService);
     }
 
     @Test
     void getHistoricalData_NullCurrencyCode() throws Exception {
         // Act & Assert - Missing "to" parameter will cause BadRequest before controller logic
-        mockMvc.perform(get("/api/finance/data/historical/custom")
-                .param("start", "2024-12-27")
-                .param("end", "2025-01-10")
-                .param("from", "IDR")
-                // Missing "to" parameter
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isBadRequest());
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        // Missing "to" parameter
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
     }
 
     @Test
     void getHistoricalData_ApiFailure() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(true);
-        doReturn(requestHeadersUriSpec).when(webClient).get();
-        doReturn(requestHeadersUriSpec).when(requestHeadersUriSpec).uri(anyString());
-        doReturn(responseSpec).when(requestHeadersUriSpec).retrieve();
-        when(responseSpec.bodyToMono(FrankfurterHistoricalResponse.class))
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(historicalRatesService.getHistoricalRates(anyString(), anyString(), anyString(), anyString()))
             .thenReturn(Mono.error(new RuntimeException("API Error")));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/historical/custom")
-                .param("start", "2024-12-27")
-                .param("end", "2025-01-10")
-                .param("from", "IDR")
-                .param("to", "USD")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isInternalServerError())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Internal Server Error"))
-                .andExpect(jsonPath("$.message").value("Failed to fetch historical data: Failed to fetch historical data from Frankfurter API: API Error"));
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "USD")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Internal Server Error")
+                .jsonPath("$.message").isEqualTo("Failed to fetch historical data: Failed to fetch historical data from Frankfurter API: API Error");
+    }
+
+    @Test
+    void getHistoricalData_UpstreamBusy_Returns503WithRetryAfter() throws Exception {
+        // Arrange
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(historicalRatesService.getHistoricalRates(anyString(), anyString(), anyString(), anyString()))
+            .thenReturn(Mono.error(new AdaptiveConcurrencyLimiter.LimitExceededException("queue is full")));
+
+        // Act & Assert
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2024-12-27")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "USD")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals("Retry-After", "1")
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Service Unavailable");
+    }
+
+    // ==================== BINARY FORMAT TESTS ====================
+
+    @Test
+    void getLatestIdrRates_CborRequested_ReturnsCbor() throws Exception {
+        // Arrange
+        LatestRatesResponse mockResponse = new LatestRatesResponse(
+            "IDR", "2024-01-15", Map.of("USD", 0.000064, "EUR", 0.000059), 15800.0
+        );
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(dataStoreService.getData("latest_idr_rates", LatestRatesResponse.class))
+            .thenReturn(mockResponse);
+
+        // Act
+        byte[] body = binaryClient().get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        JsonNode decoded = new CBORMapper().readTree(body);
+        assertEquals("IDR", decoded.get("base").asText());
+        assertEquals(0.000064, decoded.get("rates").get("USD").doubleValue());
+        assertEquals(15800.0, decoded.get("USD_BuySpread_IDR").doubleValue());
+    }
+
+    @Test
+    void getHistoricalData_SmileRequested_ReturnsSmile() throws Exception {
+        // Arrange
+        Map<String, Map<String, Double>> rates = new HashMap<>();
+        rates.put("2025-01-09", Map.of("USD", 0.000065));
+        rates.put("2025-01-10", Map.of("USD", 0.000064));
+
+        FrankfurterHistoricalResponse mockResponse = new FrankfurterHistoricalResponse();
+        mockResponse.setBase("IDR");
+        mockResponse.setStartDate("2025-01-09");
+        mockResponse.setEndDate("2025-01-10");
+        mockResponse.setRates(rates);
+
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(historicalRatesService.getHistoricalRates("2025-01-09", "2025-01-10", "IDR", "USD"))
+            .thenReturn(Mono.just(mockResponse));
+
+        // Act
+        byte[] body = binaryClient().get()
+                .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                        .queryParam("start", "2025-01-09")
+                        .queryParam("end", "2025-01-10")
+                        .queryParam("from", "IDR")
+                        .queryParam("to", "USD")
+                        .build())
+                .accept(JacksonConfig.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(JacksonConfig.APPLICATION_SMILE)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        JsonNode decoded = new SmileMapper().readTree(body);
+        assertEquals("2025-01-10", decoded.get("rates").fieldNames().next());
+        assertEquals(0.000064, decoded.get("rates").get("2025-01-10").get("USD").doubleValue());
+    }
+
+    @Test
+    void getLatestIdrRates_NoAcceptHeader_StillReturnsJson() throws Exception {
+        // Arrange
+        LatestRatesResponse mockResponse = new LatestRatesResponse(
+            "IDR", "2024-01-15", Map.of("USD", 0.000064), 15800.0
+        );
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(dataStoreService.getData("latest_idr_rates", LatestRatesResponse.class))
+            .thenReturn(mockResponse);
+
+        // Act & Assert
+        binaryClient().get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.base").isEqualTo("IDR");
+    }
+
+    // ==================== COMPRESSION TESTS ====================
+
+    @Test
+    void getLatestIdrRates_AcceptsGzip_ServesPrecomputedGzip() throws Exception {
+        // Arrange
+        Map<String, Double> rates = new HashMap<>();
+        for (String code : List.of("USD", "EUR", "SGD", "JPY", "GBP", "AUD", "CNY", "MYR")) {
+            rates.put(code, 0.000064);
+        }
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(dataStoreService.getData("latest_idr_rates", LatestRatesResponse.class))
+            .thenReturn(new LatestRatesResponse("IDR", "2024-01-15", rates, 15800.0));
+        // Publishing is what gzips the body
+        ArgumentCaptor<Runnable> publish = ArgumentCaptor.forClass(Runnable.class);
+        verify(dataStoreService).onPublish(publish.capture());
+        publish.getValue().run();
+
+        // Act
+        byte[] body = webTestClient.get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            JsonNode decoded = new ObjectMapper().readTree(in);
+            assertEquals("IDR", decoded.get("base").asText());
+            assertEquals(0.000064, decoded.get("rates").get("USD").doubleValue());
+        }
+    }
+
+    @Test
+    void getLatestIdrRates_NoAcceptEncoding_ServesIdentity() throws Exception {
+        // Arrange
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+        when(dataStoreService.getData("latest_idr_rates", LatestRatesResponse.class))
+            .thenReturn(new LatestRatesResponse("IDR", "2024-01-15", Map.of("USD", 0.000064), 15800.0));
+
+        // Act & Assert
+        webTestClient.get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody()
+                .jsonPath("$.rates.USD").isEqualTo(0.000064);
+    }
+
+    @Test
+    void acceptsGzip_HonoursQualityAndWildcard() {
+        assertTrue(FinanceController.acceptsGzip(acceptEncoding("gzip, deflate, br")));
+        assertTrue(FinanceController.acceptsGzip(acceptEncoding("br;q=1.0, GZIP;q=0.5")));
+        assertTrue(FinanceController.acceptsGzip(acceptEncoding("*")));
+        assertFalse(FinanceController.acceptsGzip(acceptEncoding("gzip;q=0")));
+        assertFalse(FinanceController.acceptsGzip(acceptEncoding("deflate, br")));
+        assertFalse(FinanceController.acceptsGzip(new HttpHeaders()));
+    }
+
+    @Test
+    void servesJson_OnlyWhenNegotiationWouldPickJson() {
+        assertTrue(FinanceController.servesJson(new HttpHeaders()));
+        assertTrue(FinanceController.servesJson(accept("*/*")));
+        assertTrue(FinanceController.servesJson(accept("text/html, application/json;q=0.9, */*;q=0.8")));
+        assertFalse(FinanceController.servesJson(accept("application/cbor")));
+        assertFalse(FinanceController.servesJson(accept("application/x-jackson-smile, */*;q=0.1")));
+        assertFalse(FinanceController.servesJson(accept("text/plain")));
+    }
+
+    private static HttpHeaders acceptEncoding(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, value);
+        return headers;
+    }
+
+    private static HttpHeaders accept(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT, value);
+        return headers;
     }
 
     // ==================== HEALTH CHECK TESTS ====================
@@ -351,12 +741,15 @@ class FinanceControllerTest {
         when(dataStoreService.isInitialized()).thenReturn(true);
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/health")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.status").value("UP"))
-                .andExpect(jsonPath("$.initialized").value(true));
+        webTestClient.get()
+                .uri("/api/finance/data/health")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("UP")
+                .jsonPath("$.initialized").isEqualTo(true);
     }
 
     @Test
@@ -365,12 +758,15 @@ class FinanceControllerTest {
         when(dataStoreService.isInitialized()).thenReturn(false);
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/health")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.status").value("INITIALIZING"))
-                .andExpect(jsonPath("$.initialized").value(false));
+        webTestClient.get()
+                .uri("/api/finance/data/health")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("INITIALIZING")
+                .jsonPath("$.initialized").isEqualTo(false);
     }
 
     // ==================== INVALID RESOURCE TYPE TESTS ====================
@@ -378,16 +774,19 @@ class FinanceControllerTest {
     @Test
     void getData_InvalidResourceType() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/invalid_resource")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Invalid Resource Type"))
-                .andExpect(jsonPath("$.message").value("Valid resource types are: latest_idr_rates, supported_currencies"))
-                .andExpect(jsonPath("$.provided").value("invalid_resource"));
+        webTestClient.get()
+                .uri("/api/finance/data/invalid_resource")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Resource Type")
+                .jsonPath("$.message").isEqualTo("Valid resource types are: latest_idr_rates, supported_currencies")
+                .jsonPath("$.provided").isEqualTo("invalid_resource");
     }
 
     // ==================== INTERNAL SERVER ERROR TESTS ====================
@@ -395,17 +794,20 @@ class FinanceControllerTest {
     @Test
     void getData_InternalServerError() throws Exception {
         // Arrange
-        when(dataStoreService.isInitialized()).thenReturn(true);
+        when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
         when(dataStoreService.getData("latest_idr_rates", LatestRatesResponse.class))
             .thenThrow(new RuntimeException("Database connection failed"));
 
         // Act & Assert
-        mockMvc.perform(get("/api/finance/data/latest_idr_rates")
-                .accept(MediaType.APPLICATION_JSON))
-                .andExpect(status().isInternalServerError())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.error").value("Internal Server Error"))
-                .andExpect(jsonPath("$.message").value("An unexpected error occurred while processing your request"));
+        webTestClient.get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Internal Server Error")
+                .jsonPath("$.message").isEqualTo("An unexpected error occurred while processing your request");
     }
 
     // ==================== DATE VALIDATION TESTS ====================
@@ -415,20 +817,20 @@ class FinanceControllerTest {
         // This test uses reflection or we could extract the method to a utility class
         // For now, we'll test valid date formats through the endpoint
         try {
-            when(dataStoreService.isInitialized()).thenReturn(true);
-            doReturn(requestHeadersUriSpec).when(webClient).get();
-            doReturn(requestHeadersUriSpec).when(requestHeadersUriSpec).uri(anyString());
-            doReturn(responseSpec).when(requestHeadersUriSpec).retrieve();
-            when(responseSpec.bodyToMono(FrankfurterHistoricalResponse.class))
+            when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+            when(historicalRatesService.getHistoricalRates(anyString(), anyString(), anyString(), anyString()))
                 .thenReturn(Mono.just(new FrankfurterHistoricalResponse()));
 
-            mockMvc.perform(get("/api/finance/data/historical/custom")
-                    .param("start", "2024-01-01")  // Valid date
-                    .param("end", "2024-12-31")    // Valid date
-                    .param("from", "USD")
-                    .param("to", "EUR")
-                    .accept(MediaType.APPLICATION_JSON))
-                    .andExpect(status().isOk());
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                            .queryParam("start", "2024-01-01")  // Valid date
+                            .queryParam("end", "2024-12-31")  // Valid date
+                            .queryParam("from", "USD")
+                            .queryParam("to", "EUR")
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk();
         } catch (Exception e) {
             // Expected in test environment
         }
@@ -447,16 +849,20 @@ class FinanceControllerTest {
 
         for (String invalidDate : invalidDates) {
             try {
-                when(dataStoreService.isInitialized()).thenReturn(true);
-
-                mockMvc.perform(get("/api/finance/data/historical/custom")
-                        .param("start", invalidDate)
-                        .param("end", "2024-12-31")
-                        .param("from", "USD")
-                        .param("to", "EUR")
-                        .accept(MediaType.APPLICATION_JSON))
-                        .andExpect(status().isBadRequest())
-                        .andExpect(jsonPath("$.error").value("Invalid Date Format"));
+                when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+
+                webTestClient.get()
+                        .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                                .queryParam("start", invalidDate)
+                                .queryParam("end", "2024-12-31")
+                                .queryParam("from", "USD")
+                                .queryParam("to", "EUR")
+                                .build())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .expectStatus().isBadRequest()
+                        .expectBody()
+                        .jsonPath("$.error").isEqualTo("Invalid Date Format");
             } catch (Exception e) {
                 // Expected in test environment
             }
@@ -471,20 +877,20 @@ class FinanceControllerTest {
 
         for (String validCode : validCodes) {
             try {
-                when(dataStoreService.isInitialized()).thenReturn(true);
-                doReturn(requestHeadersUriSpec).when(webClient).get();
-                doReturn(requestHeadersUriSpec).when(requestHeadersUriSpec).uri(anyString());
-                doReturn(responseSpec).when(requestHeadersUriSpec).retrieve();
-                when(responseSpec.bodyToMono(FrankfurterHistoricalResponse.class))
+                when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+                when(historicalRatesService.getHistoricalRates(anyString(), anyString(), anyString(), anyString()))
                     .thenReturn(Mono.just(new FrankfurterHistoricalResponse()));
 
-                mockMvc.perform(get("/api/finance/data/historical/custom")
-                        .param("start", "2024-01-01")
-                        .param("end", "2024-12-31")
-                        .param("from", validCode)
-                        .param("to", "USD")
-                        .accept(MediaType.APPLICATION_JSON))
-                        .andExpect(status().isOk());
+                webTestClient.get()
+                        .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                                .queryParam("start", "2024-01-01")
+                                .queryParam("end", "2024-12-31")
+                                .queryParam("from", validCode)
+                                .queryParam("to", "USD")
+                                .build())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .expectStatus().isOk();
             } catch (Exception e) {
                 // Expected in test environment
             }
@@ -510,16 +916,20 @@ class FinanceControllerTest {
                 continue;
             }
             try {
-                when(dataStoreService.isInitialized()).thenReturn(true);
-
-                mockMvc.perform(get("/api/finance/data/historical/custom")
-                        .param("start", "2024-01-01")
-                        .param("end", "2024-12-31")
-                        .param("from", invalidCode)
-                        .param("to", "USD")
-                        .accept(MediaType.APPLICATION_JSON))
-                        .andExpect(status().isBadRequest())
-                        .andExpect(jsonPath("$.error").value("Invalid Currency Code"));
+                when(dataStoreService.awaitInitialized(any())).thenReturn(Mono.just(true));
+
+                webTestClient.get()
+                        .uri(uriBuilder -> uriBuilder.path("/api/finance/data/historical/custom")
+                                .queryParam("start", "2024-01-01")
+                                .queryParam("end", "2024-12-31")
+                                .queryParam("from", invalidCode)
+                                .queryParam("to", "USD")
+                                .build())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .expectStatus().isBadRequest()
+                        .expectBody()
+                        .jsonPath("$.error").isEqualTo("Invalid Currency Code");
             } catch (Exception e) {
                 // Expected in test environment
             }
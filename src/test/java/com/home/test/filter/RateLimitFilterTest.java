@@ -0,0 +1,246 @@
+package com.home.test.filter;
+
+import com.home.test.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private static final String HISTORICAL = "/api/finance/data/historical/custom?start=2025-01-01&end=2025-01-31&from=IDR&to=USD";
+
+    private RateLimitProperties properties;
+    private AtomicLong clock;
+    private AtomicInteger handled;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setRequestsPerSecond(1.0);
+        properties.setBurst(2);
+        properties.setUpstreamConcurrency(1);
+        properties.setApiKeys(List.of("client-a", "client-b"));
+        clock = new AtomicLong();
+        handled = new AtomicInteger();
+        filter = new RateLimitFilter(properties, clock::get);
+    }
+
+    @Test
+    void filter_WithinBurst_PassesToHandler() {
+        // Act
+        MockServerWebExchange first = exchange("/api/finance/data/latest_idr_rates", "client-a");
+        MockServerWebExchange second = exchange("/api/finance/data/latest_idr_rates", "client-a");
+        filter.filter(first, countingChain()).block();
+        filter.filter(second, countingChain()).block();
+
+        // Assert
+        assertEquals(2, handled.get());
+        assertNull(first.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_OverLimit_Returns429WithRetryAfter() {
+        // Arrange
+        filter.filter(exchange("/api/finance/data/latest_idr_rates", "client-a"), countingChain()).block();
+        filter.filter(exchange("/api/finance/data/latest_idr_rates", "client-a"), countingChain()).block();
+
+        // Act
+        MockServerWebExchange rejected = exchange("/api/finance/data/latest_idr_rates", "client-a");
+        filter.filter(rejected, countingChain()).block();
+
+        // Assert
+        assertEquals(2, handled.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getResponse().getBodyAsString().block().contains("\"error\":\"Too Many Requests\""));
+    }
+
+    @Test
+    void filter_TokensRefillOverTime() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            filter.filter(exchange("/api/finance/data/latest_idr_rates", "client-a"), countingChain()).block();
+        }
+
+        // Act
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        filter.filter(exchange("/api/finance/data/latest_idr_rates", "client-a"), countingChain()).block();
+
+        // Assert
+        assertEquals(3, handled.get());
+    }
+
+    @Test
+    void filter_ClientsHaveIndependentBuckets() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            filter.filter(exchange("/api/finance/data/latest_idr_rates", "client-a"), countingChain()).block();
+        }
+        MockServerWebExchange other = exchange("/api/finance/data/latest_idr_rates", "client-b");
+        filter.filter(other, countingChain()).block();
+
+        // Assert
+        assertEquals(3, handled.get());
+        assertNull(other.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_UnknownApiKeys_ShareTheRemoteAddressBucket() {
+        // Act - rotating an unlisted key must not buy fresh tokens
+        for (int i = 0; i < 3; i++) {
+            filter.filter(exchange("/api/finance/data/latest_idr_rates", "guess-" + i, "10.0.0.1"), countingChain()).block();
+        }
+        MockServerWebExchange otherAddress = exchange("/api/finance/data/latest_idr_rates", "guess-3", "10.0.0.2");
+        filter.filter(otherAddress, countingChain()).block();
+
+        // Assert
+        assertEquals(3, handled.get());
+        assertNull(otherAddress.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_BehindTrustedProxy_KeysByForwardedClient() {
+        // Arrange
+        properties.setTrustedProxies(List.of("10.0.0.254", "10.0.0.253"));
+        filter = new RateLimitFilter(properties, clock::get);
+
+        // Act - two clients through two proxy hops, the first also sending a spoofed entry of its own
+        for (int i = 0; i < 3; i++) {
+            filter.filter(forwarded("spoof-" + i + ", 203.0.113.7, 10.0.0.253"), countingChain()).block();
+        }
+        MockServerWebExchange otherClient = forwarded("198.51.100.9, 10.0.0.253");
+        filter.filter(otherClient, countingChain()).block();
+
+        // Assert
+        assertEquals(3, handled.get());
+        assertNull(otherClient.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_ForwardedForFromUntrustedAddress_IsIgnored() {
+        // Act - a client connecting directly cannot pick its bucket
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/finance/data/latest_idr_rates")
+                    .remoteAddress(new InetSocketAddress("10.0.0.1", 40000))
+                    .header("X-Forwarded-For", "203.0.113." + i));
+            filter.filter(exchange, countingChain()).block();
+        }
+
+        // Assert
+        assertEquals(2, handled.get());
+    }
+
+    @Test
+    void filter_IdleBucketsExpireOnceRefilled() {
+        // Arrange
+        filter.filter(exchange("/api/finance/data/latest_idr_rates", "client-a"), countingChain()).block();
+        filter.filter(exchange("/api/finance/data/latest_idr_rates", "client-b"), countingChain()).block();
+        assertEquals(2, filter.trackedClients());
+
+        // Act - burst 2 at 1 per second refills in 2 seconds
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        // Assert
+        assertEquals(0, filter.trackedClients());
+    }
+
+    @Test
+    void filter_TrackedClientsAreBounded() {
+        // Arrange
+        properties.setMaxTrackedClients(10);
+        RateLimitFilter bounded = new RateLimitFilter(properties, clock::get);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            bounded.filter(exchange("/api/finance/data/latest_idr_rates", null, "10.0.1." + i), countingChain()).block();
+        }
+
+        // Assert
+        assertTrue(bounded.trackedClients() <= 10);
+    }
+
+    @Test
+    void filter_HealthIsNotLimited() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            filter.filter(exchange("/api/finance/data/health", "client-a"), countingChain()).block();
+        }
+
+        // Assert
+        assertEquals(10, handled.get());
+    }
+
+    @Test
+    void filter_UpstreamConcurrencyLimit_RejectsWhileSlotIsHeld() {
+        // Arrange
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        WebFilterChain slowChain = exchange -> upstream.asMono();
+        filter.filter(exchange(HISTORICAL, "client-a"), slowChain).subscribe();
+        assertEquals(1, filter.upstreamInFlight());
+
+        // Act
+        MockServerWebExchange rejected = exchange(HISTORICAL, "client-b");
+        filter.filter(rejected, countingChain()).block();
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        upstream.tryEmitEmpty();
+        assertEquals(0, filter.upstreamInFlight());
+        filter.filter(exchange(HISTORICAL, "client-b"), countingChain()).block();
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void filter_Disabled_PassesEverything() {
+        // Arrange
+        properties.setEnabled(false);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            filter.filter(exchange("/api/finance/data/latest_idr_rates", "client-a"), countingChain()).block();
+        }
+
+        // Assert
+        assertEquals(10, handled.get());
+    }
+
+    private MockServerWebExchange exchange(String uri, String apiKey) {
+        return exchange(uri, apiKey, "10.0.0.1");
+    }
+
+    private MockServerWebExchange exchange(String uri, String apiKey, String remoteAddress) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(uri)
+                .remoteAddress(new InetSocketAddress(remoteAddress, 40000));
+        if (apiKey != null) {
+            request.header("X-API-Key", apiKey);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private MockServerWebExchange forwarded(String forwardedFor) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/finance/data/latest_idr_rates")
+                .remoteAddress(new InetSocketAddress("10.0.0.254", 40000))
+                .header("X-Forwarded-For", forwardedFor));
+    }
+
+    private WebFilterChain countingChain() {
+        return exchange -> Mono.fromRunnable(handled::incrementAndGet);
+    }
+}
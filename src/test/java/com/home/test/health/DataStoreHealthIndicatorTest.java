@@ -0,0 +1,79 @@
+package com.home.test.health;
+
+import com.home.test.config.SnapshotProperties;
+import com.home.test.service.DataStoreService;
+import com.home.test.service.SnapshotFileStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataStoreHealthIndicatorTest {
+
+    private DataStoreService dataStoreService;
+    private DataStoreHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        SnapshotProperties snapshotProperties = new SnapshotProperties();
+        snapshotProperties.setEnabled(false);
+        dataStoreService = new DataStoreService(new SnapshotFileStore(snapshotProperties));
+        healthIndicator = new DataStoreHealthIndicator(dataStoreService);
+    }
+
+    @Test
+    void health_NotInitialized_OutOfService() {
+        // Act
+        Health health = healthIndicator.health();
+
+        // Assert
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+    }
+
+    @Test
+    void health_Initialized_UpWithResources() {
+        // Arrange
+        dataStoreService.storeData("latest_idr_rates", List.of("USD"));
+        dataStoreService.storeData("supported_currencies", List.of("IDR"));
+        dataStoreService.markAsInitialized();
+
+        // Act
+        Health health = healthIndicator.health();
+
+        // Assert
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(Set.of("latest_idr_rates", "supported_currencies"), health.getDetails().get("resources"));
+    }
+
+    @Test
+    void health_InitializedWithoutLatestRates_OutOfService() {
+        // Arrange
+        dataStoreService.storeData("supported_currencies", List.of("IDR"));
+        dataStoreService.markAsInitialized();
+
+        // Act
+        Health health = healthIndicator.health();
+
+        // Assert
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals(List.of("latest_idr_rates"), health.getDetails().get("missing"));
+    }
+
+    @Test
+    void health_InitializedEmpty_OutOfService() {
+        // Arrange
+        dataStoreService.markAsInitialized();
+
+        // Act
+        Health health = healthIndicator.health();
+
+        // Assert
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals(DataStoreHealthIndicator.REQUIRED_RESOURCES, health.getDetails().get("missing"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.home.test.integration;
+
+import com.home.test.TestApplication;
+import com.home.test.benchmark.FrankfurterStub;
+import com.home.test.dto.PeerHeartbeat;
+import com.home.test.service.PeerRefreshCoordinator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three instances of the application on localhost in {@code cluster.mode=peers}, loading from
+ * {@link FrankfurterStub}, to check that one node loads and every node ends up serving its snapshot.
+ */
+class PeerClusterIntegrationTest {
+
+    private static final String[] INSTANCE_IDS = {"node-a", "node-b", "node-c"};
+    private static final Duration CONVERGE_TIMEOUT = Duration.ofSeconds(30);
+
+    private FrankfurterStub stub;
+    private List<Integer> ports;
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = FrankfurterStub.start();
+        ports = new ArrayList<>();
+        for (int i = 0; i < INSTANCE_IDS.length; i++) {
+            ports.add(freePort());
+        }
+        // Lowest instance id first, so it is the leader from the first round
+        for (int i = 0; i < INSTANCE_IDS.length; i++) {
+            nodes.add(startNode(INSTANCE_IDS[i], ports.get(i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        stub.close();
+    }
+
+    @Test
+    void peers_OneNodeLoadsAndEveryNodeServesItsSnapshot() {
+        // Act
+        awaitUntil(() -> {
+            List<Long> versions = IntStream.range(0, nodes.size()).mapToObj(i -> heartbeat(i).getVersion()).toList();
+            return versions.get(0) > 0 && versions.stream().distinct().count() == 1;
+        });
+
+        // Assert
+        assertTrue(heartbeat(0).isLeader());
+        assertFalse(heartbeat(1).isLeader());
+        assertFalse(heartbeat(2).isLeader());
+        assertEquals(1, stub.requests("/latest"));
+        assertEquals(1, stub.requests("/currencies"));
+        String leaderRates = latestRates(0);
+        assertEquals(leaderRates, latestRates(1));
+        assertEquals(leaderRates, latestRates(2));
+    }
+
+    @Test
+    void peers_LeaderStops_NextNodeTakesOverWithoutRefetching() {
+        // Arrange
+        awaitUntil(() -> heartbeat(1).getVersion() > 0 && heartbeat(2).getVersion() > 0);
+        long version = heartbeat(2).getVersion();
+
+        // Act
+        nodes.remove(0).close();
+        awaitUntil(() -> heartbeat(0).isLeader());
+
+        // Assert - the next load is one refresh interval after the snapshot it already holds
+        assertFalse(heartbeat(1).isLeader());
+        assertEquals(version, heartbeat(0).getVersion());
+        assertEquals(1, stub.requests("/latest"));
+    }
+
+    private ConfigurableApplicationContext startNode(String instanceId, int port) {
+        // Every node gets the same peers list, itself included
+        String peers = ports.stream().map(p -> "http://127.0.0.1:" + p).collect(Collectors.joining(","));
+        return new SpringApplicationBuilder(TestApplication.class)
+                // Own event loops per node: closing one must not dispose the Netty resources the others use
+                .initializers(context -> ((GenericApplicationContext) context).registerBean(ReactorResourceFactory.class, () -> {
+                    ReactorResourceFactory resources = new ReactorResourceFactory();
+                    resources.setUseGlobalResources(false);
+                    resources.setShutdownQuietPeriod(Duration.ZERO);
+                    return resources;
+                }))
+                .run(
+                "--server.port=" + port,
+                "--frankfurter.api.base-url=" + stub.baseUrl(),
+                "--snapshot.enabled=false",
+                "--rate-limit.enabled=false",
+                "--server.shutdown=immediate",
+                "--cluster.enabled=true",
+                "--cluster.mode=peers",
+                "--cluster.instance-id=" + instanceId,
+                "--cluster.peers=" + peers,
+                "--cluster.peer-token=integration-secret",
+                "--cluster.sync-interval-ms=200",
+                "--cluster.peer-timeout-ms=500");
+    }
+
+    private PeerHeartbeat heartbeat(int node) {
+        return client(node).get()
+                .uri(PeerRefreshCoordinator.HEARTBEAT_PATH)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PeerHeartbeat.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private String latestRates(int node) {
+        return client(node).get()
+                .uri("/api/finance/data/latest_idr_rates")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private WebTestClient client(int node) {
+        int port = ((WebServerApplicationContext) nodes.get(node)).getWebServer().getPort();
+        return WebTestClient.bindToServer().baseUrl("http://127.0.0.1:" + port).build();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + CONVERGE_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Cluster did not converge within " + CONVERGE_TIMEOUT);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting for the cluster");
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -3,20 +3,32 @@ package com.home.test.runner;
 import com.home.test.dto.CurrencyResponse;
 import com.home.test.dto.LatestRatesResponse;
 import com.home.test.service.DataStoreService;
+import com.home.test.service.RefreshCoordinator;
+import com.home.test.strategy.IDRDataFetcher;
 import com.home.test.strategy.LatestRatesStrategy;
 import com.home.test.strategy.SupportedCurrenciesStrategy;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.ApplicationArguments;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,17 +46,6 @@ class DataInitializationRunnerTest {
     @Mock
     private ApplicationArguments applicationArguments;
 
-    private DataInitializationRunner runner;
-
-    @BeforeEach
-    void setUp() {
-        runner = new DataInitializationRunner(
-                latestRatesStrategy,
-                supportedCurrenciesStrategy,
-                dataStoreService
-        );
-    }
-
     @Test
     void testRun_SuccessfulInitialization() throws Exception {
         LatestRatesResponse latestRatesResponse = new LatestRatesResponse();
@@ -54,14 +55,14 @@ class DataInitializationRunnerTest {
 
         CurrencyResponse currencyResponse = new CurrencyResponse(List.of("USD", "EUR", "IDR"));
 
+        stubStrategies();
         when(latestRatesStrategy.fetchData()).thenReturn(Mono.just(latestRatesResponse));
         when(supportedCurrenciesStrategy.fetchData()).thenReturn(Mono.just(currencyResponse));
-        when(dataStoreService.isInitialized()).thenReturn(true);
 
-        runner.run(applicationArguments);
+        runner(latestRatesStrategy, supportedCurrenciesStrategy).initialize().block();
 
-        verify(dataStoreService).storeLatestRates(latestRatesResponse);
-        verify(dataStoreService).storeSupportedCurrencies(currencyResponse);
+        verify(dataStoreService).storeData("latest_idr_rates", latestRatesResponse);
+        verify(dataStoreService).storeData("supported_currencies", currencyResponse);
         verify(dataStoreService).markAsInitialized();
         verify(dataStoreService, never()).clearData();
     }
@@ -70,14 +71,16 @@ class DataInitializationRunnerTest {
     void testRun_LatestRatesFailure() throws Exception {
         CurrencyResponse currencyResponse = new CurrencyResponse(List.of("USD", "EUR", "IDR"));
 
+        stubStrategies();
         when(latestRatesStrategy.fetchData()).thenReturn(Mono.error(new RuntimeException("API Error")));
+        when(latestRatesStrategy.fallback(any())).thenReturn(Mono.empty());
         when(supportedCurrenciesStrategy.fetchData()).thenReturn(Mono.just(currencyResponse));
-        when(dataStoreService.isInitialized()).thenReturn(false, true);
 
-        // Should not throw exception anymore - just handle gracefully
-        assertDoesNotThrow(() -> runner.run(applicationArguments));
+        // Should not throw exception - just handle gracefully
+        assertDoesNotThrow(() -> runner(latestRatesStrategy, supportedCurrenciesStrategy).initialize().block());
 
-        // Should NOT clear data on individual strategy failure (handled gracefully with onErrorResume)
+        verify(dataStoreService).storeData("supported_currencies", currencyResponse);
+        verify(dataStoreService, never()).storeData(eq("latest_idr_rates"), any());
         verify(dataStoreService, never()).clearData();
         // Should still mark as initialized to allow degraded mode
         verify(dataStoreService).markAsInitialized();
@@ -90,31 +93,42 @@ class DataInitializationRunnerTest {
         latestRatesResponse.setDate("2024-01-01");
         latestRatesResponse.setRates(Map.of("USD", 0.000065));
 
+        stubStrategies();
         when(latestRatesStrategy.fetchData()).thenReturn(Mono.just(latestRatesResponse));
         when(supportedCurrenciesStrategy.fetchData()).thenReturn(Mono.error(new RuntimeException("API Error")));
-        when(dataStoreService.isInitialized()).thenReturn(false, true);
+        when(supportedCurrenciesStrategy.fallback(any())).thenReturn(Mono.empty());
 
-        // Should not throw exception anymore - just handle gracefully
-        assertDoesNotThrow(() -> runner.run(applicationArguments));
+        assertDoesNotThrow(() -> runner(latestRatesStrategy, supportedCurrenciesStrategy).initialize().block());
 
-        // Should NOT clear data on individual strategy failure (handled gracefully with onErrorResume)
+        verify(dataStoreService).storeData("latest_idr_rates", latestRatesResponse);
         verify(dataStoreService, never()).clearData();
-        // But should still mark as initialized to allow degraded mode
         verify(dataStoreService).markAsInitialized();
     }
 
     @Test
-    void testRun_Timeout() throws Exception {
-        when(latestRatesStrategy.fetchData()).thenReturn(Mono.never());
-        when(supportedCurrenciesStrategy.fetchData()).thenReturn(Mono.never());
+    void testRun_PerFetcherTimeoutUsesFallback() throws Exception {
+        CurrencyResponse fallback = new CurrencyResponse(List.of("IDR"));
+        TestFetcher slow = new TestFetcher("slow", Mono.never(), Duration.ofMillis(100), Mono.just(fallback));
+        TestFetcher fast = new TestFetcher("fast", Mono.just("data"));
 
-        // Should not throw exception anymore - just handle gracefully
-        assertDoesNotThrow(() -> runner.run(applicationArguments));
+        long started = System.nanoTime();
+        runner(slow, fast).initialize().block();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
 
-        // Should clear data on timeout (this triggers the doOnError block)
-        verify(dataStoreService, times(1)).clearData();
-        // Should mark as initialized twice: once in doOnError, once in catch block
-        verify(dataStoreService, times(2)).markAsInitialized();
+        assertTrue(elapsedMillis < 5_000, "Timeout should be bounded by the fetcher, not a global timeout");
+        verify(dataStoreService).storeData("slow", fallback);
+        verify(dataStoreService).storeData("fast", "data");
+        verify(dataStoreService).markAsInitialized();
+    }
+
+    @Test
+    void testRun_TimeoutWithoutFallbackSkipsResource() throws Exception {
+        TestFetcher slow = new TestFetcher("slow", Mono.never(), Duration.ofMillis(50), Mono.empty());
+
+        assertDoesNotThrow(() -> runner(slow).initialize().block());
+
+        verify(dataStoreService, never()).storeData(anyString(), any());
+        verify(dataStoreService).markAsInitialized();
     }
 
     @Test
@@ -122,15 +136,238 @@ class DataInitializationRunnerTest {
         LatestRatesResponse latestRatesResponse = new LatestRatesResponse();
         CurrencyResponse currencyResponse = new CurrencyResponse(List.of());
 
+        stubStrategies();
         when(latestRatesStrategy.fetchData()).thenReturn(Mono.just(latestRatesResponse));
         when(supportedCurrenciesStrategy.fetchData()).thenReturn(Mono.just(currencyResponse));
-        when(dataStoreService.isInitialized()).thenReturn(false, true);
 
-        runner.run(applicationArguments);
+        runner(latestRatesStrategy, supportedCurrenciesStrategy).initialize().block();
 
-        verify(dataStoreService).storeLatestRates(latestRatesResponse);
-        verify(dataStoreService).storeSupportedCurrencies(currencyResponse);
+        verify(dataStoreService).storeData("latest_idr_rates", latestRatesResponse);
+        verify(dataStoreService).storeData("supported_currencies", currencyResponse);
         verify(dataStoreService).markAsInitialized();
         verify(dataStoreService, never()).clearData();
     }
+
+    @Test
+    void testRun_IndependentFetchersRunInParallel() throws Exception {
+        TestFetcher first = new TestFetcher("first", Mono.just("a").delayElement(Duration.ofMillis(300)));
+        TestFetcher second = new TestFetcher("second", Mono.just("b").delayElement(Duration.ofMillis(300)));
+        TestFetcher third = new TestFetcher("third", Mono.just("c").delayElement(Duration.ofMillis(300)));
+
+        long started = System.nanoTime();
+        runner(first, second, third).initialize().block();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(elapsedMillis < 800, "Expected parallel loading but took " + elapsedMillis + "ms");
+        verify(dataStoreService, times(3)).storeData(anyString(), any());
+    }
+
+    @Test
+    void testRun_DependentStartsAfterDependencyCompletes() throws Exception {
+        TestFetcher currencies = new TestFetcher("currencies", Mono.just("codes").delayElement(Duration.ofMillis(200)));
+        TestFetcher rates = new TestFetcher("rates", Mono.just("rates"), Set.of("currencies"));
+
+        runner(rates, currencies).initialize().block();
+
+        assertTrue(rates.subscribedAt.get() >= currencies.completedAt.get(),
+                "Dependent fetcher must not start before its dependency has completed");
+        verify(dataStoreService).storeData("currencies", "codes");
+        verify(dataStoreService).storeData("rates", "rates");
+    }
+
+    @Test
+    void testRun_DependentStillRunsWhenDependencyFails() throws Exception {
+        TestFetcher currencies = new TestFetcher("currencies", Mono.error(new RuntimeException("API Error")));
+        TestFetcher rates = new TestFetcher("rates", Mono.just("rates"), Set.of("currencies"));
+
+        runner(rates, currencies).initialize().block();
+
+        verify(dataStoreService).storeData("rates", "rates");
+        verify(dataStoreService).markAsInitialized();
+    }
+
+    @Test
+    void testRun_ReturnsBeforeDataIsLoaded() throws Exception {
+        Sinks.One<Object> pending = Sinks.one();
+        TestFetcher slow = new TestFetcher("slow", pending.asMono());
+
+        runner(slow).run(applicationArguments);
+
+        verify(dataStoreService, never()).markAsInitialized();
+
+        pending.tryEmitValue("data");
+
+        verify(dataStoreService, timeout(1_000)).storeData("slow", "data");
+        verify(dataStoreService, timeout(1_000)).markAsInitialized();
+    }
+
+    @Test
+    void testRun_RestoresSnapshotBeforeLiveLoad() throws Exception {
+        Sinks.One<Object> pending = Sinks.one();
+        when(dataStoreService.restoreSnapshot()).thenReturn(true);
+
+        runner(new TestFetcher("slow", pending.asMono())).run(applicationArguments);
+
+        verify(dataStoreService).restoreSnapshot();
+        verify(dataStoreService, never()).storeData(anyString(), any());
+
+        pending.tryEmitValue("fresh");
+
+        verify(dataStoreService, timeout(1_000)).storeData("slow", "fresh");
+        verify(dataStoreService, timeout(1_000)).markAsInitialized();
+    }
+
+    @Test
+    void testRefresh_FetcherStoredNothing_ErrorsAfterPublishing() {
+        TestFetcher rates = new TestFetcher("rates", Mono.just("rates"));
+        TestFetcher currencies = new TestFetcher("currencies", Mono.error(new RuntimeException("API Error")));
+
+        StepVerifier.create(runner(rates, currencies).refresh())
+                .expectErrorSatisfies(error -> {
+                    assertInstanceOf(IllegalStateException.class, error);
+                    assertTrue(error.getMessage().contains("currencies"));
+                })
+                .verify();
+
+        verify(dataStoreService).storeData("rates", "rates");
+        verify(dataStoreService).markAsInitialized();
+    }
+
+    @Test
+    void testInitializeUntilLoaded_FirstLoadFails_RetriesUntilLoaded() {
+        AtomicInteger attempts = new AtomicInteger();
+        TestFetcher flaky = new TestFetcher("rates", Mono.defer(() -> attempts.incrementAndGet() < 3
+                ? Mono.error(new RuntimeException("Frankfurter down"))
+                : Mono.just("rates")));
+
+        StepVerifier.withVirtualTime(() -> runner(flaky).initializeUntilLoaded())
+                .thenAwait(Duration.ofMinutes(1))
+                .verifyComplete();
+
+        assertEquals(3, attempts.get());
+        verify(dataStoreService).storeData("rates", "rates");
+        verify(dataStoreService, times(3)).markAsInitialized();
+    }
+
+    @Test
+    void testRun_ClusterEnabled_LeavesLoadToRefreshCoordinator() throws Exception {
+        RefreshCoordinator refreshCoordinator = mock(RefreshCoordinator.class);
+        when(refreshCoordinator.isEnabled()).thenReturn(true);
+        TestFetcher fetcher = new TestFetcher("data", Mono.just("value"));
+
+        new DataInitializationRunner(List.of(fetcher), dataStoreService, Schedulers.immediate(), refreshCoordinator)
+                .run(applicationArguments);
+
+        verify(refreshCoordinator).start(any());
+        verify(dataStoreService, never()).storeData(anyString(), any());
+        verify(dataStoreService, never()).markAsInitialized();
+    }
+
+    @Test
+    void testInitialize_PublishesOnBlockingScheduler() {
+        Scheduler blockingScheduler = Schedulers.newSingle("blocking-test");
+        AtomicReference<String> publishingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            publishingThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(dataStoreService).markAsInitialized();
+
+        try {
+            new DataInitializationRunner(List.of(new TestFetcher("fast", Mono.just("data"))), dataStoreService, blockingScheduler)
+                    .initialize()
+                    .block();
+        } finally {
+            blockingScheduler.dispose();
+        }
+
+        assertTrue(publishingThread.get().startsWith("blocking-test"), "Published on " + publishingThread.get());
+    }
+
+    @Test
+    void testConstructor_RejectsCycles() {
+        TestFetcher a = new TestFetcher("a", Mono.just("a"), Set.of("b"));
+        TestFetcher b = new TestFetcher("b", Mono.just("b"), Set.of("a"));
+
+        assertThrows(IllegalStateException.class, () -> runner(a, b));
+    }
+
+    @Test
+    void testConstructor_RejectsUnknownDependency() {
+        TestFetcher a = new TestFetcher("a", Mono.just("a"), Set.of("missing"));
+
+        assertThrows(IllegalStateException.class, () -> runner(a));
+    }
+
+    @Test
+    void testConstructor_RejectsDuplicateResourceTypes() {
+        assertThrows(IllegalStateException.class,
+                () -> runner(new TestFetcher("a", Mono.just("1")), new TestFetcher("a", Mono.just("2"))));
+    }
+
+    private DataInitializationRunner runner(IDRDataFetcher<?>... fetchers) {
+        return new DataInitializationRunner(List.of(fetchers), dataStoreService);
+    }
+
+    private void stubStrategies() {
+        when(latestRatesStrategy.getResourceType()).thenReturn("latest_idr_rates");
+        when(latestRatesStrategy.getTimeout()).thenReturn(IDRDataFetcher.DEFAULT_TIMEOUT);
+        when(supportedCurrenciesStrategy.getResourceType()).thenReturn("supported_currencies");
+        when(supportedCurrenciesStrategy.getTimeout()).thenReturn(IDRDataFetcher.DEFAULT_TIMEOUT);
+    }
+
+    private static class TestFetcher implements IDRDataFetcher<Object> {
+        private final String resourceType;
+        private final Mono<Object> data;
+        private final Set<String> dependencies;
+        private final Duration timeout;
+        private final Mono<Object> fallback;
+        final AtomicLong subscribedAt = new AtomicLong();
+        final AtomicLong completedAt = new AtomicLong();
+
+        TestFetcher(String resourceType, Mono<?> data) {
+            this(resourceType, data, Set.of());
+        }
+
+        TestFetcher(String resourceType, Mono<?> data, Set<String> dependencies) {
+            this(resourceType, data, dependencies, DEFAULT_TIMEOUT, Mono.empty());
+        }
+
+        TestFetcher(String resourceType, Mono<?> data, Duration timeout, Mono<?> fallback) {
+            this(resourceType, data, Set.of(), timeout, fallback);
+        }
+
+        TestFetcher(String resourceType, Mono<?> data, Set<String> dependencies, Duration timeout, Mono<?> fallback) {
+            this.resourceType = resourceType;
+            this.data = data.cast(Object.class);
+            this.dependencies = dependencies;
+            this.timeout = timeout;
+            this.fallback = fallback.cast(Object.class);
+        }
+
+        @Override
+        public Mono<Object> fetchData() {
+            subscribedAt.set(System.nanoTime());
+            return data.doOnSuccess(value -> completedAt.set(System.nanoTime()));
+        }
+
+        @Override
+        public String getResourceType() {
+            return resourceType;
+        }
+
+        @Override
+        public Set<String> getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        @Override
+        public Mono<Object> fallback(Throwable error) {
+            return fallback;
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package com.home.test.service;
+
+import com.home.test.dto.CurrencyInfo;
+import com.home.test.util.CurrencyRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyCatalogTest {
+
+    @Test
+    void build_SupportedSetIsExactlyTheUpstreamCodesSorted() {
+        // Act
+        CurrencyCatalog catalog = CurrencyCatalog.build(Map.of("USD", "US Dollar", "KES", "Kenyan Shilling", "idr", "Rupiah"));
+
+        // Assert
+        assertEquals(List.of("IDR", "KES", "USD"), catalog.getSupportedCodes());
+        assertTrue(catalog.isSupported("KES"));
+        assertTrue(catalog.isSupported("kes"));
+        assertFalse(catalog.isSupported("EUR"));
+    }
+
+    @Test
+    void lookup_NewUpstreamCurrencyUsesBundledIsoData() {
+        // Arrange
+        CurrencyCatalog catalog = CurrencyCatalog.build(Map.of("KES", "Kenyan Shilling"));
+
+        // Act
+        CurrencyInfo info = catalog.lookup("KES");
+
+        // Assert
+        assertEquals("KES", info.getCode());
+        assertEquals("Kenya", info.getCountry());
+        assertEquals("KE", info.getCountryCode());
+        assertEquals("KSh", info.getSymbol());
+        assertEquals(2, info.getDecimalPlaces());
+    }
+
+    @Test
+    void lookup_CodeOutsideDatasetUsesUpstreamName() {
+        // Arrange
+        Map<String, Object> upstream = new LinkedHashMap<>();
+        upstream.put("USD", "United States Dollar");
+        upstream.put("QQQ", "Quux Coin");
+        CurrencyCatalog catalog = CurrencyCatalog.build(upstream);
+
+        // Act
+        CurrencyInfo info = catalog.lookup("qqq");
+
+        // Assert
+        assertEquals("QQQ", info.getCode());
+        assertEquals("Quux Coin", info.getName());
+        assertTrue(catalog.isSupported("QQQ"));
+        assertEquals(List.of("QQQ", "USD"), catalog.getSupportedCodes());
+    }
+
+    @Test
+    void lookup_ReturnsSharedInstancesAndNullForUnknownCodes() {
+        // Arrange
+        CurrencyCatalog catalog = CurrencyCatalog.build(Map.of("USD", "United States Dollar"));
+
+        // Act & Assert
+        assertSame(catalog.lookup("USD"), catalog.lookup("usd"));
+        assertSame(catalog.lookup("EUR"), catalog.get(CurrencyRegistry.ordinal("EUR")));
+        assertNull(catalog.lookup("XYZ"));
+    }
+
+    @Test
+    void build_MarksIdrAndUsdAsBaseCurrencies() {
+        // Arrange
+        CurrencyCatalog catalog = CurrencyCatalog.build(Map.of("USD", "USD"));
+
+        // Act & Assert
+        assertTrue(catalog.lookup("IDR").isBaseCurrency());
+        assertTrue(catalog.lookup("USD").isBaseCurrency());
+        assertFalse(catalog.lookup("EUR").isBaseCurrency());
+    }
+}
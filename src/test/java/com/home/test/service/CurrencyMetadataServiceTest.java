@@ -1,6 +1,8 @@
 package com.home.test.service;
 
 import com.home.test.dto.CurrencyInfo;
+import com.home.test.dto.CurrencyResponse;
+import com.home.test.util.CurrencyRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -327,6 +330,99 @@ class CurrencyMetadataServiceTest {
         assertEquals(result.size(), uniqueCount);
     }
 
+    @Test
+    void enrichCurrency_EveryRegistryOrdinalHasMetadata() {
+        for (int ordinal = 0; ordinal < CurrencyRegistry.DATASET_SIZE; ordinal++) {
+            // Act
+            CurrencyInfo result = currencyMetadataService.enrichCurrency(ordinal);
+
+            // Assert
+            assertEquals(CurrencyRegistry.code(ordinal), result.getCode());
+            assertNotEquals("Unknown", result.getCountry());
+        }
+    }
+
+    // ==================== CATALOG REFRESH TESTS ====================
+
+    @Test
+    void refreshCatalog_ReplacesSupportedSetWithUpstreamCodes() {
+        // Act
+        currencyMetadataService.refreshCatalog(Map.of("USD", "US Dollar", "IDR", "Rupiah", "KES", "Kenyan Shilling"));
+
+        // Assert
+        assertEquals(List.of("IDR", "KES", "USD"), currencyMetadataService.getSupportedCurrencyCodes());
+        assertTrue(currencyMetadataService.isSupportedCurrency("KES"));
+        assertFalse(currencyMetadataService.isSupportedCurrency("EUR"));
+        assertEquals("Kenya", currencyMetadataService.enrichCurrency("KES").getCountry());
+    }
+
+    @Test
+    void refreshCatalog_RequestValidatorFollowsSupportedSet() {
+        // Arrange
+        assertTrue(currencyMetadataService.getRequestValidator().isSupportedCurrencyCode("EUR"));
+        assertFalse(currencyMetadataService.getRequestValidator().isSupportedCurrencyCode("KES"));
+
+        // Act
+        currencyMetadataService.refreshCatalog(Map.of("IDR", "Rupiah", "KES", "Kenyan Shilling", "QPC", "Quux Peso"));
+
+        // Assert
+        assertTrue(currencyMetadataService.getRequestValidator().isSupportedCurrencyCode("KES"));
+        assertTrue(currencyMetadataService.getRequestValidator().isSupportedCurrencyCode("QPC"));
+        assertFalse(currencyMetadataService.getRequestValidator().isSupportedCurrencyCode("EUR"));
+        assertFalse(currencyMetadataService.getRequestValidator().isSupportedCurrencyCode("kes"));
+        assertEquals("Quux Peso", currencyMetadataService.enrichCurrency(CurrencyRegistry.ordinal("QPC")).getName());
+    }
+
+    @Test
+    void refreshCatalog_EmptyPayloadKeepsCurrentCatalog() {
+        // Arrange
+        List<String> before = currencyMetadataService.getSupportedCurrencyCodes();
+
+        // Act
+        currencyMetadataService.refreshCatalog(Map.of());
+
+        // Assert
+        assertEquals(before, currencyMetadataService.getSupportedCurrencyCodes());
+    }
+
+    @Test
+    void publishedCurrencies_FollowerAdoptsLeadersSupportedSet() {
+        // Arrange - a follower never fetches /currencies, it only receives the leader's snapshot
+        DataStoreService dataStoreService = new DataStoreService();
+        CurrencyMetadataService follower = new CurrencyMetadataService(dataStoreService);
+        assertFalse(follower.getRequestValidator().isSupportedCurrencyCode("KES"));
+
+        // Act
+        dataStoreService.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR", "KES", "USD"))), 1L);
+
+        // Assert
+        assertTrue(follower.getRequestValidator().isSupportedCurrencyCode("KES"));
+        assertFalse(follower.getRequestValidator().isSupportedCurrencyCode("EUR"));
+        assertEquals(List.of("IDR", "KES", "USD"), follower.getSupportedCurrencyCodes());
+        assertEquals("Kenyan Shilling", follower.enrichCurrency("KES").getName());
+    }
+
+    @Test
+    void publishedCurrencies_FetchingNodeKeepsUpstreamNames() {
+        // Arrange
+        DataStoreService dataStoreService = new DataStoreService();
+        CurrencyMetadataService leader = new CurrencyMetadataService(dataStoreService);
+        leader.refreshCatalog(Map.of("IDR", "Rupiah", "QPC", "Quux Peso"));
+
+        // Act
+        dataStoreService.storeSupportedCurrencies(new CurrencyResponse(leader.getSupportedCurrencyCodes()));
+        dataStoreService.markAsInitialized();
+
+        // Assert
+        assertEquals("Quux Peso", leader.enrichCurrency(CurrencyRegistry.ordinal("QPC")).getName());
+    }
+
+    @Test
+    void enrichCurrency_KnownCurrencyIsALookupNotAnAllocation() {
+        // Act & Assert
+        assertSame(currencyMetadataService.enrichCurrency("USD"), currencyMetadataService.enrichCurrency("usd"));
+    }
+
     // ==================== CURRENCY METADATA TESTS ====================
 
     @Test
@@ -1,19 +1,29 @@
 package com.home.test.service;
 
+import com.home.test.config.SnapshotProperties;
 import com.home.test.dto.CurrencyResponse;
 import com.home.test.dto.LatestRatesResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +54,57 @@ class DataStoreServiceTest {
         assertTrue(dataStoreService.isInitialized());
     }
 
+    @Test
+    void awaitInitialized_NotInitialized_TimesOut() {
+        // Act & Assert
+        StepVerifier.create(dataStoreService.awaitInitialized(Duration.ofMillis(50)))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void awaitInitialized_InitializedWhileWaiting_ReturnsTrue() {
+        // Act & Assert
+        StepVerifier.create(dataStoreService.awaitInitialized(Duration.ofSeconds(5)))
+                .then(dataStoreService::markAsInitialized)
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void awaitInitialized_TimedOutWaiterDoesNotCancelSignal() {
+        // Arrange
+        dataStoreService.awaitInitialized(Duration.ofMillis(10)).block();
+
+        // Act & Assert
+        StepVerifier.create(dataStoreService.awaitInitialized(Duration.ofSeconds(5)))
+                .then(dataStoreService::markAsInitialized)
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void awaitInitialized_AfterClearData_WaitsAgain() {
+        // Arrange
+        dataStoreService.markAsInitialized();
+        dataStoreService.clearData();
+
+        // Act & Assert
+        StepVerifier.create(dataStoreService.awaitInitialized(Duration.ofMillis(50)))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void getResourceTypes_ReturnsStoredTypes() {
+        // Arrange
+        dataStoreService.storeData("supported_currencies", new CurrencyResponse(List.of("IDR")));
+        dataStoreService.storeData("latest_idr_rates", new LatestRatesResponse());
+
+        // Act & Assert
+        assertEquals(Set.of("latest_idr_rates", "supported_currencies"), dataStoreService.getResourceTypes());
+    }
+
     // ==================== LATEST RATES TESTS ====================
 
     @Test
@@ -347,10 +408,156 @@ class DataStoreServiceTest {
         assertEquals(0.000059, retrievedData.getRates().get("EUR")); // EUR added in latest
     }
 
+    @Test
+    void storeData_ArbitraryResourceType_ReturnsData() throws Exception {
+        // Arrange
+        CurrencyResponse data = new CurrencyResponse(List.of("USD", "IDR"));
+
+        // Act
+        dataStoreService.storeData("custom_resource", data);
+        dataStoreService.markAsInitialized();
+
+        // Assert
+        assertSame(data, dataStoreService.getData("custom_resource", CurrencyResponse.class));
+    }
+
     @Test
     void nullDataHandling_ThrowsNullPointerException() {
         // Act & Assert - These operations should throw NPE because service doesn't handle null data
         assertThrows(NullPointerException.class, () -> dataStoreService.storeLatestRates(null));
         assertThrows(NullPointerException.class, () -> dataStoreService.storeSupportedCurrencies(null));
     }
-}
\ No newline at end of file
+
+    // ==================== PUBLISH LISTENER TESTS ====================
+
+    @Test
+    void onPublish_RunsAfterEveryPublish() {
+        // Arrange
+        AtomicInteger publishes = new AtomicInteger();
+        dataStoreService.onPublish(() -> {
+            assertTrue(dataStoreService.isInitialized());
+            publishes.incrementAndGet();
+        });
+
+        // Act
+        dataStoreService.markAsInitialized();
+        dataStoreService.markAsInitialized();
+
+        // Assert
+        assertEquals(2, publishes.get());
+    }
+
+    @Test
+    void onPublish_RunsAfterSnapshotRestore(@TempDir Path tempDir) {
+        // Arrange
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setPath(tempDir.resolve("snapshot.json.gz").toString());
+        DataStoreService previous = new DataStoreService(new SnapshotFileStore(properties));
+        previous.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD")));
+        previous.markAsInitialized();
+
+        DataStoreService restarted = new DataStoreService(new SnapshotFileStore(properties));
+        AtomicInteger publishes = new AtomicInteger();
+        restarted.onPublish(publishes::incrementAndGet);
+
+        // Act
+        boolean restored = restarted.restoreSnapshot();
+
+        // Assert
+        assertTrue(restored);
+        assertEquals(1, publishes.get());
+    }
+
+    @Test
+    void applySnapshot_ReplacesEntriesAndPublishes() {
+        // Arrange
+        dataStoreService.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR")));
+        AtomicInteger publishes = new AtomicInteger();
+        dataStoreService.onPublish(publishes::incrementAndGet);
+
+        // Act
+        dataStoreService.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR", "USD"))));
+
+        // Assert
+        assertEquals(1, publishes.get());
+        assertEquals(List.of("IDR", "USD"),
+                dataStoreService.getData("supported_currencies", CurrencyResponse.class).getCurrencies());
+    }
+
+    @Test
+    void applySnapshot_WithVersion_AppliesOnlyNewer() {
+        // Act
+        boolean first = dataStoreService.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR", "USD"))), 200);
+        boolean stale = dataStoreService.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))), 100);
+        boolean duplicate = dataStoreService.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))), 200);
+
+        // Assert
+        assertTrue(first);
+        assertFalse(stale);
+        assertFalse(duplicate);
+        assertEquals(200, dataStoreService.getSnapshotVersion());
+        assertEquals(List.of("IDR", "USD"),
+                dataStoreService.getData("supported_currencies", CurrencyResponse.class).getCurrencies());
+    }
+
+    @Test
+    void stampSnapshotVersion_NeverGoesBackwards() {
+        // Arrange
+        dataStoreService.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))), 500);
+
+        // Act & Assert
+        assertEquals(501, dataStoreService.stampSnapshotVersion(400));
+        assertEquals(900, dataStoreService.stampSnapshotVersion(900));
+    }
+
+    @Test
+    void stampSnapshotVersion_AtMaxValue_DoesNotOverflow() {
+        // Arrange
+        dataStoreService.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))), Long.MAX_VALUE);
+
+        // Act & Assert
+        assertEquals(Long.MAX_VALUE, dataStoreService.stampSnapshotVersion(400));
+    }
+
+    // ==================== VIRTUAL THREAD TESTS ====================
+
+    @Test
+    void concurrentAccess_OnVirtualThreads_DoesNotPinCarrier(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setPath(tempDir.resolve("snapshot.json.gz").toString());
+        DataStoreService store = new DataStoreService(new SnapshotFileStore(properties));
+        store.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD")));
+        store.markAsInitialized();
+
+        Path events = tempDir.resolve("pinning.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            // Act: readers and writers contend on the read/write lock, so virtual threads park on it
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 2_000; i++) {
+                    int n = i;
+                    executor.submit(() -> {
+                        if (n % 100 == 0) {
+                            store.storeData("resource_" + n, new CurrencyResponse(List.of("IDR")));
+                            store.markAsInitialized();
+                        } else {
+                            store.getData("supported_currencies", CurrencyResponse.class);
+                        }
+                    });
+                }
+            }
+
+            recording.stop();
+            recording.dump(events);
+        }
+
+        // Assert
+        List<RecordedEvent> pinned = RecordingFile.readAllEvents(events).stream()
+                .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .toList();
+        assertTrue(pinned.isEmpty(), "Virtual threads pinned their carrier: " + pinned);
+    }
+}
@@ -0,0 +1,186 @@
+package com.home.test.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.home.test.config.JacksonConfig;
+import com.home.test.dto.CurrencyInfo;
+import com.home.test.dto.CurrencyResponse;
+import com.home.test.dto.LatestRatesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EncodedResponseCacheTest {
+
+    @Mock
+    private CurrencyMetadataService currencyMetadataService;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().jackson2ObjectMapperBuilder().build();
+    private DataStoreService dataStoreService;
+    private EncodedResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        dataStoreService = new DataStoreService();
+        cache = new EncodedResponseCache(dataStoreService, currencyMetadataService, objectMapper);
+    }
+
+    // ==================== PRECOMPUTATION TESTS ====================
+
+    @Test
+    void publish_EncodesEveryVariantOnce() {
+        // Arrange
+        when(currencyMetadataService.enrichCurrencies(anyList())).thenReturn(enriched());
+        dataStoreService.storeLatestRates(latestRates());
+        dataStoreService.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD")));
+
+        // Act
+        dataStoreService.markAsInitialized();
+        cache.supportedCurrencies(false);
+        cache.supportedCurrencies(false);
+
+        // Assert
+        verify(currencyMetadataService, times(1)).enrichCurrencies(List.of("IDR", "USD"));
+    }
+
+    @Test
+    void publish_MissingResourceIsSkipped() {
+        // Arrange
+        dataStoreService.storeLatestRates(latestRates());
+
+        // Act & Assert
+        assertDoesNotThrow(dataStoreService::markAsInitialized);
+        assertNotNull(cache.latestRates().getIdentity());
+    }
+
+    @Test
+    void latestRates_ServesPublishedBytesUntilNextPublish() {
+        // Arrange
+        dataStoreService.storeLatestRates(latestRates());
+        dataStoreService.markAsInitialized();
+        EncodedResponseCache.EncodedBody first = cache.latestRates();
+
+        // Act
+        EncodedResponseCache.EncodedBody repeated = cache.latestRates();
+        dataStoreService.storeLatestRates(new LatestRatesResponse("IDR", "2024-01-16", Map.of("USD", 0.000065), 15900.0));
+        EncodedResponseCache.EncodedBody storedNotPublished = cache.latestRates();
+        dataStoreService.markAsInitialized();
+        EncodedResponseCache.EncodedBody refreshed = cache.latestRates();
+
+        // Assert
+        assertSame(first, repeated);
+        assertSame(first, storedNotPublished);
+        assertNotSame(first, refreshed);
+        assertTrue(new String(refreshed.getIdentity()).contains("\"2024-01-16\""));
+    }
+
+    @Test
+    void latestRates_RequestBeforeFirstPrecompute_ServesIdentityUntilPublish() throws Exception {
+        // Arrange - published before this cache subscribed, so nothing is precomputed
+        DataStoreService store = new DataStoreService();
+        store.storeLatestRates(latestRates());
+        store.markAsInitialized();
+        EncodedResponseCache lateCache = new EncodedResponseCache(store, currencyMetadataService, objectMapper);
+
+        // Act
+        EncodedResponseCache.EncodedBody onRequest = lateCache.latestRates();
+        EncodedResponseCache.EncodedBody repeated = lateCache.latestRates();
+        store.markAsInitialized();
+        EncodedResponseCache.EncodedBody published = lateCache.latestRates();
+
+        // Assert
+        assertArrayEquals(objectMapper.writeValueAsBytes(latestRates()), onRequest.getIdentity());
+        assertNull(onRequest.getGzip());
+        assertSame(onRequest, repeated);
+        assertNotNull(published.getGzip());
+        assertArrayEquals(published.getIdentity(), gunzip(published.getGzip()));
+    }
+
+    // ==================== ENCODING TESTS ====================
+
+    @Test
+    void latestRates_IdentityMatchesObjectMapperAndGzipRoundTrips() throws Exception {
+        // Arrange
+        LatestRatesResponse rates = latestRates();
+        dataStoreService.storeLatestRates(rates);
+        dataStoreService.markAsInitialized();
+
+        // Act
+        EncodedResponseCache.EncodedBody body = cache.latestRates();
+
+        // Assert
+        assertArrayEquals(objectMapper.writeValueAsBytes(rates), body.getIdentity());
+        assertNotNull(body.getGzip());
+        assertTrue(body.getGzip().length < body.getIdentity().length);
+        assertArrayEquals(body.getIdentity(), gunzip(body.getGzip()));
+    }
+
+    @Test
+    void supportedCurrencies_EnrichedAndSimpleAreSeparateVariants() throws Exception {
+        // Arrange
+        when(currencyMetadataService.enrichCurrencies(anyList())).thenReturn(enriched());
+        dataStoreService.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD")));
+        dataStoreService.markAsInitialized();
+
+        // Act
+        JsonNode enriched = objectMapper.readTree(cache.supportedCurrencies(false).getIdentity());
+        JsonNode simple = objectMapper.readTree(cache.supportedCurrencies(true).getIdentity());
+
+        // Assert
+        assertEquals("Indonesian Rupiah", enriched.get("currencies").get(0).get("name").asText());
+        assertEquals("IDR", simple.get("currencies").get(0).asText());
+    }
+
+    @Test
+    void supportedCurrencies_TinyBodyHasNoGzipVariant() {
+        // Arrange
+        dataStoreService.storeSupportedCurrencies(new CurrencyResponse(List.of("USD")));
+        dataStoreService.markAsInitialized();
+
+        // Act
+        EncodedResponseCache.EncodedBody body = cache.supportedCurrencies(true);
+
+        // Assert
+        assertNull(body.getGzip());
+    }
+
+    @Test
+    void latestRates_NotInitialized_Throws() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> cache.latestRates());
+    }
+
+    private static LatestRatesResponse latestRates() {
+        Map<String, Double> rates = new HashMap<>();
+        for (String code : List.of("USD", "EUR", "SGD", "JPY", "GBP", "AUD", "CNY", "MYR", "THB", "KRW")) {
+            rates.put(code, 0.00001 * (code.charAt(0) + code.charAt(1)));
+        }
+        return new LatestRatesResponse("IDR", "2024-01-15", rates, 15800.0);
+    }
+
+    private static List<CurrencyInfo> enriched() {
+        return List.of(
+                new CurrencyInfo("IDR", "Indonesian Rupiah", "Rp", "Indonesia", "ID", true, 2),
+                new CurrencyInfo("USD", "United States Dollar", "$", "United States", "US", true, 2));
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.home.test.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.home.test.config.FrankfurterApiProperties;
+import com.home.test.config.WebClientFactoryBean;
+import com.home.test.dto.FrankfurterHistoricalResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class HistoricalRatesServiceTest {
+
+    @Mock
+    private WebClient webClient;
+
+    @Mock
+    private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
+
+    @Mock
+    private WebClient.ResponseSpec responseSpec;
+
+    private Clock clock;
+    private HistoricalRatesService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+
+        clock = Clock.fixed(Instant.parse("2025-06-15T00:00:00Z"), ZoneOffset.UTC);
+        service = new HistoricalRatesService(webClient, clock);
+    }
+
+    @Test
+    void testGetHistoricalRates_DerivesCrossPairFromIdrSeries() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        StepVerifier.create(service.getHistoricalRates("2025-01-02", "2025-01-03", "EUR", "JPY"))
+                .assertNext(response -> {
+                    assertEquals("EUR", response.getBase());
+                    assertEquals("2025-01-02", response.getStartDate());
+                    assertEquals("2025-01-03", response.getEndDate());
+                    assertEquals(0.0097 / 0.00006, response.getRates().get("2025-01-02").get("JPY"), 1e-9);
+                    assertEquals(0.0098 / 0.00005, response.getRates().get("2025-01-03").get("JPY"), 1e-9);
+                })
+                .verifyComplete();
+
+        verify(requestHeadersUriSpec).uri("/2025-01-01..2025-01-31?from=IDR");
+    }
+
+    @Test
+    void testGetHistoricalRates_IdrLegsUseUnitRate() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        StepVerifier.create(service.getHistoricalRates("2025-01-02", "2025-01-02", "IDR", "USD"))
+                .assertNext(response -> assertEquals(0.000064, response.getRates().get("2025-01-02").get("USD")))
+                .verifyComplete();
+
+        StepVerifier.create(service.getHistoricalRates("2025-01-02", "2025-01-02", "USD", "IDR"))
+                .assertNext(response -> assertEquals(1.0 / 0.000064, response.getRates().get("2025-01-02").get("IDR"), 1e-9))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetHistoricalRates_CachedMonthsAreNotFetchedAgain() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        service.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD").block();
+        service.getHistoricalRates("2025-01-02", "2025-01-03", "EUR", "JPY").block();
+        service.getHistoricalRates("2025-01-03", "2025-01-03", "USD", "EUR").block();
+
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_OnlyMissingMonthsAreFetched() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        service.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD").block();
+        service.getHistoricalRates("2025-01-02", "2025-03-10", "IDR", "USD").block();
+
+        verify(requestHeadersUriSpec).uri("/2025-01-01..2025-01-31?from=IDR");
+        verify(requestHeadersUriSpec).uri("/2025-02-01..2025-03-31?from=IDR");
+    }
+
+    @Test
+    void testGetHistoricalRates_EvictedMonthsAreServedFromColdTier() {
+        FrankfurterApiProperties.HistoricalCache cacheProperties = new FrankfurterApiProperties.HistoricalCache();
+        cacheProperties.setHotMaxMonths(0);
+        HistoricalSeriesCache cache = new HistoricalSeriesCache(cacheProperties, Runnable::run);
+        HistoricalRatesService bounded = new HistoricalRatesService(webClient, clock, Duration.ZERO, Schedulers.immediate(), cache);
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        StepVerifier.create(bounded.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD"))
+                .assertNext(response -> assertEquals(0.000063, response.getRates().get("2025-01-03").get("USD")))
+                .verifyComplete();
+        cache.cleanUp();
+        StepVerifier.create(bounded.getHistoricalRates("2025-01-02", "2025-01-03", "EUR", "JPY"))
+                .assertNext(response -> assertEquals(0.0097 / 0.00006, response.getRates().get("2025-01-02").get("JPY"), 1e-9))
+                .verifyComplete();
+
+        assertEquals(1, cache.getColdEntries());
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_CompleteMonthsAreSharedAcrossReplicas() {
+        SharedCacheBackend backend = new InMemorySharedCacheBackend(clock);
+        HistoricalRatesService first = new HistoricalRatesService(webClient, clock, Duration.ZERO, Schedulers.immediate(),
+                new HistoricalSeriesCache(new FrankfurterApiProperties.HistoricalCache()), backend);
+        HistoricalRatesService second = new HistoricalRatesService(webClient, clock, Duration.ZERO, Schedulers.immediate(),
+                new HistoricalSeriesCache(new FrankfurterApiProperties.HistoricalCache()), backend);
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        first.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD").block();
+        StepVerifier.create(second.getHistoricalRates("2025-01-02", "2025-01-03", "EUR", "JPY"))
+                .assertNext(response -> assertEquals(0.0098 / 0.00005, response.getRates().get("2025-01-03").get("JPY"), 1e-9))
+                .verifyComplete();
+
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_UnreadableSharedMonthIsFetchedUpstream() {
+        SharedCacheBackend backend = new InMemorySharedCacheBackend(clock);
+        backend.put("historical:IDR:2025-01", new byte[]{0, 1, 2}).block();
+        HistoricalRatesService replica = new HistoricalRatesService(webClient, clock, Duration.ZERO, Schedulers.immediate(),
+                new HistoricalSeriesCache(new FrankfurterApiProperties.HistoricalCache()), backend);
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        StepVerifier.create(replica.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD"))
+                .assertNext(response -> assertEquals(0.000063, response.getRates().get("2025-01-03").get("USD")))
+                .verifyComplete();
+
+        verify(webClient, times(1)).get();
+        assertEquals(HistoricalSeriesCache.SHARED_FORMAT, backend.get("historical:IDR:2025-01").block()[0]);
+    }
+
+    @Test
+    void testGetHistoricalRates_SharedCacheNotAnsweringIsFetchedUpstream() {
+        SharedCacheBackend backend = mock(SharedCacheBackend.class);
+        when(backend.get(anyString())).thenReturn(Mono.never());
+        when(backend.put(anyString(), any())).thenReturn(Mono.empty());
+        HistoricalRatesService replica = new HistoricalRatesService(webClient, clock, Duration.ZERO, Schedulers.immediate(),
+                new HistoricalSeriesCache(new FrankfurterApiProperties.HistoricalCache()), backend);
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        StepVerifier.create(replica.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD"))
+                .assertNext(response -> assertEquals(0.000063, response.getRates().get("2025-01-03").get("USD")))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_RangeBodyOverCodecDefault() throws Exception {
+        // Two years of weekdays for 30 currencies, above the 256 KB default codec limit
+        List<String> codes = List.of("AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP",
+                "HKD", "HUF", "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK",
+                "NZD", "PHP", "PLN", "RON", "SEK", "SGD", "THB", "TRY", "USD", "ZAR");
+        StringJoiner days = new StringJoiner(",", "{\"amount\":1.0,\"base\":\"IDR\",\"rates\":{", "}}");
+        for (LocalDate day = LocalDate.parse("2023-01-02"); day.isBefore(LocalDate.parse("2025-01-01")); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() <= 5) {
+                StringJoiner rates = new StringJoiner(",", "{", "}");
+                codes.forEach(code -> rates.add("\"" + code + "\":0.0000612345"));
+                days.add("\"" + day + "\":" + rates);
+            }
+        }
+        byte[] body = days.toString().getBytes(StandardCharsets.UTF_8);
+        assertTrue(body.length > 256 * 1024);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            WebClient frankfurter = new WebClientFactoryBean("http://127.0.0.1:" + server.getAddress().getPort(), 30_000,
+                    List.of(), (int) new FrankfurterApiProperties().getMaxInMemorySize().toBytes()).getObject();
+            HistoricalRatesService real = new HistoricalRatesService(frankfurter, clock);
+
+            StepVerifier.create(real.getHistoricalRates("2023-01-01", "2024-12-31", "IDR", "USD"))
+                    .assertNext(response -> assertEquals(522, response.getRates().size()))
+                    .verifyComplete();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testGetHistoricalRates_EndBeforeStart() {
+        StepVerifier.create(service.getHistoricalRates("2025-01-05", "2025-01-01", "IDR", "USD"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(webClient, never()).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_ClampedToUpstreamCoverage() {
+        // Arrange - clock is 2025-06-15; only June up to today may be fetched
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        // Act & Assert
+        StepVerifier.create(service.getHistoricalSeries("2025-06-01", "9999-12-31", "IDR", "USD"))
+                .assertNext(response -> assertEquals("2025-06-15", response.getEndDate()))
+                .verifyComplete();
+
+        verify(requestHeadersUriSpec).uri("/2025-06-01..2025-06-30?from=IDR");
+    }
+
+    @Test
+    void testGetHistoricalRates_OutsideUpstreamCoverage() {
+        StepVerifier.create(service.getHistoricalRates("1900-01-01", "1998-12-31", "IDR", "USD"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(service.getHistoricalSeries("2030-01-01", "2030-01-31", "IDR", "USD"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(webClient, never()).get();
+    }
+
+    @Test
+    void testGetHistoricalSeries_SpanOverCap() {
+        // 1900 is clamped to the first ECB day, leaving more than ten years
+        StepVerifier.create(service.getHistoricalSeries("1900-01-01", "2025-01-31", "IDR", "USD"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(webClient, never()).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_ApiError() {
+        when(responseSpec.bodyToMono(DataBuffer.class))
+                .thenReturn(Mono.error(new RuntimeException("API Error")));
+
+        StepVerifier.create(service.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD"))
+                .expectErrorMessage("API Error")
+                .verify();
+    }
+
+    @Test
+    void testGetHistoricalRates_ConcurrentRequestsAreMergedIntoOneCall() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+        HistoricalRatesService batching = new HistoricalRatesService(webClient, clock, Duration.ofMillis(50), Schedulers.parallel());
+
+        Mono.when(
+                batching.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD"),
+                batching.getHistoricalRates("2025-01-02", "2025-02-10", "EUR", "JPY"),
+                batching.getHistoricalRates("2025-02-01", "2025-03-03", "USD", "EUR")
+        ).block(Duration.ofSeconds(5));
+
+        verify(webClient, times(1)).get();
+        verify(requestHeadersUriSpec).uri("/2025-01-01..2025-03-31?from=IDR");
+    }
+
+    @Test
+    void testGetHistoricalRates_DisjointBatchedMonthsUseSeparateCalls() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+        HistoricalRatesService batching = new HistoricalRatesService(webClient, clock, Duration.ofMillis(50), Schedulers.parallel());
+
+        Mono.when(
+                batching.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD"),
+                batching.getHistoricalRates("2025-04-01", "2025-04-03", "IDR", "USD")
+        ).block(Duration.ofSeconds(5));
+
+        verify(requestHeadersUriSpec).uri("/2025-01-01..2025-01-31?from=IDR");
+        verify(requestHeadersUriSpec).uri("/2025-04-01..2025-04-30?from=IDR");
+        verify(webClient, times(2)).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_InFlightMonthsAreJoined() {
+        Sinks.One<DataBuffer> upstream = Sinks.one();
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(upstream.asMono());
+
+        Mono<FrankfurterHistoricalResponse> first = service.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD").cache();
+        Mono<FrankfurterHistoricalResponse> second = service.getHistoricalRates("2025-01-02", "2025-01-02", "EUR", "JPY").cache();
+        first.subscribe();
+        second.subscribe();
+        upstream.tryEmitValue(body(idrSeries()).block());
+
+        StepVerifier.create(first)
+                .assertNext(response -> assertEquals(2, response.getRates().size()))
+                .verifyComplete();
+        StepVerifier.create(second)
+                .assertNext(response -> assertEquals(0.0097 / 0.00006, response.getRates().get("2025-01-02").get("JPY"), 1e-9))
+                .verifyComplete();
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_BatchErrorReachesEveryWaiter() {
+        when(responseSpec.bodyToMono(DataBuffer.class))
+                .thenReturn(Mono.error(new RuntimeException("API Error")));
+        HistoricalRatesService batching = new HistoricalRatesService(webClient, clock, Duration.ofMillis(50), Schedulers.parallel());
+
+        Mono<FrankfurterHistoricalResponse> first = batching.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD");
+        Mono<FrankfurterHistoricalResponse> second = batching.getHistoricalRates("2025-01-05", "2025-01-06", "EUR", "JPY");
+
+        StepVerifier.create(Mono.zip(first, second))
+                .expectErrorMessage("API Error")
+                .verify(Duration.ofSeconds(5));
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    void testGetHistoricalRates_IgnoresUnknownCurrenciesAndExtraFields() {
+        String json = "{\"amount\":1.0,\"base\":\"IDR\",\"start_date\":\"2025-01-02\",\"end_date\":\"2025-01-02\","
+                + "\"meta\":{\"nested\":[1,2]},\"rates\":{\"2025-01-02\":{\"QQQ\":9.0,\"USD\":0.000064,\"EUR\":6E-5}}}";
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(json));
+
+        StepVerifier.create(service.getHistoricalRates("2025-01-02", "2025-01-02", "EUR", "USD"))
+                .assertNext(response -> assertEquals(0.000064 / 0.00006, response.getRates().get("2025-01-02").get("USD"), 1e-9))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetHistoricalRates_MalformedBody() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body("[1,2,3]"));
+
+        StepVerifier.create(service.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD"))
+                .expectError(UncheckedIOException.class)
+                .verify();
+    }
+
+    @Test
+    void testGetHistoricalSeries_ParallelArraysNewestFirst() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        StepVerifier.create(service.getHistoricalSeries("2025-01-01", "2025-01-05", "EUR", "JPY"))
+                .assertNext(response -> {
+                    assertEquals("EUR", response.getBase());
+                    assertEquals("2025-01-02", response.getStartDate());
+                    assertEquals("2025-01-03", response.getEndDate());
+                    assertEquals(List.of("2025-01-03", "2025-01-02"), response.getDates());
+                    assertArrayEquals(new double[]{0.0098 / 0.00005, 0.0097 / 0.00006},
+                            response.getSeries().get("JPY"), 1e-9);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetHistoricalRates_DatesAreKeyedOldestFirst() {
+        String json = "{\"base\":\"IDR\",\"rates\":{\"2025-02-03\":{\"USD\":0.000063},"
+                + "\"2025-01-30\":{\"USD\":0.000061},\"2025-01-31\":{\"USD\":0.000062}}}";
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(json));
+
+        StepVerifier.create(service.getHistoricalRates("2025-01-30", "2025-02-28", "IDR", "USD"))
+                .assertNext(response -> assertEquals(List.of("2025-01-30", "2025-01-31", "2025-02-03"),
+                        List.copyOf(response.getRates().keySet())))
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetHistoricalSeries_MonthsAreReadNewestFirst() {
+        String json = "{\"base\":\"IDR\",\"rates\":{\"2025-01-30\":{\"USD\":0.000061},"
+                + "\"2025-01-31\":{\"USD\":0.000062},\"2025-02-03\":{\"USD\":0.000063}}}";
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(json));
+
+        StepVerifier.create(service.getHistoricalSeries("2025-01-31", "2025-02-28", "IDR", "USD"))
+                .assertNext(response -> {
+                    assertEquals(List.of("2025-02-03", "2025-01-31"), response.getDates());
+                    assertArrayEquals(new double[]{0.000063, 0.000062}, response.getSeries().get("USD"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetHistoricalSeries_SharesCacheWithNestedShape() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        service.getHistoricalRates("2025-01-02", "2025-01-03", "IDR", "USD").block();
+        service.getHistoricalSeries("2025-01-02", "2025-01-03", "USD", "EUR").block();
+
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    void testGetHistoricalSeries_NoDataEchoesRequestedRange() {
+        when(responseSpec.bodyToMono(DataBuffer.class)).thenReturn(body(idrSeries()));
+
+        StepVerifier.create(service.getHistoricalSeries("2025-01-10", "2025-01-12", "IDR", "USD"))
+                .assertNext(response -> {
+                    assertEquals("2025-01-10", response.getStartDate());
+                    assertEquals("2025-01-12", response.getEndDate());
+                    assertTrue(response.getDates().isEmpty());
+                    assertEquals(0, response.getSeries().get("USD").length);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetHistoricalSeries_EndBeforeStart() {
+        StepVerifier.create(service.getHistoricalSeries("2025-01-05", "2025-01-01", "IDR", "USD"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private static Mono<DataBuffer> body(FrankfurterHistoricalResponse response) {
+        try {
+            return body(new ObjectMapper().writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mono<DataBuffer> body(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(bytes));
+    }
+
+    private FrankfurterHistoricalResponse idrSeries() {
+        Map<String, Map<String, Double>> rates = new LinkedHashMap<>();
+        rates.put("2025-01-02", Map.of("USD", 0.000064, "EUR", 0.00006, "JPY", 0.0097));
+        rates.put("2025-01-03", Map.of("USD", 0.000063, "EUR", 0.00005, "JPY", 0.0098));
+
+        FrankfurterHistoricalResponse response = new FrankfurterHistoricalResponse();
+        response.setAmount("1");
+        response.setBase("IDR");
+        response.setStartDate("2025-01-02");
+        response.setEndDate("2025-01-03");
+        response.setRates(rates);
+        return response;
+    }
+}
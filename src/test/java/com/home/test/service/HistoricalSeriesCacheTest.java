@@ -0,0 +1,222 @@
+package com.home.test.service;
+
+import com.home.test.config.FrankfurterApiProperties;
+import com.home.test.service.HistoricalSeriesCache.SeriesChunk;
+import com.home.test.util.CurrencyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalSeriesCacheTest {
+
+    private static final int USD = CurrencyRegistry.USD;
+    private static final int EUR = CurrencyRegistry.ordinal("EUR");
+    private static final Instant FETCHED_AT = Instant.parse("2025-06-15T00:00:00Z");
+
+    private FrankfurterApiProperties.HistoricalCache properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FrankfurterApiProperties.HistoricalCache();
+        properties.setHotMaxMonths(1);
+    }
+
+    // ==================== TIER TESTS ====================
+
+    @Test
+    void get_ReturnsHotChunkAsStored() {
+        // Arrange
+        HistoricalSeriesCache cache = new HistoricalSeriesCache(properties, Runnable::run);
+        SeriesChunk chunk = chunk(YearMonth.of(2025, 1), 2, 3);
+
+        // Act
+        cache.put(YearMonth.of(2025, 1), chunk);
+
+        // Assert
+        assertSame(chunk, cache.get(YearMonth.of(2025, 1)));
+        assertNull(cache.get(YearMonth.of(2025, 2)));
+        assertEquals(0, cache.getColdEntries());
+    }
+
+    @Test
+    void put_BeyondHotLimit_DemotesToColdAndPromotesOnRead() {
+        // Arrange
+        HistoricalSeriesCache cache = new HistoricalSeriesCache(properties, Runnable::run);
+        SeriesChunk january = chunk(YearMonth.of(2025, 1), 2, 3);
+        SeriesChunk february = chunk(YearMonth.of(2025, 2), 3);
+
+        // Act
+        cache.put(YearMonth.of(2025, 1), january);
+        cache.put(YearMonth.of(2025, 2), february);
+        cache.cleanUp();
+
+        // Assert
+        assertEquals(1, cache.getColdEntries());
+        assertTrue(cache.getColdBytes() > 0);
+        assertRatesEqual(january, cache.get(YearMonth.of(2025, 1)));
+        assertRatesEqual(february, cache.get(YearMonth.of(2025, 2)));
+        assertTrue(cache.get(YearMonth.of(2025, 1)).complete);
+    }
+
+    @Test
+    void coldTier_IsBoundedByBytes() {
+        // Arrange: room for two packed months (one day, two currencies) but not three
+        int packedMonth = HistoricalSeriesCache.pack(chunk(YearMonth.of(2025, 1), 2).rates).capacity();
+        properties.setColdMaxSize(DataSize.ofBytes(packedMonth * 2L));
+        HistoricalSeriesCache cache = new HistoricalSeriesCache(properties, Runnable::run);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        // Act
+        for (int month = 1; month <= 4; month++) {
+            cache.put(YearMonth.of(2025, month), chunk(YearMonth.of(2025, month), 2));
+            cache.cleanUp();
+        }
+
+        // Assert
+        assertEquals(2, cache.getColdEntries());
+        assertEquals(packedMonth * 2L, cache.getColdBytes());
+        assertEquals(3, registry.get("historical.series.cache.evictions").tag("tier", "hot").functionCounter().count());
+        assertEquals(1, registry.get("historical.series.cache.evictions").tag("tier", "cold").functionCounter().count());
+    }
+
+    @Test
+    void put_ReplacesDemotedCopy() {
+        // Arrange: one of the two months ends up in the cold tier
+        HistoricalSeriesCache cache = new HistoricalSeriesCache(properties, Runnable::run);
+        cache.put(YearMonth.of(2025, 1), chunk(YearMonth.of(2025, 1), 2));
+        cache.put(YearMonth.of(2025, 2), chunk(YearMonth.of(2025, 2), 2));
+        cache.cleanUp();
+        SeriesChunk january = chunk(YearMonth.of(2025, 1), 2, 3);
+        SeriesChunk february = chunk(YearMonth.of(2025, 2), 2, 3);
+
+        // Act
+        cache.put(YearMonth.of(2025, 1), january);
+        cache.put(YearMonth.of(2025, 2), february);
+        cache.cleanUp();
+
+        // Assert
+        assertEquals(1, cache.getColdEntries());
+        assertRatesEqual(january, cache.get(YearMonth.of(2025, 1)));
+        assertRatesEqual(february, cache.get(YearMonth.of(2025, 2)));
+    }
+
+    // ==================== PACKING TESTS ====================
+
+    @Test
+    void pack_KeepsOnlyQuotedCurrenciesAndRoundTrips() {
+        // Arrange
+        SeriesChunk chunk = chunk(YearMonth.of(2024, 2), 1, 29);
+
+        // Act
+        ByteBuffer packed = HistoricalSeriesCache.pack(chunk.rates);
+        NavigableMap<String, double[]> unpacked = HistoricalSeriesCache.unpack(YearMonth.of(2024, 2), packed);
+
+        // Assert: header, two day bytes, two ordinals, two columns of two days
+        assertEquals(4 + 2 + 2 * 2 + 2 * 2 * Double.BYTES, packed.capacity());
+        assertTrue(packed.isDirect());
+        assertEquals(List.of("2024-02-01", "2024-02-29"), List.copyOf(unpacked.keySet()));
+        assertArrayEquals(chunk.rates.get("2024-02-29"), unpacked.get("2024-02-29"));
+        assertTrue(Double.isNaN(unpacked.get("2024-02-01")[CurrencyRegistry.IDR]));
+    }
+
+    @Test
+    void packShared_KeysColumnsByCodeAndRoundTrips() {
+        // Arrange
+        SeriesChunk chunk = chunk(YearMonth.of(2024, 2), 1, 29);
+
+        // Act
+        byte[] packed = HistoricalSeriesCache.packShared(chunk.rates);
+        NavigableMap<String, double[]> unpacked = HistoricalSeriesCache.unpackShared(YearMonth.of(2024, 2), packed);
+
+        // Assert: format byte, header, two day bytes, two codes, two columns of two days
+        assertEquals(1 + 4 + 2 + 2 * 3 + 2 * 2 * Double.BYTES, packed.length);
+        assertEquals(HistoricalSeriesCache.SHARED_FORMAT, packed[0]);
+        assertEquals(List.of("2024-02-01", "2024-02-29"), List.copyOf(unpacked.keySet()));
+        assertArrayEquals(chunk.rates.get("2024-02-29"), unpacked.get("2024-02-29"));
+    }
+
+    @Test
+    void unpackShared_CodeUnknownHere_RegistersIt() {
+        // Arrange: one day, one column quoted in a code only the writing replica had seen
+        ByteBuffer packed = ByteBuffer.allocate(1 + 4 + 1 + 3 + Double.BYTES);
+        packed.put(HistoricalSeriesCache.SHARED_FORMAT).putShort((short) 1).putShort((short) 1).put((byte) 5)
+                .put("QSB".getBytes(StandardCharsets.US_ASCII)).putDouble(2.5);
+
+        // Act
+        NavigableMap<String, double[]> unpacked = HistoricalSeriesCache.unpackShared(YearMonth.of(2024, 2), packed.array());
+
+        // Assert
+        assertEquals(2.5, unpacked.get("2024-02-05")[CurrencyRegistry.ordinal("QSB")]);
+    }
+
+    @Test
+    void unpackShared_OtherFormatOrTruncated_Throws() {
+        // Arrange
+        byte[] packed = HistoricalSeriesCache.packShared(chunk(YearMonth.of(2024, 2), 1, 29).rates);
+        byte[] otherFormat = packed.clone();
+        otherFormat[0] = HistoricalSeriesCache.SHARED_FORMAT + 1;
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> HistoricalSeriesCache.unpackShared(YearMonth.of(2024, 2), otherFormat));
+        assertThrows(IllegalArgumentException.class,
+                () -> HistoricalSeriesCache.unpackShared(YearMonth.of(2024, 2), Arrays.copyOf(packed, packed.length - 1)));
+    }
+
+    // ==================== METRICS TESTS ====================
+
+    @Test
+    void bindTo_PublishesHitsAndMissesPerTier() {
+        // Arrange: with no hot capacity every month is demoted, so reads past the first go to the cold tier
+        properties.setHotMaxMonths(0);
+        HistoricalSeriesCache cache = new HistoricalSeriesCache(properties, Runnable::run);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put(YearMonth.of(2025, 1), chunk(YearMonth.of(2025, 1), 2));
+        cache.cleanUp();
+
+        // Act
+        cache.get(YearMonth.of(2025, 1));
+        cache.get(YearMonth.of(2025, 3));
+
+        // Assert
+        assertEquals(0, registry.get("historical.series.cache.hits").tag("tier", "hot").functionCounter().count());
+        assertEquals(2, registry.get("historical.series.cache.misses").tag("tier", "hot").functionCounter().count());
+        assertEquals(1, registry.get("historical.series.cache.hits").tag("tier", "cold").functionCounter().count());
+        assertEquals(1, registry.get("historical.series.cache.misses").tag("tier", "cold").functionCounter().count());
+        assertEquals(cache.getColdBytes(), registry.get("historical.series.cache.cold.bytes").gauge().value());
+        assertEquals(1, registry.get("historical.series.cache.entries").tag("tier", "cold").gauge().value());
+    }
+
+    private static SeriesChunk chunk(YearMonth month, int... days) {
+        NavigableMap<String, double[]> rates = new TreeMap<>();
+        for (int day : days) {
+            double[] row = new double[CurrencyRegistry.CAPACITY];
+            Arrays.fill(row, Double.NaN);
+            row[USD] = 0.00006 + day * 1e-7;
+            row[EUR] = 0.000055 + day * 1e-7;
+            rates.put(month.atDay(day).toString(), row);
+        }
+        return new SeriesChunk(rates, true, FETCHED_AT);
+    }
+
+    private static void assertRatesEqual(SeriesChunk expected, SeriesChunk actual) {
+        assertNotNull(actual);
+        assertEquals(expected.rates.keySet(), actual.rates.keySet());
+        expected.rates.forEach((date, row) -> assertArrayEquals(row, actual.rates.get(date), date));
+        assertEquals(expected.fetchedAt, actual.fetchedAt);
+    }
+}
@@ -0,0 +1,130 @@
+package com.home.test.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySharedCacheBackendTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private MutableClock clock;
+    private InMemorySharedCacheBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-06-15T00:00:00Z"));
+        backend = new InMemorySharedCacheBackend(clock);
+    }
+
+    // ==================== LEASE TESTS ====================
+
+    @Test
+    void tryAcquireLease_HeldByAnotherOwner_IsRefused() {
+        // Act
+        boolean first = backend.tryAcquireLease("lease", "a", TTL).block();
+        boolean second = backend.tryAcquireLease("lease", "b", TTL).block();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+    }
+
+    @Test
+    void tryAcquireLease_ByHolder_ExtendsIt() {
+        // Arrange
+        backend.tryAcquireLease("lease", "a", TTL).block();
+        clock.advance(Duration.ofSeconds(20));
+
+        // Act
+        boolean renewed = backend.tryAcquireLease("lease", "a", TTL).block();
+        clock.advance(Duration.ofSeconds(20));
+
+        // Assert
+        assertTrue(renewed);
+        assertFalse(backend.tryAcquireLease("lease", "b", TTL).block());
+    }
+
+    @Test
+    void tryAcquireLease_AfterExpiry_IsTakenOver() {
+        // Arrange
+        backend.tryAcquireLease("lease", "a", TTL).block();
+        clock.advance(TTL);
+
+        // Act & Assert
+        assertTrue(backend.tryAcquireLease("lease", "b", TTL).block());
+        assertFalse(backend.tryAcquireLease("lease", "a", TTL).block());
+    }
+
+    @Test
+    void releaseLease_OnlyByHolder_FreesIt() {
+        // Arrange
+        backend.tryAcquireLease("lease", "a", TTL).block();
+
+        // Act
+        backend.releaseLease("lease", "b").block();
+        boolean takenWhileHeld = backend.tryAcquireLease("lease", "b", TTL).block();
+        backend.releaseLease("lease", "a").block();
+
+        // Assert
+        assertFalse(takenWhileHeld);
+        assertTrue(backend.tryAcquireLease("lease", "b", TTL).block());
+    }
+
+    // ==================== VALUE TESTS ====================
+
+    @Test
+    void putAndGet_CopyValues() {
+        // Arrange
+        byte[] value = {1, 2, 3};
+
+        // Act
+        backend.put("key", value).block();
+        value[0] = 9;
+        byte[] read = backend.get("key").block();
+        read[1] = 9;
+
+        // Assert
+        assertArrayEquals(new byte[]{1, 2, 3}, backend.get("key").block());
+    }
+
+    @Test
+    void get_MissingKey_IsEmpty() {
+        // Act & Assert
+        assertNull(backend.get("missing").block());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.home.test.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.home.test.config.ClusterProperties;
+import com.home.test.config.SnapshotProperties;
+import com.home.test.dto.CurrencyResponse;
+import com.home.test.dto.PeerHeartbeat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeerRefreshCoordinatorTest {
+
+    private static final long REFRESH_INTERVAL_MS = 3600000;
+    private static final String PEER_A = "http://peer-a";
+    private static final String PEER_B = "http://peer-b";
+    private static final String PEER_C = "http://peer-c";
+    private static final String TOKEN = "secret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MutableClock clock;
+    private Map<String, PeerHeartbeat> heartbeats;
+    private List<String> pushes;
+    private List<String> pushTokens;
+    private AtomicInteger refreshes;
+    private SnapshotFileStore codec;
+    private DataStoreService store;
+    private Supplier<Mono<Void>> refresh;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-06-15T00:00:00Z"));
+        heartbeats = new ConcurrentHashMap<>();
+        pushes = new CopyOnWriteArrayList<>();
+        pushTokens = new CopyOnWriteArrayList<>();
+        refreshes = new AtomicInteger();
+        SnapshotProperties snapshotProperties = new SnapshotProperties();
+        snapshotProperties.setEnabled(false);
+        codec = new SnapshotFileStore(snapshotProperties);
+        store = new DataStoreService(codec);
+        refresh = () -> Mono.fromRunnable(() -> {
+            refreshes.incrementAndGet();
+            store.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD")));
+            store.markAsInitialized();
+        });
+    }
+
+    // ==================== ELECTION TESTS ====================
+
+    @Test
+    void sync_LowestInstanceId_RefreshesOnceAndPushesToStalePeers() {
+        // Arrange
+        heartbeats.put(PEER_B, new PeerHeartbeat("b", 0, false));
+        heartbeats.put(PEER_C, new PeerHeartbeat("c", 0, false));
+        PeerRefreshCoordinator coordinator = coordinator("a", TOKEN, PEER_B, PEER_C);
+
+        // Act
+        coordinator.sync(refresh).block();
+
+        // Assert
+        long version = store.getSnapshotVersion();
+        assertTrue(coordinator.isLeader());
+        assertEquals(1, refreshes.get());
+        assertEquals(clock.millis(), version);
+        assertEquals(List.of(PEER_B + " " + version, PEER_C + " " + version), sorted(pushes));
+
+        // Act - the peers now report the pushed version
+        heartbeats.put(PEER_B, new PeerHeartbeat("b", version, false));
+        heartbeats.put(PEER_C, new PeerHeartbeat("c", version, false));
+        coordinator.sync(refresh).block();
+
+        // Assert
+        assertEquals(1, refreshes.get());
+        assertEquals(2, pushes.size());
+    }
+
+    @Test
+    void sync_RefreshFails_NotStampedAndRetriedNextRound() {
+        // Arrange - the first load misses a resource, the second one completes
+        heartbeats.put(PEER_B, new PeerHeartbeat("b", 0, false));
+        PeerRefreshCoordinator coordinator = coordinator("a", TOKEN, PEER_B);
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<Mono<Void>> flaky = () -> attempts.incrementAndGet() == 1
+                ? Mono.error(new IllegalStateException("Data not loaded for [latest_idr_rates]"))
+                : refresh.get();
+
+        // Act & Assert - the failed round stamps and pushes nothing
+        assertThrows(IllegalStateException.class, () -> coordinator.sync(flaky).block());
+        assertEquals(0, store.getSnapshotVersion());
+        assertTrue(pushes.isEmpty());
+
+        // Act & Assert - the next round loads again instead of waiting an interval
+        clock.advance(Duration.ofSeconds(5));
+        coordinator.sync(flaky).block();
+        assertEquals(2, attempts.get());
+        assertEquals(clock.millis(), store.getSnapshotVersion());
+        assertEquals(List.of(PEER_B + " " + store.getSnapshotVersion()), pushes);
+    }
+
+    @Test
+    void sync_LateJoiningPeer_IsCaughtUp() {
+        // Arrange
+        PeerRefreshCoordinator coordinator = coordinator("a", TOKEN, PEER_B);
+        coordinator.sync(refresh).block();
+
+        // Act
+        heartbeats.put(PEER_B, new PeerHeartbeat("b", 0, false));
+        coordinator.sync(refresh).block();
+
+        // Assert
+        assertEquals(1, refreshes.get());
+        assertEquals(List.of(PEER_B + " " + store.getSnapshotVersion()), pushes);
+    }
+
+    @Test
+    void sync_LowerInstanceIdAnswers_Follows() {
+        // Arrange
+        heartbeats.put(PEER_A, new PeerHeartbeat("a", 0, true));
+        PeerRefreshCoordinator coordinator = coordinator("b", TOKEN, PEER_A, PEER_C);
+
+        // Act
+        coordinator.sync(refresh).block();
+
+        // Assert
+        assertFalse(coordinator.isLeader());
+        assertEquals(0, refreshes.get());
+        assertTrue(pushes.isEmpty());
+    }
+
+    @Test
+    void sync_LeaderStopsAnswering_NextTakesOverKeepingCadence() {
+        // Arrange - a pushed a snapshot and then went away
+        store.applySnapshot(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))), clock.millis());
+        heartbeats.put(PEER_C, new PeerHeartbeat("c", clock.millis(), false));
+        PeerRefreshCoordinator coordinator = coordinator("b", TOKEN, PEER_A, PEER_C);
+
+        // Act
+        coordinator.sync(refresh).block();
+
+        // Assert
+        assertTrue(coordinator.isLeader());
+        assertEquals(0, refreshes.get());
+
+        // Act - the refresh a would have made is now due
+        clock.advance(Duration.ofMillis(REFRESH_INTERVAL_MS));
+        coordinator.sync(refresh).block();
+
+        // Assert
+        assertEquals(1, refreshes.get());
+        assertEquals(List.of(PEER_C + " " + store.getSnapshotVersion()), pushes);
+    }
+
+    @Test
+    void sync_PeersListNamingThisNode_IgnoresItself() {
+        // Arrange
+        heartbeats.put(PEER_B, new PeerHeartbeat("b", 0, false));
+        heartbeats.put(PEER_C, new PeerHeartbeat("c", 0, false));
+        PeerRefreshCoordinator coordinator = coordinator("b", TOKEN, PEER_B, PEER_C);
+
+        // Act
+        coordinator.sync(refresh).block();
+
+        // Assert
+        assertTrue(coordinator.isLeader());
+        assertEquals(List.of(PEER_C + " " + store.getSnapshotVersion()), pushes);
+    }
+
+    // ==================== PUSH TESTS ====================
+
+    @Test
+    void sync_SendsPeerToken() {
+        // Arrange
+        heartbeats.put(PEER_B, new PeerHeartbeat("b", 0, false));
+        PeerRefreshCoordinator coordinator = coordinator("a", TOKEN, PEER_B);
+
+        // Act
+        coordinator.sync(refresh).block();
+
+        // Assert
+        assertEquals(List.of(TOKEN), pushTokens);
+    }
+
+    @Test
+    void acceptsToken_ChecksConfiguredToken() {
+        // Arrange
+        PeerRefreshCoordinator coordinator = coordinator("a", TOKEN);
+
+        // Act & Assert
+        assertTrue(coordinator.acceptsToken(TOKEN));
+        assertFalse(coordinator.acceptsToken("other"));
+        assertFalse(coordinator.acceptsToken(null));
+    }
+
+    @Test
+    void constructor_WithoutPeerToken_Throws() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> coordinator("a", null));
+        assertThrows(IllegalStateException.class, () -> coordinator("a", " "));
+    }
+
+    @Test
+    void receive_AppliesOnlyNewerVersions() {
+        // Arrange
+        PeerRefreshCoordinator coordinator = coordinator("b", TOKEN);
+        byte[] snapshot = codec.encode(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR", "USD"))));
+
+        // Act & Assert
+        assertTrue(coordinator.receive(snapshot, 100));
+        assertFalse(coordinator.receive(snapshot, 100));
+        assertTrue(store.isInitialized());
+        assertEquals(100, coordinator.heartbeat().getVersion());
+        assertThrows(IllegalArgumentException.class, () -> coordinator.receive(new byte[]{1, 2, 3}, 200));
+    }
+
+    @Test
+    void receive_VersionAheadOfClock_Throws() {
+        // Arrange
+        PeerRefreshCoordinator coordinator = coordinator("b", TOKEN);
+        byte[] snapshot = codec.encode(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR", "USD"))));
+        long latest = clock.millis() + PeerRefreshCoordinator.MAX_VERSION_SKEW.toMillis();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> coordinator.receive(snapshot, Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> coordinator.receive(snapshot, latest + 1));
+        assertThrows(IllegalArgumentException.class, () -> coordinator.receive(snapshot, 0));
+        assertFalse(store.isInitialized());
+        assertTrue(coordinator.receive(snapshot, latest));
+    }
+
+    private PeerRefreshCoordinator coordinator(String instanceId, String peerToken, String... peers) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setMode(ClusterProperties.PEERS_MODE);
+        properties.setInstanceId(instanceId);
+        properties.setPeers(List.of(peers));
+        properties.setPeerToken(peerToken);
+        properties.setRefreshIntervalMs(REFRESH_INTERVAL_MS);
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    String url = request.url().toString();
+                    if (url.endsWith(PeerRefreshCoordinator.HEARTBEAT_PATH)) {
+                        PeerHeartbeat heartbeat = heartbeats.get(url.substring(0, url.indexOf(PeerRefreshCoordinator.HEARTBEAT_PATH)));
+                        if (heartbeat == null) {
+                            return Mono.error(new ConnectException("Connection refused"));
+                        }
+                        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body(json(heartbeat))
+                                .build());
+                    }
+                    String peer = url.substring(0, url.indexOf(PeerRefreshCoordinator.SNAPSHOT_PATH));
+                    pushes.add(peer + " " + request.headers().getFirst(PeerRefreshCoordinator.VERSION_HEADER));
+                    String token = request.headers().getFirst(PeerRefreshCoordinator.TOKEN_HEADER);
+                    if (token != null) {
+                        pushTokens.add(token);
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.NO_CONTENT).build());
+                })
+                .build();
+        return new PeerRefreshCoordinator(webClient, store, codec, properties, clock, Schedulers.immediate());
+    }
+
+    private String json(PeerHeartbeat heartbeat) {
+        try {
+            return objectMapper.writeValueAsString(heartbeat);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<>(values);
+        copy.sort(null);
+        return copy;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
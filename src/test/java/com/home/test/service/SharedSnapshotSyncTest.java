@@ -0,0 +1,223 @@
+package com.home.test.service;
+
+import com.home.test.config.ClusterProperties;
+import com.home.test.config.SnapshotProperties;
+import com.home.test.dto.CurrencyResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedSnapshotSyncTest {
+
+    private static final int LEASE_TTL_MS = 30000;
+    private static final long REFRESH_INTERVAL_MS = 3600000;
+
+    private MutableClock clock;
+    private InMemorySharedCacheBackend backend;
+    private AtomicInteger refreshes;
+    private Replica[] replicas;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-06-15T00:00:00Z"));
+        backend = new InMemorySharedCacheBackend(clock);
+        refreshes = new AtomicInteger();
+        replicas = new Replica[]{new Replica("a"), new Replica("b"), new Replica("c")};
+    }
+
+    // ==================== LEADER TESTS ====================
+
+    @Test
+    void sync_ThreeReplicas_OnlyLeaderRefreshesAndFollowersAdopt() {
+        // Act
+        syncAll();
+
+        // Assert
+        assertEquals(1, refreshes.get());
+        assertTrue(replicas[0].sync.isLeader());
+        assertFalse(replicas[1].sync.isLeader());
+        assertFalse(replicas[2].sync.isLeader());
+        for (Replica replica : replicas) {
+            assertTrue(replica.store.isInitialized());
+            assertEquals(List.of("IDR", "USD"),
+                    replica.store.getData("supported_currencies", CurrencyResponse.class).getCurrencies());
+        }
+    }
+
+    @Test
+    void sync_WithinRefreshInterval_NobodyRefreshesAgain() {
+        // Arrange
+        syncAll();
+
+        // Act
+        clock.advance(Duration.ofMillis(REFRESH_INTERVAL_MS - 1));
+        syncAll();
+
+        // Assert
+        assertEquals(1, refreshes.get());
+        assertTrue(replicas[0].sync.isLeader());
+    }
+
+    @Test
+    void sync_AfterRefreshInterval_LeaderRefreshesAgain() {
+        // Arrange
+        syncAll();
+
+        // Act
+        clock.advance(Duration.ofMillis(REFRESH_INTERVAL_MS));
+        syncAll();
+
+        // Assert
+        assertEquals(2, refreshes.get());
+    }
+
+    @Test
+    void sync_LeaderStopsRenewing_NextReplicaTakesOverWithoutRefetching() {
+        // Arrange
+        syncAll();
+        syncAll();
+
+        // Act - replica a goes away and its lease runs out
+        clock.advance(Duration.ofMillis(LEASE_TTL_MS));
+        replicas[1].sync();
+        replicas[2].sync();
+
+        // Assert
+        assertTrue(replicas[1].sync.isLeader());
+        assertFalse(replicas[2].sync.isLeader());
+        assertEquals(1, refreshes.get());
+
+        // Act - the new leader keeps the original cadence
+        clock.advance(Duration.ofMillis(REFRESH_INTERVAL_MS));
+        replicas[1].sync();
+
+        // Assert
+        assertEquals(2, refreshes.get());
+    }
+
+    @Test
+    void destroy_Leader_ReleasesLeaseAtOnce() {
+        // Arrange
+        syncAll();
+
+        // Act
+        replicas[0].sync.destroy();
+        replicas[1].sync();
+
+        // Assert
+        assertFalse(replicas[0].sync.isLeader());
+        assertTrue(replicas[1].sync.isLeader());
+    }
+
+    @Test
+    void sync_RefreshLoadsNothing_PublishesNothing() {
+        // Arrange
+        Replica replica = replicas[0];
+
+        // Act
+        replica.sync.sync(() -> Mono.empty()).block();
+
+        // Assert
+        assertTrue(replica.sync.isLeader());
+        assertNull(backend.get(SharedSnapshotSync.SNAPSHOT_KEY).block());
+    }
+
+    @Test
+    void sync_RefreshFails_RetriesNextRoundWithoutPublishing() {
+        // Arrange - the first load misses a resource, the second one completes
+        Replica replica = replicas[0];
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<Mono<Void>> refresh = () -> attempts.incrementAndGet() == 1
+                ? Mono.error(new IllegalStateException("Data not loaded for [latest_idr_rates]"))
+                : replica.refresh.get();
+
+        // Act & Assert - the failed round publishes nothing and leaves the refresh due
+        assertThrows(IllegalStateException.class, () -> replica.sync.sync(refresh).block());
+        assertNull(backend.get(SharedSnapshotSync.SNAPSHOT_KEY).block());
+
+        clock.advance(Duration.ofSeconds(5));
+        replica.sync.sync(refresh).block();
+        assertEquals(2, attempts.get());
+        assertNotNull(backend.get(SharedSnapshotSync.SNAPSHOT_KEY).block());
+
+        // Act & Assert - the cadence restarts from the successful load
+        clock.advance(Duration.ofMillis(REFRESH_INTERVAL_MS - 1));
+        replica.sync.sync(refresh).block();
+        assertEquals(2, attempts.get());
+    }
+
+    private void syncAll() {
+        for (Replica replica : replicas) {
+            replica.sync();
+        }
+    }
+
+    private final class Replica {
+        final DataStoreService store;
+        final SharedSnapshotSync sync;
+        final Supplier<Mono<Void>> refresh;
+
+        Replica(String instanceId) {
+            SnapshotProperties snapshotProperties = new SnapshotProperties();
+            snapshotProperties.setEnabled(false);
+            SnapshotFileStore codec = new SnapshotFileStore(snapshotProperties);
+            store = new DataStoreService(codec);
+
+            ClusterProperties properties = new ClusterProperties();
+            properties.setEnabled(true);
+            properties.setInstanceId(instanceId);
+            properties.setLeaseTtlMs(LEASE_TTL_MS);
+            properties.setRefreshIntervalMs(REFRESH_INTERVAL_MS);
+            sync = new SharedSnapshotSync(backend, store, codec, properties, clock, Schedulers.immediate());
+
+            refresh = () -> Mono.fromRunnable(() -> {
+                refreshes.incrementAndGet();
+                store.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD")));
+                store.markAsInitialized();
+            });
+        }
+
+        void sync() {
+            sync.sync(refresh).block();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
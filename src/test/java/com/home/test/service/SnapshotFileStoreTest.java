@@ -0,0 +1,225 @@
+package com.home.test.service;
+
+import com.home.test.config.SnapshotProperties;
+import com.home.test.dto.CurrencyResponse;
+import com.home.test.dto.LatestRatesResponse;
+import com.home.test.dto.SpreadQuote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshotPath;
+    private SnapshotFileStore snapshotFileStore;
+
+    @BeforeEach
+    void setUp() {
+        snapshotPath = tempDir.resolve("nested/snapshot.json.gz");
+        snapshotFileStore = new SnapshotFileStore(properties(true));
+    }
+
+    @Test
+    void saveAndLoad_RoundTripsDtos() {
+        // Arrange
+        LatestRatesResponse latestRates = new LatestRatesResponse("IDR", "2025-01-15",
+                Map.of("USD", 0.0000612345678, "EUR", 0.000058), 16436.0,
+                Map.of("standard", Map.of("USD", new SpreadQuote(16436.0, 16300.0))));
+        CurrencyResponse currencies = new CurrencyResponse(List.of("IDR", "USD"));
+
+        // Act
+        snapshotFileStore.save(Map.of("latest_idr_rates", latestRates, "supported_currencies", currencies));
+        Map<String, Object> loaded = snapshotFileStore.load();
+
+        // Assert
+        LatestRatesResponse loadedRates = (LatestRatesResponse) loaded.get("latest_idr_rates");
+        assertEquals("2025-01-15", loadedRates.getDate());
+        assertEquals(0.0000612345678, loadedRates.getRates().get("USD"));
+        assertEquals(16436.0, loadedRates.getUsdBuySpreadIdr());
+        assertEquals(16300.0, loadedRates.getSpreads().get("standard").get("USD").getSell());
+        assertEquals(List.of("IDR", "USD"), ((CurrencyResponse) loaded.get("supported_currencies")).getCurrencies());
+    }
+
+    @Test
+    void save_SkipsNonDtoResources() {
+        // Act
+        snapshotFileStore.save(Map.of("custom", "plain string", "supported_currencies", new CurrencyResponse(List.of("IDR"))));
+
+        // Assert
+        assertEquals(Set.of("supported_currencies"), snapshotFileStore.load().keySet());
+    }
+
+    @Test
+    void load_MissingFile_ReturnsEmpty() {
+        // Act & Assert
+        assertTrue(snapshotFileStore.load().isEmpty());
+    }
+
+    @Test
+    void load_CorruptFile_ReturnsEmpty() throws Exception {
+        // Arrange
+        Files.createDirectories(snapshotPath.getParent());
+        Files.writeString(snapshotPath, "not gzip");
+
+        // Act & Assert
+        assertTrue(snapshotFileStore.load().isEmpty());
+    }
+
+    @Test
+    void disabled_NeitherWritesNorReads() {
+        // Arrange
+        SnapshotFileStore disabled = new SnapshotFileStore(properties(false));
+
+        // Act
+        disabled.save(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))));
+
+        // Assert
+        assertFalse(Files.exists(snapshotPath));
+        assertTrue(disabled.load().isEmpty());
+    }
+
+    @Test
+    void load_OlderThanMaxAge_ReturnsEmpty() {
+        // Arrange
+        Instant savedAt = Instant.parse("2025-06-15T00:00:00Z");
+        SnapshotProperties properties = properties(true);
+        properties.setMaxAgeMs(Duration.ofHours(24).toMillis());
+        new SnapshotFileStore(properties, Clock.fixed(savedAt, ZoneOffset.UTC))
+                .save(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))));
+
+        // Act
+        Map<String, Object> withinMaxAge = new SnapshotFileStore(properties,
+                Clock.fixed(savedAt.plus(Duration.ofHours(24)), ZoneOffset.UTC)).load();
+        Map<String, Object> pastMaxAge = new SnapshotFileStore(properties,
+                Clock.fixed(savedAt.plus(Duration.ofHours(24)).plusMillis(1), ZoneOffset.UTC)).load();
+
+        // Assert
+        assertEquals(Set.of("supported_currencies"), withinMaxAge.keySet());
+        assertTrue(pastMaxAge.isEmpty());
+    }
+
+    @Test
+    void load_MaxAgeZero_RestoresAnyAge() {
+        // Arrange
+        SnapshotProperties properties = properties(true);
+        properties.setMaxAgeMs(0);
+        new SnapshotFileStore(properties, Clock.fixed(Instant.parse("2020-01-01T00:00:00Z"), ZoneOffset.UTC))
+                .save(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))));
+
+        // Act & Assert
+        assertEquals(Set.of("supported_currencies"), new SnapshotFileStore(properties).load().keySet());
+    }
+
+    @Test
+    void encodeAndDecode_RoundTripWithFileSnapshotsDisabled() {
+        // Arrange
+        SnapshotFileStore codec = new SnapshotFileStore(properties(false));
+
+        // Act
+        byte[] encoded = codec.encode(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR", "USD"))));
+        Map<String, Object> decoded = codec.decode(encoded);
+
+        // Assert
+        assertEquals(List.of("IDR", "USD"), ((CurrencyResponse) decoded.get("supported_currencies")).getCurrencies());
+        assertTrue(codec.decode(new byte[]{1, 2, 3}).isEmpty());
+        assertFalse(Files.exists(snapshotPath));
+    }
+
+    @Test
+    void decode_InflatesPastLimit_ReturnsEmpty() throws IOException {
+        // Arrange: a valid snapshot behind enough leading whitespace to pass the cap
+        SnapshotFileStore codec = new SnapshotFileStore(properties(false));
+        byte[] json;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(
+                codec.encode(Map.of("supported_currencies", new CurrencyResponse(List.of("IDR"))))))) {
+            json = in.readAllBytes();
+        }
+        ByteArrayOutputStream bomb = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bomb)) {
+            byte[] padding = new byte[SnapshotFileStore.MAX_DECODED_BYTES];
+            Arrays.fill(padding, (byte) ' ');
+            out.write(padding);
+            out.write(json);
+        }
+
+        // Act & Assert
+        assertTrue(codec.decode(bomb.toByteArray()).isEmpty());
+    }
+
+    @Test
+    void dataStoreService_WarmStartsFromPublishedSnapshot() {
+        // Arrange
+        DataStoreService previousRun = new DataStoreService(snapshotFileStore);
+        previousRun.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD")));
+        previousRun.markAsInitialized();
+
+        DataStoreService nextRun = new DataStoreService(new SnapshotFileStore(properties(true)));
+
+        // Act
+        boolean restored = nextRun.restoreSnapshot();
+
+        // Assert
+        assertTrue(restored);
+        assertTrue(nextRun.isInitialized());
+        assertEquals(List.of("IDR", "USD"),
+                nextRun.getData("supported_currencies", CurrencyResponse.class).getCurrencies());
+    }
+
+    @Test
+    void dataStoreService_PublishWithoutNewData_KeepsSnapshotAge() throws IOException {
+        // Arrange
+        Instant savedAt = Instant.parse("2025-06-14T00:00:00Z");
+        DataStoreService previousRun = new DataStoreService(
+                new SnapshotFileStore(properties(true), Clock.fixed(savedAt, ZoneOffset.UTC)));
+        previousRun.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD")));
+        previousRun.markAsInitialized();
+        byte[] written = Files.readAllBytes(snapshotPath);
+
+        DataStoreService nextRun = new DataStoreService(
+                new SnapshotFileStore(properties(true), Clock.fixed(savedAt.plus(Duration.ofHours(1)), ZoneOffset.UTC)));
+        nextRun.restoreSnapshot();
+
+        // Act - the live refresh stored nothing
+        nextRun.markAsInitialized();
+
+        // Assert
+        assertArrayEquals(written, Files.readAllBytes(snapshotPath));
+
+        // Act - a later refresh stores fresh data
+        nextRun.storeSupportedCurrencies(new CurrencyResponse(List.of("IDR", "USD", "EUR")));
+        nextRun.markAsInitialized();
+
+        // Assert
+        assertFalse(Arrays.equals(written, Files.readAllBytes(snapshotPath)));
+    }
+
+    private SnapshotProperties properties(boolean enabled) {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setEnabled(enabled);
+        properties.setPath(snapshotPath.toString());
+        return properties;
+    }
+}
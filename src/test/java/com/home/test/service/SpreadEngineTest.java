@@ -0,0 +1,144 @@
+package com.home.test.service;
+
+import com.home.test.config.GithubProperties;
+import com.home.test.config.SpreadProperties;
+import com.home.test.dto.SpreadQuote;
+import com.home.test.util.SpreadFactorCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpreadEngineTest {
+
+    private static final double USD_RATE = 0.0000625;
+    private static final double EUR_RATE = 0.00005;
+
+    private SpreadProperties spreadProperties;
+    private SpreadEngine spreadEngine;
+
+    @BeforeEach
+    void setUp() {
+        GithubProperties githubProperties = new GithubProperties();
+        githubProperties.setUsername("dihardmg");
+
+        spreadProperties = new SpreadProperties();
+        spreadEngine = new SpreadEngine(spreadProperties, githubProperties, new SpreadFactorCalculator());
+    }
+
+    @Test
+    void buildTable_NoConfiguration_UsesPersonalFactorForStandardTier() {
+        Map<String, Map<String, SpreadQuote>> table = spreadEngine.buildTable(rates());
+
+        assertEquals(1, table.size());
+        SpreadQuote usd = table.get(SpreadEngine.DEFAULT_TIER).get("USD");
+        assertEquals(16000.0 * 1.00832, usd.getBuy(), 1e-6);
+        assertEquals(16000.0 * 0.99168, usd.getSell(), 1e-6);
+    }
+
+    @Test
+    void buildTable_QuotesCarryHalfEvenSettlementInRupiah() {
+        spreadProperties.setDefaultBuy(0.0);
+        spreadProperties.setDefaultSell(0.0);
+
+        SpreadQuote usd = spreadEngine.buildTable(Map.of("USD", USD_RATE)).get(SpreadEngine.DEFAULT_TIER).get("USD");
+
+        assertEquals(16000L, usd.getBuyMinor());
+        assertEquals(16000L, usd.getSellMinor());
+        // IDR has no minor digits, so halves round to the even rupiah
+        assertEquals(16436L, SpreadEngine.settlement(16436.5));
+        assertEquals(16438L, SpreadEngine.settlement(16437.5));
+        assertEquals(16437L, SpreadEngine.settlement(16436.51));
+        assertNull(SpreadEngine.settlement(1e13));
+    }
+
+    @Test
+    void buildTable_CurrencyOverrideAndTierMultiplier() {
+        spreadProperties.setDefaultBuy(0.01);
+        spreadProperties.setDefaultSell(0.02);
+        spreadProperties.getCurrencies().put("USD", spread(0.004, null));
+
+        SpreadProperties.Tier standard = new SpreadProperties.Tier();
+        SpreadProperties.Tier priority = new SpreadProperties.Tier();
+        priority.setMultiplier(0.5);
+        spreadProperties.getTiers().put("standard", standard);
+        spreadProperties.getTiers().put("priority", priority);
+
+        Map<String, Map<String, SpreadQuote>> table = spreadEngine.buildTable(rates());
+
+        assertEquals(16000.0 * 1.004, table.get("standard").get("USD").getBuy(), 1e-6);
+        assertEquals(16000.0 * 0.98, table.get("standard").get("USD").getSell(), 1e-6);
+        assertEquals(20000.0 * 1.01, table.get("standard").get("EUR").getBuy(), 1e-6);
+
+        assertEquals(16000.0 * 1.002, table.get("priority").get("USD").getBuy(), 1e-6);
+        assertEquals(20000.0 * 0.99, table.get("priority").get("EUR").getSell(), 1e-6);
+    }
+
+    @Test
+    void buildTable_TierSpecificOverrideIsNotScaled() {
+        spreadProperties.setDefaultBuy(0.01);
+        spreadProperties.setDefaultSell(0.01);
+
+        SpreadProperties.Tier priority = new SpreadProperties.Tier();
+        priority.setMultiplier(0.5);
+        priority.getCurrencies().put("EUR", spread(0.003, 0.001));
+        spreadProperties.getTiers().put("priority", priority);
+
+        SpreadQuote eur = spreadEngine.buildTable(rates()).get("priority").get("EUR");
+
+        assertEquals(20000.0 * 1.003, eur.getBuy(), 1e-6);
+        assertEquals(20000.0 * 0.999, eur.getSell(), 1e-6);
+    }
+
+    @Test
+    void buildTable_SkipsZeroAndMissingRates() {
+        Map<String, Double> rates = rates();
+        rates.put("XXX", 0.0);
+        rates.put("YYY", null);
+
+        Map<String, SpreadQuote> quotes = spreadEngine.buildTable(rates).get(SpreadEngine.DEFAULT_TIER);
+
+        assertEquals(2, quotes.size());
+        assertFalse(quotes.containsKey("XXX"));
+        assertFalse(quotes.containsKey("YYY"));
+    }
+
+    @Test
+    void buildTable_QuotesCodesOutsideTheDataset() {
+        spreadProperties.setDefaultBuy(0.0);
+        spreadProperties.setDefaultSell(0.0);
+        Map<String, Double> rates = rates();
+        rates.put("QPD", 0.0001);
+
+        Map<String, SpreadQuote> quotes = spreadEngine.buildTable(rates).get(SpreadEngine.DEFAULT_TIER);
+
+        assertEquals(3, quotes.size());
+        assertEquals(10000.0, quotes.get("QPD").getBuy(), 1e-6);
+    }
+
+    @Test
+    void buildTable_IsImmutable() {
+        Map<String, Map<String, SpreadQuote>> table = spreadEngine.buildTable(rates());
+
+        assertThrows(UnsupportedOperationException.class, () -> table.put("gold", Map.of()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> table.get(SpreadEngine.DEFAULT_TIER).put("JPY", new SpreadQuote(1, 1)));
+    }
+
+    private Map<String, Double> rates() {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rates.put("USD", USD_RATE);
+        rates.put("EUR", EUR_RATE);
+        return rates;
+    }
+
+    private SpreadProperties.Spread spread(Double buy, Double sell) {
+        SpreadProperties.Spread spread = new SpreadProperties.Spread();
+        spread.setBuy(buy);
+        spread.setSell(sell);
+        return spread;
+    }
+}
@@ -3,6 +3,8 @@ package com.home.test.strategy;
 import com.home.test.config.GithubProperties;
 import com.home.test.dto.FrankfurterLatestResponse;
 import com.home.test.dto.LatestRatesResponse;
+import com.home.test.dto.SpreadQuote;
+import com.home.test.service.SpreadEngine;
 import com.home.test.util.SpreadFactorCalculator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,6 +39,9 @@ class LatestRatesStrategyTest {
     @Mock
     private SpreadFactorCalculator spreadFactorCalculator;
 
+    @Mock
+    private SpreadEngine spreadEngine;
+
     private LatestRatesStrategy strategy;
 
     @BeforeEach
@@ -46,7 +51,7 @@ class LatestRatesStrategyTest {
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
 
-        strategy = new LatestRatesStrategy(webClient, githubProperties, spreadFactorCalculator);
+        strategy = new LatestRatesStrategy(webClient, githubProperties, spreadFactorCalculator, spreadEngine);
     }
 
     @Test
@@ -65,6 +70,9 @@ class LatestRatesStrategyTest {
         mockResponse.setDate("2024-01-01");
         mockResponse.setRates(Map.of("USD", usdRate, "EUR", 0.000059));
 
+        Map<String, Map<String, SpreadQuote>> spreads = Map.of("standard", Map.of("USD", new SpreadQuote(15462.0, 15308.0)));
+        when(spreadEngine.buildTable(mockResponse.getRates())).thenReturn(spreads);
+
         when(responseSpec.bodyToMono(FrankfurterLatestResponse.class)).thenReturn(Mono.just(mockResponse));
 
         Mono<LatestRatesResponse> result = strategy.fetchData();
@@ -75,6 +83,7 @@ class LatestRatesStrategyTest {
                     assertEquals("2024-01-01", response.getDate());
                     assertEquals(usdRate, response.getRates().get("USD"));
                     assertEquals(expectedUsdBuySpread, response.getUsdBuySpreadIdr());
+                    assertSame(spreads, response.getSpreads());
                 })
                 .verifyComplete();
 
@@ -68,7 +68,7 @@ class SupportedCurrenciesStrategyTest {
 
         StepVerifier.create(result)
                 .assertNext(response -> {
-                    // Now returns all supported currencies from metadata service, not just from API response
+                    // Returns the supported set of the catalog refreshed from this payload
                     assertEquals(31, response.getCurrencies().size()); // All currencies from metadata service
                     assertTrue(response.getCurrencies().contains("USD"));
                     assertTrue(response.getCurrencies().contains("EUR"));
@@ -82,6 +82,7 @@ class SupportedCurrenciesStrategyTest {
         verify(webClient).get();
         verify(requestHeadersUriSpec).uri("/currencies");
         verify(responseSpec).bodyToMono(Map.class);
+        verify(currencyMetadataService).refreshCatalog(mockCurrenciesMap);
         verify(currencyMetadataService).getSupportedCurrencyCodes();
     }
 
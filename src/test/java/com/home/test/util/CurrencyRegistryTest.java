@@ -0,0 +1,92 @@
+package com.home.test.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyRegistryTest {
+
+    @Test
+    void ordinals_AreDenseAndRoundTrip() {
+        List<String> codes = CurrencyRegistry.codes();
+
+        assertEquals(CurrencyRegistry.size(), codes.size());
+        for (int ordinal = 0; ordinal < codes.size(); ordinal++) {
+            String code = CurrencyRegistry.code(ordinal);
+            assertEquals(code, codes.get(ordinal));
+            assertEquals(ordinal, CurrencyRegistry.ordinal(code));
+        }
+    }
+
+    @Test
+    void ordinals_FollowAlphabeticalOrderForTheDataset() {
+        List<String> codes = CurrencyRegistry.codes().subList(0, CurrencyRegistry.DATASET_SIZE);
+
+        assertEquals(codes.stream().sorted().toList(), codes);
+    }
+
+    @Test
+    void code_ReturnsCanonicalInstance() {
+        String requested = new String(new char[]{'U', 'S', 'D'});
+
+        assertSame(CurrencyRegistry.code(CurrencyRegistry.USD), CurrencyRegistry.code(CurrencyRegistry.ordinal(requested)));
+        assertEquals("USD", CurrencyRegistry.code(CurrencyRegistry.USD));
+        assertEquals("IDR", CurrencyRegistry.code(CurrencyRegistry.IDR));
+    }
+
+    @Test
+    void ordinal_RejectsUnsupportedAndMalformedCodes() {
+        for (String code : new String[]{null, "", "XYZ", "usd", "US", "USDA", "U1D"}) {
+            assertEquals(-1, CurrencyRegistry.ordinal(code), String.valueOf(code));
+        }
+    }
+
+    @Test
+    void register_CodeOutsideDataset_GetsNextOrdinalOnce() {
+        // Act
+        int ordinal = CurrencyRegistry.register("QPB");
+
+        // Assert
+        assertTrue(ordinal >= CurrencyRegistry.DATASET_SIZE && ordinal < CurrencyRegistry.CAPACITY);
+        assertEquals(ordinal, CurrencyRegistry.register("QPB"));
+        assertEquals(ordinal, CurrencyRegistry.ordinal("QPB"));
+        assertEquals(ordinal, CurrencyRegistry.ordinalIgnoreCase("qpb"));
+        assertEquals("QPB", CurrencyRegistry.code(ordinal));
+        assertEquals("QPB", CurrencyRegistry.iso(ordinal).getName());
+        assertFalse(CurrencyRegistry.isDatasetOrdinal(ordinal));
+        assertTrue(CurrencyRegistry.codes().contains("QPB"));
+    }
+
+    @Test
+    void register_KnownAndMalformedCodes() {
+        assertEquals(CurrencyRegistry.USD, CurrencyRegistry.register("USD"));
+        assertTrue(CurrencyRegistry.isDatasetOrdinal(CurrencyRegistry.USD));
+        for (String code : new String[]{null, "", "usd", "US", "U1D"}) {
+            assertEquals(-1, CurrencyRegistry.register(code), String.valueOf(code));
+        }
+    }
+
+    @Test
+    void ordinalIgnoreCase_FoldsCaseWithoutAcceptingOtherCharacters() {
+        assertEquals(CurrencyRegistry.USD, CurrencyRegistry.ordinalIgnoreCase("usd"));
+        assertEquals(CurrencyRegistry.USD, CurrencyRegistry.ordinalIgnoreCase("Usd"));
+        assertEquals(CurrencyRegistry.IDR, CurrencyRegistry.ordinalIgnoreCase("IDR"));
+        assertEquals(-1, CurrencyRegistry.ordinalIgnoreCase("xyz"));
+        assertEquals(-1, CurrencyRegistry.ordinalIgnoreCase("u$d"));
+        assertEquals(-1, CurrencyRegistry.ordinalIgnoreCase(""));
+    }
+
+    @Test
+    void iso_BundledDatasetCoversEveryOrdinal() {
+        assertTrue(CurrencyRegistry.DATASET_SIZE > 31);
+        for (int ordinal = 0; ordinal < CurrencyRegistry.DATASET_SIZE; ordinal++) {
+            CurrencyRegistry.IsoCurrency iso = CurrencyRegistry.iso(ordinal);
+            assertEquals(CurrencyRegistry.code(ordinal), iso.getCode());
+            assertFalse(iso.getName().isBlank(), iso.getCode());
+            assertFalse(iso.getCountry().isBlank(), iso.getCode());
+            assertTrue(iso.getDecimalPlaces() >= 0 && iso.getDecimalPlaces() <= 3, iso.getCode());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.home.test.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NavigableMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyRatesParserTest {
+
+    @Test
+    void parse_FillsOrdinalRowsPerDay() throws IOException {
+        // Arrange
+        String json = "{\"amount\":1.0,\"base\":\"IDR\",\"start_date\":\"2025-01-02\",\"end_date\":\"2025-01-03\","
+                + "\"rates\":{\"2025-01-03\":{\"USD\":0.000063,\"EUR\":6.0E-5},\"2025-01-02\":{\"USD\":0.000064,\"JPY\":1}}}";
+
+        // Act
+        NavigableMap<String, double[]> days = DailyRatesParser.parse(stream(json));
+
+        // Assert
+        assertEquals("2025-01-02", days.firstKey());
+        assertEquals(2, days.size());
+        double[] first = days.get("2025-01-02");
+        assertEquals(CurrencyRegistry.CAPACITY, first.length);
+        assertEquals(0.000064, first[CurrencyRegistry.USD]);
+        assertEquals(1.0, first[CurrencyRegistry.ordinal("JPY")]);
+        assertTrue(Double.isNaN(first[CurrencyRegistry.ordinal("EUR")]));
+        assertEquals(0.00006, days.get("2025-01-03")[CurrencyRegistry.ordinal("EUR")]);
+    }
+
+    @Test
+    void parse_SkipsMalformedCodesNonNumericValuesAndOtherFields() throws IOException {
+        // Arrange
+        String json = "{\"meta\":{\"rates\":{\"x\":1}},\"base\":\"IDR\",\"rates\":{\"2025-01-02\":"
+                + "{\"Q1Q\":1.5,\"usd\":2.0,\"EUR\":null,\"GBP\":{\"a\":[1]},\"USD\":0.5}}}";
+
+        // Act
+        double[] row = DailyRatesParser.parse(stream(json)).get("2025-01-02");
+
+        // Assert
+        assertEquals(0.5, row[CurrencyRegistry.USD]);
+        assertTrue(Double.isNaN(row[CurrencyRegistry.ordinal("EUR")]));
+        assertTrue(Double.isNaN(row[CurrencyRegistry.ordinal("GBP")]));
+    }
+
+    @Test
+    void parse_CodeOutsideDataset_IsRegisteredAndKept() throws IOException {
+        // Arrange
+        String json = "{\"rates\":{\"2025-01-02\":{\"QPA\":1.5,\"USD\":0.5}}}";
+
+        // Act
+        double[] row = DailyRatesParser.parse(stream(json)).get("2025-01-02");
+
+        // Assert
+        int ordinal = CurrencyRegistry.ordinal("QPA");
+        assertTrue(ordinal >= CurrencyRegistry.DATASET_SIZE);
+        assertEquals(1.5, row[ordinal]);
+    }
+
+    @Test
+    void parse_EmptyRates() throws IOException {
+        assertTrue(DailyRatesParser.parse(stream("{\"rates\":{}}")).isEmpty());
+        assertTrue(DailyRatesParser.parse(stream("{\"base\":\"IDR\"}")).isEmpty());
+    }
+
+    @Test
+    void parse_RejectsNonObjectBodies() {
+        assertThrows(IOException.class, () -> DailyRatesParser.parse(stream("[]")));
+        assertThrows(IOException.class, () -> DailyRatesParser.parse(stream("{\"rates\":{\"2025-01-02\":[1]}}")));
+        assertThrows(IOException.class, () -> DailyRatesParser.parse(stream("{\"rates\":{\"2025-01-02\":{\"USD\":1")));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
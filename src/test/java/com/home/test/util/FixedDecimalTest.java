@@ -0,0 +1,79 @@
+package com.home.test.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedDecimalTest {
+
+    @Test
+    void format_MatchesStringFormatForRandomSmallRates() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            double value = random.nextDouble() * Math.pow(10, -3 - random.nextInt(8));
+            assertMatchesFormatter(value, 8);
+        }
+    }
+
+    @Test
+    void format_MatchesStringFormatOnHalfwayCases() {
+        // k.5 units in the 9th decimal: the cases where rounding the raw scaled product goes wrong
+        for (long k = 0; k < 100_000; k++) {
+            assertMatchesFormatter((2 * k + 1) / 2e8, 8);
+            assertMatchesFormatter(k / 1e8 + 5e-9, 8);
+            assertMatchesFormatter(Math.nextDown((2 * k + 1) / 2e8), 8);
+            assertMatchesFormatter(Math.nextUp((2 * k + 1) / 2e8), 8);
+        }
+    }
+
+    @Test
+    void format_MatchesStringFormatAcrossScales() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int scale = 0; scale <= 10; scale++) {
+            for (int i = 0; i < 20_000; i++) {
+                assertMatchesFormatter(random.nextDouble() * 20_000, scale);
+            }
+        }
+    }
+
+    @Test
+    void format_EdgeValues() {
+        assertEquals("0.00000000", format(0.0, 8));
+        assertEquals("0.00000001", format(1e-8, 8));
+        assertEquals("0.00000000", format(4.9e-9, 8));
+        assertEquals("0.00100000", format(0.000999999999, 8));
+        assertEquals("0.00006400", format(0.000064, 8));
+        assertEquals("15757", format(15757.32, 0));
+    }
+
+    @Test
+    void format_RejectsUnsupportedValues() {
+        char[] dest = new char[32];
+        assertThrows(IllegalArgumentException.class, () -> FixedDecimal.format(-1e-5, 8, dest, 0));
+        assertThrows(IllegalArgumentException.class, () -> FixedDecimal.format(Double.NaN, 8, dest, 0));
+        assertThrows(IllegalArgumentException.class, () -> FixedDecimal.format(1e10, 8, dest, 0));
+        assertThrows(IllegalArgumentException.class, () -> FixedDecimal.format(1.0, 16, dest, 0));
+    }
+
+    @Test
+    void format_WritesAtOffset() {
+        char[] dest = "xxxxxxxxxxxxxx".toCharArray();
+
+        int length = FixedDecimal.format(0.000064, 8, dest, 2);
+
+        assertEquals(10, length);
+        assertEquals("xx0.00006400xx", new String(dest));
+    }
+
+    private static void assertMatchesFormatter(double value, int scale) {
+        assertEquals(String.format(Locale.ROOT, "%." + scale + "f", value), format(value, scale), () -> "value " + value);
+    }
+
+    private static String format(double value, int scale) {
+        char[] dest = new char[32];
+        return new String(dest, 0, FixedDecimal.format(value, scale, dest, 0));
+    }
+}
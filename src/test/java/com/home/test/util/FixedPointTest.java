@@ -0,0 +1,91 @@
+package com.home.test.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointTest {
+
+    @Test
+    void testToScaled_exactForUpstreamDecimals() {
+        assertEquals(64_000_000L, FixedPoint.toScaled(0.000064));
+        assertEquals(15_757_320_000_000_000L, FixedPoint.toScaled(15757.32));
+        assertEquals(-1_500_000_000_000L, FixedPoint.toScaled(-1.5));
+    }
+
+    @Test
+    void testToScaled_outOfRange() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint.toScaled(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.toScaled(1e8));
+    }
+
+    @Test
+    void testToDouble() {
+        assertEquals(15757.32, FixedPoint.toDouble(1_575_732L, 2));
+        assertEquals(15757.0, FixedPoint.toDouble(15_757L, 0));
+    }
+
+    @Test
+    void testDivide_roundingModes() {
+        assertEquals(2L, FixedPoint.divide(5, 2, RoundingMode.HALF_EVEN));
+        assertEquals(4L, FixedPoint.divide(7, 2, RoundingMode.HALF_EVEN));
+        assertEquals(3L, FixedPoint.divide(5, 2, RoundingMode.HALF_UP));
+        assertEquals(2L, FixedPoint.divide(5, 2, RoundingMode.HALF_DOWN));
+        assertEquals(2L, FixedPoint.divide(5, 2, RoundingMode.DOWN));
+        assertEquals(3L, FixedPoint.divide(5, 2, RoundingMode.UP));
+        assertEquals(-3L, FixedPoint.divide(-5, 2, RoundingMode.FLOOR));
+        assertEquals(-2L, FixedPoint.divide(-5, 2, RoundingMode.CEILING));
+        assertEquals(-3L, FixedPoint.divide(-5, 2, RoundingMode.HALF_UP));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.divide(5, 2, RoundingMode.UNNECESSARY));
+        assertEquals(3L, FixedPoint.divide(6, 2, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void testMultiplyDivide_matchesBigDecimalBeyond64Bits() {
+        Random random = new Random(42);
+        for (RoundingMode mode : new RoundingMode[]{RoundingMode.HALF_EVEN, RoundingMode.HALF_UP, RoundingMode.FLOOR, RoundingMode.CEILING}) {
+            for (int i = 0; i < 50_000; i++) {
+                long a = random.nextLong() >> random.nextInt(20);
+                long b = (random.nextLong() >>> 1) >> random.nextInt(63);
+                long divisor = random.nextBoolean()
+                        ? FixedPoint.pow10(random.nextInt(7) + 12)
+                        : (random.nextLong() >>> 1) + 1;
+
+                BigInteger expected = new BigDecimal(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)))
+                        .divide(BigDecimal.valueOf(divisor), 0, mode)
+                        .toBigIntegerExact();
+
+                if (expected.bitLength() < 63 && BigInteger.valueOf(a).abs().multiply(BigInteger.valueOf(b))
+                        .shiftRight(64).compareTo(BigInteger.valueOf(divisor)) < 0) {
+                    assertEquals(expected.longValueExact(), FixedPoint.multiplyDivide(a, b, divisor, mode),
+                            a + " * " + b + " / " + divisor + " " + mode);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMultiplyDivide_overflow() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiplyDivide(Long.MAX_VALUE, Long.MAX_VALUE, 2, RoundingMode.DOWN));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiplyDivide(1, 1, 0, RoundingMode.DOWN));
+    }
+
+    @Test
+    void testConvert_roundsToTargetDecimalPlaces() {
+        long usdToIdr = FixedPoint.toScaled(15757.32);
+
+        // USD 12.34 -> IDR (0 dp): 194,445.3288 -> 194,445
+        assertEquals(194_445L, FixedPoint.convert(1_234L, 2, usdToIdr, 0, RoundingMode.HALF_EVEN));
+
+        // IDR 1,000,000 -> USD (2 dp) at 0.000064: 64.00
+        assertEquals(6_400L, FixedPoint.convert(1_000_000L, 0, FixedPoint.toScaled(0.000064), 2, RoundingMode.HALF_EVEN));
+
+        // Large settlement amount whose product needs more than 64 bits
+        assertEquals(1_575_732_000_000_000L, FixedPoint.convert(100_000_000_000L, 0, usdToIdr, 0, RoundingMode.HALF_EVEN));
+    }
+}
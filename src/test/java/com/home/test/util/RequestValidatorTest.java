@@ -0,0 +1,92 @@
+package com.home.test.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestValidatorTest {
+
+    private final RequestValidator validator = new RequestValidator(List.of("IDR", "USD", "EUR", "AAA", "ZZZ"));
+
+    // ==================== CURRENCY CODE TESTS ====================
+
+    @Test
+    void isSupportedCurrencyCode_AcceptsOnlyConfiguredCodes() {
+        assertTrue(validator.isSupportedCurrencyCode("IDR"));
+        assertTrue(validator.isSupportedCurrencyCode("USD"));
+        assertTrue(validator.isSupportedCurrencyCode("AAA"));
+        assertTrue(validator.isSupportedCurrencyCode("ZZZ"));
+        assertFalse(validator.isSupportedCurrencyCode("GBP"));
+        assertFalse(validator.isSupportedCurrencyCode("AAB"));
+    }
+
+    @Test
+    void isSupportedCurrencyCode_RejectsMalformedCodes() {
+        for (String code : new String[]{null, "", "US", "USDA", "usd", "Usd", "U1D", "U-D", "@SD", "[SD", "ÜSD"}) {
+            assertFalse(validator.isSupportedCurrencyCode(code), String.valueOf(code));
+        }
+    }
+
+    @Test
+    void codeIndex_IsCollisionFreeOverAllCodes() {
+        boolean[] seen = new boolean[26 * 26 * 26];
+        for (char a = 'A'; a <= 'Z'; a++) {
+            for (char b = 'A'; b <= 'Z'; b++) {
+                for (char c = 'A'; c <= 'Z'; c++) {
+                    int index = RequestValidator.codeIndex("" + a + b + c);
+                    assertFalse(seen[index]);
+                    seen[index] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    void constructor_RejectsMalformedSupportedCode() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestValidator(List.of("usd")));
+    }
+
+    // ==================== DATE TESTS ====================
+
+    @Test
+    void isIsoDate_AgreesWithLocalDateParseOverEveryDayAndInvalidDay() {
+        for (int year : new int[]{1900, 1999, 2000, 2023, 2024, 2100}) {
+            for (int month = 1; month <= 12; month++) {
+                for (int day = 0; day <= 32; day++) {
+                    String date = String.format("%04d-%02d-%02d", year, month, day);
+                    assertEquals(parses(date), RequestValidator.isIsoDate(date), date);
+                }
+            }
+        }
+    }
+
+    @Test
+    void isIsoDate_RejectsMalformedInput() {
+        String[] invalid = {null, "", "2024/01/01", "01-01-2024", "2024-1-1", "24-01-01", "invalid-date",
+                "2024-00-10", "2024-13-01", "2024-01-1a", "2024-01-01T00", " 2024-01-01", "2024--1-01"};
+        for (String date : invalid) {
+            assertFalse(RequestValidator.isIsoDate(date), String.valueOf(date));
+        }
+    }
+
+    @Test
+    void isIsoDate_HandlesLeapYears() {
+        assertTrue(RequestValidator.isIsoDate("2024-02-29"));
+        assertTrue(RequestValidator.isIsoDate("2000-02-29"));
+        assertFalse(RequestValidator.isIsoDate("1900-02-29"));
+        assertFalse(RequestValidator.isIsoDate("2025-02-29"));
+    }
+
+    private static boolean parses(String date) {
+        try {
+            LocalDate.parse(date);
+            return true;
+        } catch (DateTimeException e) {
+            return false;
+        }
+    }
+}
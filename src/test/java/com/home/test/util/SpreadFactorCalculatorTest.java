@@ -3,6 +3,8 @@ package com.home.test.util;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SpreadFactorCalculatorTest {
@@ -78,4 +80,42 @@ class SpreadFactorCalculatorTest {
         double expected = 1.0 / usdRate;
         assertEquals(expected, result, 0.01, "Zero spread factor should return simple reciprocal");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBatchSpreadIdr_matchesPerElementCalculation() {
+        Random random = new Random(11);
+        for (int size : new int[]{0, 1, 3, 8, 31, 257}) {
+            double[] rates = new double[size];
+            double[] spreads = new double[size];
+            for (int i = 0; i < size; i++) {
+                rates[i] = i % 7 == 0 ? 0.0 : 0.00001 + random.nextDouble() * 0.01;
+                spreads[i] = random.nextDouble() * 0.01;
+            }
+
+            double[] buy = new double[size];
+            double[] sell = new double[size];
+            calculator.calculateBuySpreadIdr(rates, spreads, buy);
+            calculator.calculateSellSpreadIdr(rates, spreads, sell);
+
+            for (int i = 0; i < size; i++) {
+                assertEquals(calculator.calculateBuySpreadIdr(rates[i], spreads[i]), buy[i], 0.0);
+                assertEquals(calculator.calculateSellSpreadIdr(rates[i], spreads[i]), sell[i], 0.0);
+            }
+
+            double[] scalarBuy = new double[size];
+            SpreadFactorCalculator.calculateSpreadIdrScalar(rates, spreads, scalarBuy, true);
+            assertArrayEquals(scalarBuy, buy, 0.0);
+        }
+    }
+
+    @Test
+    void testBatchSpreadIdr_lengthMismatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculateBuySpreadIdr(new double[2], new double[1], new double[2]));
+    }
+
+    @Test
+    void testIsVectorized_whenIncubatorModuleIsResolved() {
+        assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), calculator.isVectorized());
+    }
+}
@@ -0,0 +1,81 @@
+package com.home.test.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_StartsFullAndAllowsBurst() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10.0, 5, 0L);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, bucket.tryAcquire(0L));
+        }
+        assertEquals(SECOND / 10, bucket.tryAcquire(0L));
+    }
+
+    @Test
+    void tryAcquire_RefillsAtConfiguredRate() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10.0, 1, 0L);
+        assertEquals(0L, bucket.tryAcquire(0L));
+
+        // Act & Assert
+        assertTrue(bucket.tryAcquire(SECOND / 20) > 0);
+        assertEquals(0L, bucket.tryAcquire(SECOND / 10));
+    }
+
+    @Test
+    void tryAcquire_IdleTimeDoesNotExceedCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1.0, 3, 0L);
+
+        // Act
+        long now = 3_600 * SECOND;
+        int granted = 0;
+        while (bucket.tryAcquire(now) == 0) {
+            granted++;
+        }
+
+        // Assert
+        assertEquals(3, granted);
+    }
+
+    @Test
+    void tryAcquire_ConcurrentCallersNeverExceedCapacity() throws Exception {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1.0, 100, 0L);
+        AtomicInteger granted = new AtomicInteger();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1_000; i++) {
+                executor.submit(() -> {
+                    if (bucket.tryAcquire(0L) == 0) {
+                        granted.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        // Assert
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    void constructor_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0.0, 1, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1.0, 0, 0L));
+    }
+}